@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2019 Denis Forveille titou10.titou10@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.titou10.jtb.benchmark;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.Session;
+
+import org.titou10.jtb.benchmark.jms.StubBytesMessage;
+import org.titou10.jtb.benchmark.jms.StubJMS;
+import org.titou10.jtb.benchmark.jms.StubMapMessage;
+import org.titou10.jtb.benchmark.jms.StubMessage;
+import org.titou10.jtb.benchmark.jms.StubTextMessage;
+import org.titou10.jtb.jms.model.JTBConnection;
+import org.titou10.jtb.jms.model.JTBMessageType;
+import org.titou10.jtb.jms.model.JTBQueue;
+import org.titou10.jtb.jms.model.JTBSessionClientType;
+
+/**
+ * Data shared by the benchmarks: JTB objects not connected to any broker and in-memory JMS messages
+ * 
+ * @author Denis Forveille
+ *
+ */
+final class BenchmarkMessages {
+
+   static final String NEEDLE = "needle";
+
+   private BenchmarkMessages() {
+      // Utility class
+   }
+
+   // A connection never connected: only the methods that receive their JMS session as parameter can be used
+   static JTBConnection createJTBConnection() {
+      return new JTBConnection(null, JTBSessionClientType.SCRIPT, null, null, null);
+   }
+
+   // A queue whose JMS Queue is created without JMS session
+   static JTBQueue createJTBQueue(JTBConnection jtbConnection, String name) {
+      return new JTBQueue(jtbConnection, name, true) {
+         @Override
+         protected Destination createJmsDestination(Session session) {
+            return StubJMS.createQueue(name);
+         }
+      };
+   }
+
+   static String createText(int size, boolean withNeedle) {
+      char[] text = new char[size];
+      Arrays.fill(text, 'x');
+      if (withNeedle) {
+         NEEDLE.getChars(0, NEEDLE.length(), text, size - NEEDLE.length());
+      }
+      return new String(text);
+   }
+
+   static Map<String, Object> createMap(int size, boolean withNeedle) {
+      Map<String, Object> map = new HashMap<>();
+      for (int i = 0; i < size / 32; i++) {
+         map.put("key" + i, "value of the key " + i);
+      }
+      if (withNeedle) {
+         map.put("key" + map.size(), NEEDLE);
+      }
+      return map;
+   }
+
+   // An empty message of the given type, as created by JTBConnection.createJMSMessage() before a post
+   static Message createEmptyMessage(JTBMessageType jtbMessageType) {
+      switch (jtbMessageType) {
+         case TEXT:
+            return new StubTextMessage();
+         case BYTES:
+            return new StubBytesMessage();
+         case MAP:
+            return new StubMapMessage();
+         default:
+            return new StubMessage();
+      }
+   }
+
+   // A message as received from a broker, with its headers, nbProperties user properties and a payload of about
+   // payloadSize bytes
+   static Message createMessage(JTBMessageType jtbMessageType,
+                                int payloadSize,
+                                int nbProperties,
+                                boolean withNeedle) throws JMSException {
+      Message m;
+      switch (jtbMessageType) {
+         case TEXT:
+            m = new StubTextMessage(createText(payloadSize, withNeedle));
+            break;
+
+         case BYTES:
+            byte[] bytes = new byte[payloadSize];
+            Arrays.fill(bytes, (byte) 'x');
+            m = new StubBytesMessage(bytes);
+            break;
+
+         case MAP:
+            StubMapMessage mm = new StubMapMessage();
+            for (Entry<String, Object> e : createMap(payloadSize, withNeedle).entrySet()) {
+               mm.setObject(e.getKey(), e.getValue());
+            }
+            m = mm;
+            break;
+
+         default:
+            m = new StubMessage();
+            break;
+      }
+
+      m.setJMSMessageID("ID:JTB-BENCHMARK-" + System.nanoTime());
+      m.setJMSTimestamp(System.currentTimeMillis());
+      m.setJMSCorrelationID("correlation-id");
+      m.setJMSType("benchmark");
+      m.setJMSPriority(4);
+      for (int i = 0; i < nbProperties; i++) {
+         m.setStringProperty("property" + i, "value of the property " + i);
+      }
+      return m;
+   }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2019 Denis Forveille titou10.titou10@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.titou10.jtb.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.Session;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.titou10.jtb.benchmark.jms.StubJMS;
+import org.titou10.jtb.jms.model.JTBConnection;
+import org.titou10.jtb.jms.model.JTBMessageType;
+import org.titou10.jtb.jms.model.JTBQueue;
+
+/**
+ * Browse of a queue with a filter on the payload of the messages, on an in-memory QueueBrowser
+ * 
+ * One message out of ten contains the text searched when "payloadSearchText" is "needle"
+ * 
+ * @author Denis Forveille
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BrowseQueueBenchmark {
+
+   @Param({ "TEXT", "MAP" })
+   private JTBMessageType jtbMessageType;
+
+   @Param({ "1024", "102400" })
+   private int            payloadSize;
+
+   @Param({ "", "needle", "absent" })
+   private String         payloadSearchText;
+
+   @Param({ "1000" })
+   private int            nbMessages;
+
+   private JTBConnection  jtbConnection;
+   private JTBQueue       jtbQueue;
+   private Session        session;
+
+   @Setup
+   public void setup() throws JMSException {
+      jtbConnection = BenchmarkMessages.createJTBConnection();
+      jtbQueue = BenchmarkMessages.createJTBQueue(jtbConnection, "BENCHMARK.QUEUE");
+
+      List<Message> messages = new ArrayList<>(nbMessages);
+      for (int i = 0; i < nbMessages; i++) {
+         messages.add(BenchmarkMessages.createMessage(jtbMessageType, payloadSize, 5, i % 10 == 0));
+      }
+      session = StubJMS.createBrowsingSession(messages);
+   }
+
+   @Benchmark
+   public int browseQueue(Blackhole bh) throws JMSException {
+      return jtbConnection.browseQueue(session, jtbQueue, 0, payloadSearchText, "", jtbMessage -> {
+         bh.consume(jtbMessage);
+         return true;
+      });
+   }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2019 Denis Forveille titou10.titou10@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.titou10.jtb.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.jms.Message;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.titou10.jtb.benchmark.jms.StubMapMessage;
+import org.titou10.jtb.cs.ColumnsSetsManager;
+import org.titou10.jtb.cs.gen.UserProperty;
+import org.titou10.jtb.cs.gen.UserPropertyOrigin;
+import org.titou10.jtb.cs.gen.UserPropertyType;
+
+/**
+ * Value of a "user property" column of the messages browser, computed for each message displayed
+ * 
+ * @author Denis Forveille
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColumnsSetsBenchmark {
+
+   private static final String PROPERTY_NAME = "timestamp";
+
+   @Param({ "USER_PROPERTY", "MAP_KEY" })
+   private UserPropertyOrigin  origin;
+
+   @Param({ "STRING", "LONG_TO_TS", "LONG_TO_DATE" })
+   private UserPropertyType    type;
+
+   // Number of rows displayed
+   @Param({ "500" })
+   private int                 nbMessages;
+
+   private ColumnsSetsManager  csManager;
+   private UserProperty        userProperty;
+   private Message[]           messages;
+
+   @Setup
+   public void setup() {
+      // Only getColumnUserPropertyValueAsString() is called, nothing is injected
+      csManager = new ColumnsSetsManager();
+
+      userProperty = new UserProperty();
+      userProperty.setUserPropertyName(PROPERTY_NAME);
+      userProperty.setDisplayName(PROPERTY_NAME);
+      userProperty.setOrigin(origin);
+      userProperty.setType(type);
+
+      long now = System.currentTimeMillis();
+      messages = new Message[nbMessages];
+      for (int i = 0; i < nbMessages; i++) {
+         StubMapMessage m = new StubMapMessage();
+         m.setLongProperty(PROPERTY_NAME, now - i * 1000L);
+         m.setLong(PROPERTY_NAME, now - i * 1000L);
+         messages[i] = m;
+      }
+   }
+
+   @Benchmark
+   public void getColumnUserPropertyValueAsString(Blackhole bh) {
+      for (Message m : messages) {
+         bh.consume(csManager.getColumnUserPropertyValueAsString(m, userProperty));
+      }
+   }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2019 Denis Forveille titou10.titou10@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.titou10.jtb.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.jms.JMSException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.titou10.jtb.connector.transport.MessageOutput;
+import org.titou10.jtb.jms.model.JTBMessage;
+import org.titou10.jtb.jms.model.JTBMessageType;
+
+/**
+ * Conversion of a browsed message to the transport object returned by the REST connector
+ * 
+ * @author Denis Forveille
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageOutputBenchmark {
+
+   @Param({ "TEXT", "BYTES", "MAP" })
+   private JTBMessageType jtbMessageType;
+
+   @Param({ "1024", "102400" })
+   private int            payloadSize;
+
+   @Param({ "0", "20" })
+   private int            nbProperties;
+
+   private JTBMessage     jtbMessage;
+
+   @Setup
+   public void setup() throws JMSException {
+      jtbMessage = new JTBMessage(BenchmarkMessages.createJTBQueue(BenchmarkMessages.createJTBConnection(), "BENCHMARK.QUEUE"),
+                                  BenchmarkMessages.createMessage(jtbMessageType, payloadSize, nbProperties, false));
+   }
+
+   @Benchmark
+   public MessageOutput messageOutput() throws JMSException {
+      return new MessageOutput(jtbMessage, null);
+   }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2019 Denis Forveille titou10.titou10@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.titou10.jtb.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.titou10.jtb.jms.model.JTBMessageTemplate;
+import org.titou10.jtb.jms.model.JTBMessageType;
+
+/**
+ * Copy of a message template for each message posted by a script: Java serialization round trip (what
+ * JTBMessageTemplate.deepClone did) vs copy constructor
+ * 
+ * Run with "-prof gc" to compare the allocation rates
+ * 
+ * @author Denis Forveille
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemplateCopyBenchmark {
+
+   @Param({ "TEXT", "BYTES", "MAP" })
+   private JTBMessageType     jtbMessageType;
+
+   @Param({ "1024", "102400" })
+   private int                payloadSize;
+
+   private JTBMessageTemplate template;
+
+   @Setup
+   public void setup() {
+      template = new JTBMessageTemplate();
+      template.setJtbMessageType(jtbMessageType);
+      template.setJmsType("benchmark");
+      template.setJmsCorrelationID("correlation-id");
+      template.setPriority(4);
+      template.setTimeToLive(0L);
+
+      // No user properties: JTBProperty is not Serializable, the serialization round trip would fail
+      switch (jtbMessageType) {
+         case TEXT:
+            char[] text = new char[payloadSize];
+            Arrays.fill(text, 'x');
+            template.setPayloadText(new String(text));
+            break;
+
+         case BYTES:
+            byte[] bytes = new byte[payloadSize];
+            Arrays.fill(bytes, (byte) 'x');
+            template.setPayloadBytes(bytes);
+            break;
+
+         case MAP:
+            Map<String, Object> map = new HashMap<>();
+            for (int i = 0; i < payloadSize / 32; i++) {
+               map.put("key" + i, "value of the key " + i);
+            }
+            template.setPayloadMap(map);
+            break;
+
+         default:
+            break;
+      }
+   }
+
+   @Benchmark
+   public JTBMessageTemplate serializationRoundTrip() throws IOException, ClassNotFoundException {
+      ByteArrayOutputStream baos = new ByteArrayOutputStream();
+      ObjectOutputStream oos = new ObjectOutputStream(baos);
+      oos.writeObject(template);
+      ByteArrayInputStream bais = new ByteArrayInputStream(baos.toByteArray());
+      ObjectInputStream ois = new ObjectInputStream(bais);
+      return (JTBMessageTemplate) ois.readObject();
+   }
+
+   @Benchmark
+   public JTBMessageTemplate copyConstructor() {
+      return new JTBMessageTemplate(template);
+   }
+}
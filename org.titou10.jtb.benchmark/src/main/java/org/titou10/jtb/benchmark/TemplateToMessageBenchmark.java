@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2019 Denis Forveille titou10.titou10@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.titou10.jtb.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.jms.JMSException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.titou10.jtb.jms.model.JTBMessage;
+import org.titou10.jtb.jms.model.JTBMessageTemplate;
+import org.titou10.jtb.jms.model.JTBMessageType;
+import org.titou10.jtb.jms.model.JTBProperty;
+import org.titou10.jtb.jms.model.JTBQueue;
+import org.titou10.jtb.jms.qm.JMSPropertyKind;
+
+/**
+ * Build of the JMS message to post from a message template: alone (post of a template) and after the copy of the template
+ * done for each message posted by a script
+ * 
+ * @author Denis Forveille
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemplateToMessageBenchmark {
+
+   @Param({ "TEXT", "BYTES", "MAP" })
+   private JTBMessageType     jtbMessageType;
+
+   @Param({ "1024", "102400" })
+   private int                payloadSize;
+
+   @Param({ "0", "10" })
+   private int                nbProperties;
+
+   private JTBMessageTemplate template;
+   private JTBQueue           jtbQueue;
+
+   @Setup
+   public void setup() {
+      jtbQueue = BenchmarkMessages.createJTBQueue(BenchmarkMessages.createJTBConnection(), "BENCHMARK.QUEUE");
+
+      template = new JTBMessageTemplate();
+      template.setJtbMessageType(jtbMessageType);
+      template.setJmsType("benchmark");
+      template.setJmsCorrelationID("correlation-id");
+      template.setPriority(4);
+      template.setTimeToLive(0L);
+
+      switch (jtbMessageType) {
+         case TEXT:
+            template.setPayloadText(BenchmarkMessages.createText(payloadSize, false));
+            break;
+
+         case BYTES:
+            byte[] bytes = new byte[payloadSize];
+            Arrays.fill(bytes, (byte) 'x');
+            template.setPayloadBytes(bytes);
+            break;
+
+         case MAP:
+            template.setPayloadMap(BenchmarkMessages.createMap(payloadSize, false));
+            break;
+
+         default:
+            break;
+      }
+
+      // Mix of property kinds, converted from their string value on each message
+      JMSPropertyKind[] kinds = { JMSPropertyKind.STRING, JMSPropertyKind.INT, JMSPropertyKind.LONG, JMSPropertyKind.BOOLEAN };
+      List<JTBProperty> jtbProperties = new ArrayList<>(nbProperties);
+      for (int i = 0; i < nbProperties; i++) {
+         JMSPropertyKind kind = kinds[i % kinds.length];
+         String value = kind == JMSPropertyKind.BOOLEAN ? "true" : kind == JMSPropertyKind.STRING ? "value " + i : String.valueOf(i);
+         jtbProperties.add(new JTBProperty("property" + i, value, kind));
+      }
+      template.setJtbProperties(jtbProperties);
+   }
+
+   @Benchmark
+   public JTBMessage toJTBMessage() throws JMSException {
+      return template.toJTBMessage(jtbQueue, BenchmarkMessages.createEmptyMessage(jtbMessageType));
+   }
+
+   // What a script step does for each message
+   @Benchmark
+   public JTBMessage copyAndToJTBMessage() throws JMSException {
+      JTBMessageTemplate copy = new JTBMessageTemplate(template);
+      return copy.toJTBMessage(jtbQueue, BenchmarkMessages.createEmptyMessage(jtbMessageType));
+   }
+}
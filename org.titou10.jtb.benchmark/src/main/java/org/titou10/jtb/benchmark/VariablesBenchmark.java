@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2019 Denis Forveille titou10.titou10@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.titou10.jtb.benchmark;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.titou10.jtb.variable.CompiledText;
+import org.titou10.jtb.variable.VariablesManager;
+
+/**
+ * Substitution of the variables of a payload: one "replaceAll" per variable vs a text compiled once and rendered in one pass
+ * 
+ * @author Denis Forveille
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VariablesBenchmark {
+
+   @Param({ "1024", "102400" })
+   private int                 payloadSize;
+
+   @Param({ "5", "40" })
+   private int                 nbVariables;
+
+   private String              payload;
+   private Map<String, String> values;
+
+   private CompiledText        compiledText;
+   private StringBuilder       buffer;
+
+   private VariablesManager    variablesManager;
+   private CompiledText        unboundCompiledText;
+   private Random              random;
+
+   @Setup
+   public void setup() {
+      values = new LinkedHashMap<>();
+      for (int i = 0; i < nbVariables; i++) {
+         values.put("var" + i, "value-" + i);
+      }
+
+      // A payload of payloadSize chars, with a reference to a variable every 200 chars
+      StringBuilder sb = new StringBuilder(payloadSize + 64);
+      int n = 0;
+      while (sb.length() < payloadSize) {
+         sb.append("<field>Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod tempor incididunt</field>");
+         sb.append("<field>ut labore et dolore magna aliqua. Ut enim ad minim veniam, quis nostrud</field>");
+         sb.append("<value>${var").append(n++ % nbVariables).append("}</value>");
+      }
+      payload = sb.toString();
+
+      compiledText = CompiledText.compile(payload);
+      buffer = new StringBuilder(payload.length() * 2);
+
+      // Only the data file variables are substituted: the template variables are not bound, nothing is injected
+      variablesManager = new VariablesManager();
+      unboundCompiledText = CompiledText.compile(payload);
+      random = new Random(0);
+   }
+
+   // What VariablesManager did before: a regex compilation and a full scan of the payload per variable
+   @Benchmark
+   public String replaceAllPerVariable() {
+      String res = payload;
+      for (Entry<String, String> e : values.entrySet()) {
+         res = res.replaceAll("\\$\\{" + e.getKey() + "\\}", e.getValue());
+      }
+      return res;
+   }
+
+   // Script steps: the payload is compiled once per step and rendered for each message
+   @Benchmark
+   public String compiledRender() {
+      String[] names = compiledText.getNames();
+      String[] v = new String[names.length];
+      for (int i = 0; i < names.length; i++) {
+         v[i] = values.get(names[i]);
+      }
+      return compiledText.render(v, buffer);
+   }
+
+   // Script steps with a data file: the values of the variables are the values of the current line of the data file
+   @Benchmark
+   public String replaceTemplateVariables() {
+      return variablesManager.replaceTemplateVariables(unboundCompiledText, values, random, buffer);
+   }
+
+   // One-shot substitutions (send from template...): the payload is compiled for each message
+   @Benchmark
+   public String compileAndRender() {
+      CompiledText ct = CompiledText.compile(payload);
+      String[] names = ct.getNames();
+      String[] v = new String[names.length];
+      for (int i = 0; i < names.length; i++) {
+         v[i] = values.get(names[i]);
+      }
+      return ct.render(v, null);
+   }
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright (C) 2019 Denis Forveille titou10.titou10@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.titou10.jtb.benchmark.jms;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import javax.jms.BytesMessage;
+import javax.jms.JMSException;
+import javax.jms.MessageFormatException;
+
+/**
+ * In-memory JMS BytesMessage. The message is in write-only mode until reset() is called, as with JMS providers
+ * 
+ * @author Denis Forveille
+ *
+ */
+public class StubBytesMessage extends StubMessage implements BytesMessage {
+
+   private ByteArrayOutputStream baos = new ByteArrayOutputStream();
+   private DataOutputStream      out  = new DataOutputStream(baos);
+   private byte[]                body;
+   private DataInputStream       in;
+
+   public StubBytesMessage() {
+   }
+
+   // A message in read-only mode, as received from a broker
+   public StubBytesMessage(byte[] body) {
+      this.body = body;
+      reset();
+   }
+
+   @Override
+   public long getBodyLength() {
+      return body == null ? baos.size() : body.length;
+   }
+
+   @Override
+   public void reset() {
+      if (body == null) {
+         body = baos.toByteArray();
+         baos = null;
+         out = null;
+      }
+      in = new DataInputStream(new ByteArrayInputStream(body));
+   }
+
+   @Override
+   public void clearBody() {
+      baos = new ByteArrayOutputStream();
+      out = new DataOutputStream(baos);
+      body = null;
+      in = null;
+   }
+
+   // ----
+   // Read
+   // ----
+
+   @Override
+   public boolean readBoolean() throws JMSException {
+      try {
+         return in.readBoolean();
+      } catch (IOException e) {
+         throw toJMSException(e);
+      }
+   }
+
+   @Override
+   public byte readByte() throws JMSException {
+      try {
+         return in.readByte();
+      } catch (IOException e) {
+         throw toJMSException(e);
+      }
+   }
+
+   @Override
+   public int readUnsignedByte() throws JMSException {
+      try {
+         return in.readUnsignedByte();
+      } catch (IOException e) {
+         throw toJMSException(e);
+      }
+   }
+
+   @Override
+   public short readShort() throws JMSException {
+      try {
+         return in.readShort();
+      } catch (IOException e) {
+         throw toJMSException(e);
+      }
+   }
+
+   @Override
+   public int readUnsignedShort() throws JMSException {
+      try {
+         return in.readUnsignedShort();
+      } catch (IOException e) {
+         throw toJMSException(e);
+      }
+   }
+
+   @Override
+   public char readChar() throws JMSException {
+      try {
+         return in.readChar();
+      } catch (IOException e) {
+         throw toJMSException(e);
+      }
+   }
+
+   @Override
+   public int readInt() throws JMSException {
+      try {
+         return in.readInt();
+      } catch (IOException e) {
+         throw toJMSException(e);
+      }
+   }
+
+   @Override
+   public long readLong() throws JMSException {
+      try {
+         return in.readLong();
+      } catch (IOException e) {
+         throw toJMSException(e);
+      }
+   }
+
+   @Override
+   public float readFloat() throws JMSException {
+      try {
+         return in.readFloat();
+      } catch (IOException e) {
+         throw toJMSException(e);
+      }
+   }
+
+   @Override
+   public double readDouble() throws JMSException {
+      try {
+         return in.readDouble();
+      } catch (IOException e) {
+         throw toJMSException(e);
+      }
+   }
+
+   @Override
+   public String readUTF() throws JMSException {
+      try {
+         return in.readUTF();
+      } catch (IOException e) {
+         throw toJMSException(e);
+      }
+   }
+
+   @Override
+   public int readBytes(byte[] value) throws JMSException {
+      return readBytes(value, value.length);
+   }
+
+   @Override
+   public int readBytes(byte[] value, int length) throws JMSException {
+      try {
+         return in.read(value, 0, length);
+      } catch (IOException e) {
+         throw toJMSException(e);
+      }
+   }
+
+   // -----
+   // Write
+   // -----
+
+   @Override
+   public void writeBoolean(boolean value) throws JMSException {
+      try {
+         out.writeBoolean(value);
+      } catch (IOException e) {
+         throw toJMSException(e);
+      }
+   }
+
+   @Override
+   public void writeByte(byte value) throws JMSException {
+      try {
+         out.writeByte(value);
+      } catch (IOException e) {
+         throw toJMSException(e);
+      }
+   }
+
+   @Override
+   public void writeShort(short value) throws JMSException {
+      try {
+         out.writeShort(value);
+      } catch (IOException e) {
+         throw toJMSException(e);
+      }
+   }
+
+   @Override
+   public void writeChar(char value) throws JMSException {
+      try {
+         out.writeChar(value);
+      } catch (IOException e) {
+         throw toJMSException(e);
+      }
+   }
+
+   @Override
+   public void writeInt(int value) throws JMSException {
+      try {
+         out.writeInt(value);
+      } catch (IOException e) {
+         throw toJMSException(e);
+      }
+   }
+
+   @Override
+   public void writeLong(long value) throws JMSException {
+      try {
+         out.writeLong(value);
+      } catch (IOException e) {
+         throw toJMSException(e);
+      }
+   }
+
+   @Override
+   public void writeFloat(float value) throws JMSException {
+      try {
+         out.writeFloat(value);
+      } catch (IOException e) {
+         throw toJMSException(e);
+      }
+   }
+
+   @Override
+   public void writeDouble(double value) throws JMSException {
+      try {
+         out.writeDouble(value);
+      } catch (IOException e) {
+         throw toJMSException(e);
+      }
+   }
+
+   @Override
+   public void writeUTF(String value) throws JMSException {
+      try {
+         out.writeUTF(value);
+      } catch (IOException e) {
+         throw toJMSException(e);
+      }
+   }
+
+   @Override
+   public void writeBytes(byte[] value) throws JMSException {
+      writeBytes(value, 0, value.length);
+   }
+
+   @Override
+   public void writeBytes(byte[] value, int offset, int length) throws JMSException {
+      try {
+         out.write(value, offset, length);
+      } catch (IOException e) {
+         throw toJMSException(e);
+      }
+   }
+
+   @Override
+   public void writeObject(Object value) throws JMSException {
+      if (value instanceof byte[]) {
+         writeBytes((byte[]) value);
+      } else if (value instanceof String) {
+         writeUTF((String) value);
+      } else {
+         throw new MessageFormatException("Unsupported type " + (value == null ? "null" : value.getClass().getName()));
+      }
+   }
+
+   // -------
+   // Helpers
+   // -------
+
+   private static JMSException toJMSException(IOException e) {
+      JMSException je = new JMSException(e.getMessage());
+      je.setLinkedException(e);
+      return je;
+   }
+}
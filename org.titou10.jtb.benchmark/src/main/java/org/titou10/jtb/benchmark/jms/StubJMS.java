@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2019 Denis Forveille titou10.titou10@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.titou10.jtb.benchmark.jms;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+
+import javax.jms.Message;
+import javax.jms.Queue;
+import javax.jms.QueueBrowser;
+import javax.jms.Session;
+
+/**
+ * In-memory JMS Session, Queue and QueueBrowser, to run the benchmarks without a broker
+ * 
+ * Only the methods used by the benchmarked code are implemented. They are not on the hot paths measured, so they are
+ * implemented with dynamic proxies instead of implementing the whole interfaces
+ * 
+ * @author Denis Forveille
+ *
+ */
+public final class StubJMS {
+
+   private StubJMS() {
+      // Utility class
+   }
+
+   public static Queue createQueue(String queueName) {
+      return (Queue) Proxy.newProxyInstance(StubJMS.class.getClassLoader(), new Class<?>[] { Queue.class }, (proxy, method, args) -> {
+         switch (method.getName()) {
+            case "getQueueName":
+            case "toString":
+               return queueName;
+            case "hashCode":
+               return System.identityHashCode(proxy);
+            case "equals":
+               return proxy == args[0];
+            default:
+               throw new UnsupportedOperationException(method.getName());
+         }
+      });
+   }
+
+   // A non transacted session whose browsers return the messages of the list, whatever the queue and the selector
+   public static Session createBrowsingSession(List<? extends Message> messages) {
+      return (Session) Proxy.newProxyInstance(StubJMS.class.getClassLoader(), new Class<?>[] { Session.class }, (proxy, method, args) -> {
+         switch (method.getName()) {
+            case "createBrowser":
+               return createBrowser((Queue) args[0], messages);
+            case "getTransacted":
+               return Boolean.FALSE;
+            case "close":
+            case "commit":
+               return null;
+            case "hashCode":
+               return System.identityHashCode(proxy);
+            case "equals":
+               return proxy == args[0];
+            case "toString":
+               return "StubSession";
+            default:
+               throw new UnsupportedOperationException(method.getName());
+         }
+      });
+   }
+
+   private static QueueBrowser createBrowser(Queue queue, List<? extends Message> messages) {
+      return (QueueBrowser) Proxy
+               .newProxyInstance(StubJMS.class.getClassLoader(), new Class<?>[] { QueueBrowser.class }, (proxy, method, args) -> {
+                  switch (method.getName()) {
+                     case "getEnumeration":
+                        return Collections.enumeration(messages);
+                     case "getQueue":
+                        return queue;
+                     case "getMessageSelector":
+                        return null;
+                     case "close":
+                        return null;
+                     case "hashCode":
+                        return System.identityHashCode(proxy);
+                     case "equals":
+                        return proxy == args[0];
+                     case "toString":
+                        return "StubQueueBrowser";
+                     default:
+                        throw new UnsupportedOperationException(method.getName());
+                  }
+               });
+   }
+}
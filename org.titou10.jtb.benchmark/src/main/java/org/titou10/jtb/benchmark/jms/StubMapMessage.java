@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2019 Denis Forveille titou10.titou10@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.titou10.jtb.benchmark.jms;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.jms.MapMessage;
+
+/**
+ * In-memory JMS MapMessage. Values are stored as objects and converted on read
+ * 
+ * @author Denis Forveille
+ *
+ */
+public class StubMapMessage extends StubMessage implements MapMessage {
+
+   private final Map<String, Object> map = new LinkedHashMap<>();
+
+   @Override
+   public boolean getBoolean(String name) {
+      Object o = map.get(name);
+      return o instanceof Boolean ? (Boolean) o : Boolean.parseBoolean(String.valueOf(o));
+   }
+
+   @Override
+   public byte getByte(String name) {
+      return Byte.parseByte(getString(name));
+   }
+
+   @Override
+   public short getShort(String name) {
+      return Short.parseShort(getString(name));
+   }
+
+   @Override
+   public char getChar(String name) {
+      return (Character) map.get(name);
+   }
+
+   @Override
+   public int getInt(String name) {
+      return Integer.parseInt(getString(name));
+   }
+
+   @Override
+   public long getLong(String name) {
+      return Long.parseLong(getString(name));
+   }
+
+   @Override
+   public float getFloat(String name) {
+      return Float.parseFloat(getString(name));
+   }
+
+   @Override
+   public double getDouble(String name) {
+      return Double.parseDouble(getString(name));
+   }
+
+   @Override
+   public String getString(String name) {
+      Object o = map.get(name);
+      return o == null ? null : o.toString();
+   }
+
+   @Override
+   public byte[] getBytes(String name) {
+      return (byte[]) map.get(name);
+   }
+
+   @Override
+   public Object getObject(String name) {
+      return map.get(name);
+   }
+
+   @Override
+   public Enumeration<String> getMapNames() {
+      return Collections.enumeration(map.keySet());
+   }
+
+   @Override
+   public void setBoolean(String name, boolean value) {
+      map.put(name, value);
+   }
+
+   @Override
+   public void setByte(String name, byte value) {
+      map.put(name, value);
+   }
+
+   @Override
+   public void setShort(String name, short value) {
+      map.put(name, value);
+   }
+
+   @Override
+   public void setChar(String name, char value) {
+      map.put(name, value);
+   }
+
+   @Override
+   public void setInt(String name, int value) {
+      map.put(name, value);
+   }
+
+   @Override
+   public void setLong(String name, long value) {
+      map.put(name, value);
+   }
+
+   @Override
+   public void setFloat(String name, float value) {
+      map.put(name, value);
+   }
+
+   @Override
+   public void setDouble(String name, double value) {
+      map.put(name, value);
+   }
+
+   @Override
+   public void setString(String name, String value) {
+      map.put(name, value);
+   }
+
+   @Override
+   public void setBytes(String name, byte[] value) {
+      map.put(name, value);
+   }
+
+   @Override
+   public void setBytes(String name, byte[] value, int offset, int length) {
+      byte[] b = new byte[length];
+      System.arraycopy(value, offset, b, 0, length);
+      map.put(name, b);
+   }
+
+   @Override
+   public void setObject(String name, Object value) {
+      map.put(name, value);
+   }
+
+   @Override
+   public boolean itemExists(String name) {
+      return map.containsKey(name);
+   }
+
+   @Override
+   public void clearBody() {
+      map.clear();
+   }
+}
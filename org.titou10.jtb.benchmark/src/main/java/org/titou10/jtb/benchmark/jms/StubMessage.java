@@ -0,0 +1,331 @@
+/*
+ * Copyright (C) 2019 Denis Forveille titou10.titou10@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.titou10.jtb.benchmark.jms;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageFormatException;
+
+/**
+ * In-memory JMS Message, to run the benchmarks without a broker
+ * 
+ * Properties are stored as objects and converted on read, as JMS providers do
+ * 
+ * @author Denis Forveille
+ *
+ */
+public class StubMessage implements Message {
+
+   private final Map<String, Object> properties      = new LinkedHashMap<>();
+
+   private String                    jmsMessageID;
+   private long                      jmsTimestamp;
+   private String                    jmsCorrelationID;
+   private Destination               jmsReplyTo;
+   private Destination               jmsDestination;
+   private int                       jmsDeliveryMode = DEFAULT_DELIVERY_MODE;
+   private boolean                   jmsRedelivered;
+   private String                    jmsType;
+   private long                      jmsExpiration;
+   private long                      jmsDeliveryTime;
+   private int                       jmsPriority     = DEFAULT_PRIORITY;
+
+   // -------
+   // Headers
+   // -------
+
+   @Override
+   public String getJMSMessageID() {
+      return jmsMessageID;
+   }
+
+   @Override
+   public void setJMSMessageID(String id) {
+      this.jmsMessageID = id;
+   }
+
+   @Override
+   public long getJMSTimestamp() {
+      return jmsTimestamp;
+   }
+
+   @Override
+   public void setJMSTimestamp(long timestamp) {
+      this.jmsTimestamp = timestamp;
+   }
+
+   @Override
+   public byte[] getJMSCorrelationIDAsBytes() {
+      return jmsCorrelationID == null ? null : jmsCorrelationID.getBytes();
+   }
+
+   @Override
+   public void setJMSCorrelationIDAsBytes(byte[] correlationID) {
+      this.jmsCorrelationID = correlationID == null ? null : new String(correlationID);
+   }
+
+   @Override
+   public void setJMSCorrelationID(String correlationID) {
+      this.jmsCorrelationID = correlationID;
+   }
+
+   @Override
+   public String getJMSCorrelationID() {
+      return jmsCorrelationID;
+   }
+
+   @Override
+   public Destination getJMSReplyTo() {
+      return jmsReplyTo;
+   }
+
+   @Override
+   public void setJMSReplyTo(Destination replyTo) {
+      this.jmsReplyTo = replyTo;
+   }
+
+   @Override
+   public Destination getJMSDestination() {
+      return jmsDestination;
+   }
+
+   @Override
+   public void setJMSDestination(Destination destination) {
+      this.jmsDestination = destination;
+   }
+
+   @Override
+   public int getJMSDeliveryMode() {
+      return jmsDeliveryMode;
+   }
+
+   @Override
+   public void setJMSDeliveryMode(int deliveryMode) {
+      this.jmsDeliveryMode = deliveryMode;
+   }
+
+   @Override
+   public boolean getJMSRedelivered() {
+      return jmsRedelivered;
+   }
+
+   @Override
+   public void setJMSRedelivered(boolean redelivered) {
+      this.jmsRedelivered = redelivered;
+   }
+
+   @Override
+   public String getJMSType() {
+      return jmsType;
+   }
+
+   @Override
+   public void setJMSType(String type) {
+      this.jmsType = type;
+   }
+
+   @Override
+   public long getJMSExpiration() {
+      return jmsExpiration;
+   }
+
+   @Override
+   public void setJMSExpiration(long expiration) {
+      this.jmsExpiration = expiration;
+   }
+
+   @Override
+   public long getJMSDeliveryTime() {
+      return jmsDeliveryTime;
+   }
+
+   @Override
+   public void setJMSDeliveryTime(long deliveryTime) {
+      this.jmsDeliveryTime = deliveryTime;
+   }
+
+   @Override
+   public int getJMSPriority() {
+      return jmsPriority;
+   }
+
+   @Override
+   public void setJMSPriority(int priority) {
+      this.jmsPriority = priority;
+   }
+
+   // ----------
+   // Properties
+   // ----------
+
+   @Override
+   public void clearProperties() {
+      properties.clear();
+   }
+
+   @Override
+   public boolean propertyExists(String name) {
+      return properties.containsKey(name);
+   }
+
+   @Override
+   public boolean getBooleanProperty(String name) {
+      Object o = properties.get(name);
+      return o instanceof Boolean ? (Boolean) o : Boolean.parseBoolean(String.valueOf(o));
+   }
+
+   @Override
+   public byte getByteProperty(String name) throws JMSException {
+      return (byte) getNumber(name, Byte.class).longValue();
+   }
+
+   @Override
+   public short getShortProperty(String name) throws JMSException {
+      return (short) getNumber(name, Short.class).longValue();
+   }
+
+   @Override
+   public int getIntProperty(String name) throws JMSException {
+      return (int) getNumber(name, Integer.class).longValue();
+   }
+
+   @Override
+   public long getLongProperty(String name) throws JMSException {
+      return getNumber(name, Long.class).longValue();
+   }
+
+   @Override
+   public float getFloatProperty(String name) throws JMSException {
+      return getNumber(name, Float.class).floatValue();
+   }
+
+   @Override
+   public double getDoubleProperty(String name) throws JMSException {
+      return getNumber(name, Double.class).doubleValue();
+   }
+
+   @Override
+   public String getStringProperty(String name) {
+      Object o = properties.get(name);
+      return o == null ? null : o.toString();
+   }
+
+   @Override
+   public Object getObjectProperty(String name) {
+      return properties.get(name);
+   }
+
+   @Override
+   public Enumeration<String> getPropertyNames() {
+      return Collections.enumeration(properties.keySet());
+   }
+
+   @Override
+   public void setBooleanProperty(String name, boolean value) {
+      properties.put(name, value);
+   }
+
+   @Override
+   public void setByteProperty(String name, byte value) {
+      properties.put(name, value);
+   }
+
+   @Override
+   public void setShortProperty(String name, short value) {
+      properties.put(name, value);
+   }
+
+   @Override
+   public void setIntProperty(String name, int value) {
+      properties.put(name, value);
+   }
+
+   @Override
+   public void setLongProperty(String name, long value) {
+      properties.put(name, value);
+   }
+
+   @Override
+   public void setFloatProperty(String name, float value) {
+      properties.put(name, value);
+   }
+
+   @Override
+   public void setDoubleProperty(String name, double value) {
+      properties.put(name, value);
+   }
+
+   @Override
+   public void setStringProperty(String name, String value) {
+      properties.put(name, value);
+   }
+
+   @Override
+   public void setObjectProperty(String name, Object value) {
+      properties.put(name, value);
+   }
+
+   // ----
+   // Body
+   // ----
+
+   @Override
+   public void acknowledge() {
+      // NOP
+   }
+
+   @Override
+   public void clearBody() throws JMSException {
+      // NOP
+   }
+
+   @Override
+   public <T> T getBody(Class<T> c) throws JMSException {
+      return null;
+   }
+
+   @Override
+   @SuppressWarnings("rawtypes")
+   public boolean isBodyAssignableTo(Class c) {
+      return true;
+   }
+
+   // -------
+   // Helpers
+   // -------
+
+   private Number getNumber(String name, Class<? extends Number> type) throws JMSException {
+      Object o = properties.get(name);
+      if (o instanceof Number) {
+         return (Number) o;
+      }
+      if (o instanceof String) {
+         try {
+            return Double.valueOf((String) o);
+         } catch (NumberFormatException e) {
+            throw new MessageFormatException("Property '" + name + "' is not a " + type.getSimpleName());
+         }
+      }
+      throw new MessageFormatException("Property '" + name + "' is not a " + type.getSimpleName());
+   }
+}
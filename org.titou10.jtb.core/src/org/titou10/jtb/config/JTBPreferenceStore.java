@@ -92,10 +92,15 @@ public class JTBPreferenceStore extends EventManager implements IPersistentPrefe
       setDefault(Constants.PREF_AUTO_RESIZE_COLS_BROWSER, Constants.PREF_AUTO_RESIZE_COLS_BROWSER_DEFAULT);
       setDefault(Constants.PREF_EDIT_MESSAGE_DND, Constants.PREF_EDIT_MESSAGE_DND_DEFAULT);
       setDefault(Constants.PREF_SHOW_NON_BROWSABLE_Q, Constants.PREF_SHOW_NON_BROWSABLE_Q_DEFAULT);
+      setDefault(Constants.PREF_Q_DEPTH_PARALLELISM, Constants.PREF_Q_DEPTH_PARALLELISM_DEFAULT);
+      setDefault(Constants.PREF_Q_DEPTH_BROWSE_INTERVAL, Constants.PREF_Q_DEPTH_BROWSE_INTERVAL_DEFAULT);
       setDefault(Constants.PREF_TRUST_ALL_CERTIFICATES, Constants.PREF_TRUST_ALL_CERTIFICATES_DEFAULT);
       setDefault(Constants.PREF_CLEAR_LOGS_EXECUTION, Constants.PREF_CLEAR_LOGS_EXECUTION_DEFAULT);
+      setDefault(Constants.PREF_SCRIPT_DATAFILE_MMAP, Constants.PREF_SCRIPT_DATAFILE_MMAP_DEFAULT);
       setDefault(Constants.PREF_MAX_MESSAGES_TOPIC, Constants.PREF_MAX_MESSAGES_TOPIC_DEFAULT);
+      setDefault(Constants.PREF_MAX_MB_TOPIC, Constants.PREF_MAX_MB_TOPIC_DEFAULT);
       setDefault(Constants.PREF_CONN_CLIENT_ID_PREFIX, Constants.PREF_CONN_CLIENT_ID_PREFIX_DEFAULT);
+      setDefault(Constants.PREF_CONN_TIMEOUT, Constants.PREF_CONN_TIMEOUT_DEFAULT);
       setDefault(Constants.PREF_XML_INDENT, Constants.PREF_XML_INDENT_DEFAULT);
       setDefault(Constants.PREF_SYNCHRONIZE_SESSIONS_MESSAGES, Constants.PREF_SYNCHRONIZE_SESSIONS_MESSAGES_DEFAULT);
       setDefault(Constants.PREF_MESSAGE_TAB_DISPLAY, Constants.PREF_MESSAGE_TAB_DISPLAY_DEFAULT);
@@ -19,6 +19,7 @@ package org.titou10.jtb.connector;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import javax.inject.Inject;
 import javax.jms.JMSException;
@@ -41,6 +42,9 @@ import org.titou10.jtb.connector.transport.Destination;
 import org.titou10.jtb.connector.transport.Destination.Type;
 import org.titou10.jtb.connector.transport.MessageInput;
 import org.titou10.jtb.connector.transport.MessageOutput;
+import org.titou10.jtb.connector.transport.ScriptOutput;
+import org.titou10.jtb.connector.transport.StepOutput;
+import org.titou10.jtb.connector.transport.TopicMetrics;
 import org.titou10.jtb.jms.model.JTBConnection;
 import org.titou10.jtb.jms.model.JTBDestination;
 import org.titou10.jtb.jms.model.JTBMessage;
@@ -49,7 +53,9 @@ import org.titou10.jtb.jms.model.JTBQueue;
 import org.titou10.jtb.jms.model.JTBSession;
 import org.titou10.jtb.jms.model.JTBSessionClientType;
 import org.titou10.jtb.jms.model.JTBTopic;
+import org.titou10.jtb.jms.util.SubscriptionMetrics;
 import org.titou10.jtb.script.ScriptExecutionEngine;
+import org.titou10.jtb.script.StepStatistics;
 import org.titou10.jtb.template.TemplatesManager;
 import org.titou10.jtb.variable.VariablesManager;
 
@@ -113,6 +119,18 @@ public class ExternalConnectorManager {
       return destinations;
    }
 
+   public List<TopicMetrics> getTopicSubscriptionMetrics(String sessionName) throws UnknownSessionException {
+
+      // Topic subscriptions are opened from the GUI. Do not connect the session if it is not already
+      JTBConnection jtbConnection = getJTBConnection(sessionName, JTBSessionClientType.GUI);
+
+      List<TopicMetrics> topicMetrics = new ArrayList<>();
+      for (Map.Entry<String, SubscriptionMetrics> e : jtbConnection.getTopicSubscriptionMetrics().entrySet()) {
+         topicMetrics.add(new TopicMetrics(e.getKey(), e.getValue()));
+      }
+      return topicMetrics;
+   }
+
    // ----------------------------
    // Services related to Messages
    // ----------------------------
@@ -136,10 +154,8 @@ public class ExternalConnectorManager {
       List<MessageOutput> messages = new ArrayList<>();
 
       try {
-         List<JTBMessage> jtbMessages = jtbConnection.browseQueue(jtbQueue, limit, "", "");
-         for (JTBMessage jtbMessage : jtbMessages) {
-            messages.add(new MessageOutput(jtbMessage, null));
-         }
+         // Build the output as messages are browsed, without keeping the JTBMessages around
+         jtbConnection.browseQueue(jtbQueue, limit, "", "", jtbMessage -> messages.add(new MessageOutput(jtbMessage, null)));
          return messages;
       } catch (Exception e) {
          log.error("Exception when browsing messages in queue '{}::{}'", sessionName, queueName, e);
@@ -303,15 +319,38 @@ public class ExternalConnectorManager {
    // ----------------------------
    // Services related to Scripts
    // ----------------------------
-   public int executeScript(String scriptName, boolean simulation, int nbMessagesMax) throws Exception {
+   public ScriptOutput executeScript(String scriptName, boolean simulation, int nbMessagesMax) throws Exception {
       log.debug("executeScript scriptName {} simulation? {} nbMessagesMax {}", scriptName, simulation, nbMessagesMax);
-      return scriptExecutionEngine.executeScriptNoUI(scriptName, simulation, nbMessagesMax);
+
+      List<StepStatistics> stepsStatistics = new ArrayList<>();
+      int nbMessages = scriptExecutionEngine.executeScriptNoUI(scriptName, simulation, nbMessagesMax, stepsStatistics);
+
+      List<StepOutput> steps = new ArrayList<>(stepsStatistics.size());
+      long nbBytes = 0;
+      long elapsedMillis = 0;
+      for (StepStatistics stats : stepsStatistics) {
+         steps.add(new StepOutput(stats));
+         nbBytes += stats.getNbBytes();
+         elapsedMillis += stats.getElapsedMillis();
+      }
+
+      ScriptOutput scriptOutput = new ScriptOutput();
+      scriptOutput.setNbMessages(nbMessages);
+      scriptOutput.setNbBytes(nbBytes);
+      scriptOutput.setElapsedMillis(elapsedMillis);
+      scriptOutput.setSteps(steps);
+      return scriptOutput;
    }
 
    // ----------------------------
    // Helpers
    // ----------------------------
    private JTBConnection getJTBConnection(String sessionName) throws UnknownSessionException {
+      return getJTBConnection(sessionName, JTBSessionClientType.REST);
+   }
+
+   private JTBConnection getJTBConnection(String sessionName,
+                                          JTBSessionClientType jtbSessionClientType) throws UnknownSessionException {
       if (sessionName == null) {
          throw new UnknownSessionException(UNSPECIFIED);
       }
@@ -321,7 +360,7 @@ public class ExternalConnectorManager {
          log.warn("Session '{}' does not exist", sessionName);
          throw new UnknownSessionException(sessionName);
       }
-      return jtbSession.getJTBConnection(JTBSessionClientType.REST);
+      return jtbSession.getJTBConnection(jtbSessionClientType);
    }
 
    private JTBDestination getJTBDestination(JTBConnection jtbConnection,
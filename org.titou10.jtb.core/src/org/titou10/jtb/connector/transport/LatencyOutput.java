@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2019 Denis Forveille titou10.titou10@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.titou10.jtb.connector.transport;
+
+import java.util.concurrent.TimeUnit;
+
+import org.titou10.jtb.util.LatencyHistogram;
+
+/**
+ * Transport Object for a {@link LatencyHistogram}. Values are in microseconds
+ * 
+ * @author Denis Forveille
+ * 
+ */
+public class LatencyOutput {
+
+   private long count;
+   private long minMicros;
+   private long meanMicros;
+   private long p50Micros;
+   private long p90Micros;
+   private long p99Micros;
+   private long maxMicros;
+
+   public LatencyOutput(LatencyHistogram histogram) {
+      this.count = histogram.getCount();
+      this.minMicros = TimeUnit.NANOSECONDS.toMicros(histogram.getMin());
+      this.meanMicros = TimeUnit.NANOSECONDS.toMicros(histogram.getMean());
+      this.p50Micros = TimeUnit.NANOSECONDS.toMicros(histogram.getValueAtPercentile(50));
+      this.p90Micros = TimeUnit.NANOSECONDS.toMicros(histogram.getValueAtPercentile(90));
+      this.p99Micros = TimeUnit.NANOSECONDS.toMicros(histogram.getValueAtPercentile(99));
+      this.maxMicros = TimeUnit.NANOSECONDS.toMicros(histogram.getMax());
+   }
+
+   // ------------------------
+   // Standard Getters/Setters
+   // ------------------------
+
+   public long getCount() {
+      return count;
+   }
+
+   public void setCount(long count) {
+      this.count = count;
+   }
+
+   public long getMinMicros() {
+      return minMicros;
+   }
+
+   public void setMinMicros(long minMicros) {
+      this.minMicros = minMicros;
+   }
+
+   public long getMeanMicros() {
+      return meanMicros;
+   }
+
+   public void setMeanMicros(long meanMicros) {
+      this.meanMicros = meanMicros;
+   }
+
+   public long getP50Micros() {
+      return p50Micros;
+   }
+
+   public void setP50Micros(long p50Micros) {
+      this.p50Micros = p50Micros;
+   }
+
+   public long getP90Micros() {
+      return p90Micros;
+   }
+
+   public void setP90Micros(long p90Micros) {
+      this.p90Micros = p90Micros;
+   }
+
+   public long getP99Micros() {
+      return p99Micros;
+   }
+
+   public void setP99Micros(long p99Micros) {
+      this.p99Micros = p99Micros;
+   }
+
+   public long getMaxMicros() {
+      return maxMicros;
+   }
+
+   public void setMaxMicros(long maxMicros) {
+      this.maxMicros = maxMicros;
+   }
+
+}
@@ -16,6 +16,8 @@
  */
 package org.titou10.jtb.connector.transport;
 
+import java.util.List;
+
 import javax.xml.bind.annotation.XmlRootElement;
 
 /**
@@ -27,7 +29,10 @@ import javax.xml.bind.annotation.XmlRootElement;
 @XmlRootElement
 public class ScriptOutput {
 
-   private Integer nbMessages;
+   private Integer          nbMessages;
+   private Long             nbBytes;
+   private Long             elapsedMillis;
+   private List<StepOutput> steps;
 
    // ------------------------
    // toString()
@@ -38,6 +43,12 @@ public class ScriptOutput {
       StringBuilder builder = new StringBuilder(128);
       builder.append("ScriptInput [nbMessages=");
       builder.append(nbMessages);
+      builder.append(", nbBytes=");
+      builder.append(nbBytes);
+      builder.append(", elapsedMillis=");
+      builder.append(elapsedMillis);
+      builder.append(", steps=");
+      builder.append(steps);
       builder.append("]");
       return builder.toString();
    }
@@ -54,4 +65,28 @@ public class ScriptOutput {
       this.nbMessages = nbMessages;
    }
 
+   public Long getNbBytes() {
+      return nbBytes;
+   }
+
+   public void setNbBytes(Long nbBytes) {
+      this.nbBytes = nbBytes;
+   }
+
+   public Long getElapsedMillis() {
+      return elapsedMillis;
+   }
+
+   public void setElapsedMillis(Long elapsedMillis) {
+      this.elapsedMillis = elapsedMillis;
+   }
+
+   public List<StepOutput> getSteps() {
+      return steps;
+   }
+
+   public void setSteps(List<StepOutput> steps) {
+      this.steps = steps;
+   }
+
 }
@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2019 Denis Forveille titou10.titou10@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.titou10.jtb.connector.transport;
+
+import org.titou10.jtb.script.StepStatistics;
+import org.titou10.jtb.script.gen.StepKind;
+
+/**
+ * Transport Object for the {@link StepStatistics} of a step of a script execution
+ * 
+ * @author Denis Forveille
+ * 
+ */
+public class StepOutput {
+
+   private StepKind      kind;
+   private String        templateName;
+   private String        destinationName;
+   private int           nbThreads;
+   private int           nbMessages;
+   private long          elapsedMillis;
+   private Integer       targetRate;
+   private double        achievedRate;
+   private long          nbBytes;
+   private LatencyOutput prepareLatency;
+   private LatencyOutput sendLatency;
+   private int           nbReceived;
+   private int           nbTimeouts;
+   private LatencyOutput receiveLatency;
+   private long          nbReceivedBytes;
+   private long          drainMillis;
+   private double        drainRate;
+
+   public StepOutput(StepStatistics stats) {
+      this.kind = stats.getKind();
+      this.templateName = stats.getTemplateName();
+      this.destinationName = stats.getDestinationName();
+      this.nbThreads = stats.getNbThreads();
+      this.nbMessages = stats.getNbMessages();
+      this.elapsedMillis = stats.getElapsedMillis();
+      this.targetRate = stats.getTargetRate();
+      this.achievedRate = stats.getAchievedRate();
+      this.nbBytes = stats.getNbBytes();
+      this.prepareLatency = new LatencyOutput(stats.getPrepareLatency());
+      this.sendLatency = new LatencyOutput(stats.getSendLatency());
+      this.nbReceived = stats.getNbReceived();
+      this.nbTimeouts = stats.getNbTimeouts();
+      this.receiveLatency = new LatencyOutput(stats.getReceiveLatency());
+      this.nbReceivedBytes = stats.getNbReceivedBytes();
+      this.drainMillis = stats.getDrainMillis();
+      this.drainRate = stats.getDrainRate();
+   }
+
+   // ------------------------
+   // Standard Getters/Setters
+   // ------------------------
+
+   public StepKind getKind() {
+      return kind;
+   }
+
+   public void setKind(StepKind kind) {
+      this.kind = kind;
+   }
+
+   public String getTemplateName() {
+      return templateName;
+   }
+
+   public void setTemplateName(String templateName) {
+      this.templateName = templateName;
+   }
+
+   public String getDestinationName() {
+      return destinationName;
+   }
+
+   public void setDestinationName(String destinationName) {
+      this.destinationName = destinationName;
+   }
+
+   public int getNbThreads() {
+      return nbThreads;
+   }
+
+   public void setNbThreads(int nbThreads) {
+      this.nbThreads = nbThreads;
+   }
+
+   public int getNbMessages() {
+      return nbMessages;
+   }
+
+   public void setNbMessages(int nbMessages) {
+      this.nbMessages = nbMessages;
+   }
+
+   public long getElapsedMillis() {
+      return elapsedMillis;
+   }
+
+   public void setElapsedMillis(long elapsedMillis) {
+      this.elapsedMillis = elapsedMillis;
+   }
+
+   public Integer getTargetRate() {
+      return targetRate;
+   }
+
+   public void setTargetRate(Integer targetRate) {
+      this.targetRate = targetRate;
+   }
+
+   public double getAchievedRate() {
+      return achievedRate;
+   }
+
+   public void setAchievedRate(double achievedRate) {
+      this.achievedRate = achievedRate;
+   }
+
+   public long getNbBytes() {
+      return nbBytes;
+   }
+
+   public void setNbBytes(long nbBytes) {
+      this.nbBytes = nbBytes;
+   }
+
+   public LatencyOutput getPrepareLatency() {
+      return prepareLatency;
+   }
+
+   public void setPrepareLatency(LatencyOutput prepareLatency) {
+      this.prepareLatency = prepareLatency;
+   }
+
+   public LatencyOutput getSendLatency() {
+      return sendLatency;
+   }
+
+   public void setSendLatency(LatencyOutput sendLatency) {
+      this.sendLatency = sendLatency;
+   }
+
+   public int getNbReceived() {
+      return nbReceived;
+   }
+
+   public void setNbReceived(int nbReceived) {
+      this.nbReceived = nbReceived;
+   }
+
+   public int getNbTimeouts() {
+      return nbTimeouts;
+   }
+
+   public void setNbTimeouts(int nbTimeouts) {
+      this.nbTimeouts = nbTimeouts;
+   }
+
+   public LatencyOutput getReceiveLatency() {
+      return receiveLatency;
+   }
+
+   public void setReceiveLatency(LatencyOutput receiveLatency) {
+      this.receiveLatency = receiveLatency;
+   }
+
+   public long getNbReceivedBytes() {
+      return nbReceivedBytes;
+   }
+
+   public void setNbReceivedBytes(long nbReceivedBytes) {
+      this.nbReceivedBytes = nbReceivedBytes;
+   }
+
+   public long getDrainMillis() {
+      return drainMillis;
+   }
+
+   public void setDrainMillis(long drainMillis) {
+      this.drainMillis = drainMillis;
+   }
+
+   public double getDrainRate() {
+      return drainRate;
+   }
+
+   public void setDrainRate(double drainRate) {
+      this.drainRate = drainRate;
+   }
+
+}
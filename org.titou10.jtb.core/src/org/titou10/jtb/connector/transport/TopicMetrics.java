@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2019 Denis Forveille titou10.titou10@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.titou10.jtb.connector.transport;
+
+import org.titou10.jtb.jms.util.SubscriptionMetrics;
+
+/**
+ * Transport Object for the {@link SubscriptionMetrics} of a topic subscription
+ * 
+ * @author Denis Forveille
+ * 
+ */
+public class TopicMetrics {
+
+   private String topicName;
+   private long   startTime;
+   private long   nbMessages;
+   private long   nbBytes;
+   private double messagesPerSecond;
+   private double bytesPerSecond;
+   private long   latencyP50;
+   private long   latencyP90;
+   private long   latencyP99;
+   private long   latencyMax;
+
+   public TopicMetrics(String topicName, SubscriptionMetrics metrics) {
+      this.topicName = topicName;
+      this.startTime = metrics.getStartTime();
+      this.nbMessages = metrics.getNbMessages();
+      this.nbBytes = metrics.getNbBytes();
+      this.messagesPerSecond = metrics.getMessagesPerSecond();
+      this.bytesPerSecond = metrics.getBytesPerSecond();
+      this.latencyP50 = metrics.getLatencyPercentile(50);
+      this.latencyP90 = metrics.getLatencyPercentile(90);
+      this.latencyP99 = metrics.getLatencyPercentile(99);
+      this.latencyMax = metrics.getMaxLatency();
+   }
+
+   // ------------------------
+   // Standard Getters/Setters
+   // ------------------------
+
+   public String getTopicName() {
+      return topicName;
+   }
+
+   public void setTopicName(String topicName) {
+      this.topicName = topicName;
+   }
+
+   public long getStartTime() {
+      return startTime;
+   }
+
+   public void setStartTime(long startTime) {
+      this.startTime = startTime;
+   }
+
+   public long getNbMessages() {
+      return nbMessages;
+   }
+
+   public void setNbMessages(long nbMessages) {
+      this.nbMessages = nbMessages;
+   }
+
+   public long getNbBytes() {
+      return nbBytes;
+   }
+
+   public void setNbBytes(long nbBytes) {
+      this.nbBytes = nbBytes;
+   }
+
+   public double getMessagesPerSecond() {
+      return messagesPerSecond;
+   }
+
+   public void setMessagesPerSecond(double messagesPerSecond) {
+      this.messagesPerSecond = messagesPerSecond;
+   }
+
+   public double getBytesPerSecond() {
+      return bytesPerSecond;
+   }
+
+   public void setBytesPerSecond(double bytesPerSecond) {
+      this.bytesPerSecond = bytesPerSecond;
+   }
+
+   public long getLatencyP50() {
+      return latencyP50;
+   }
+
+   public void setLatencyP50(long latencyP50) {
+      this.latencyP50 = latencyP50;
+   }
+
+   public long getLatencyP90() {
+      return latencyP90;
+   }
+
+   public void setLatencyP90(long latencyP90) {
+      this.latencyP90 = latencyP90;
+   }
+
+   public long getLatencyP99() {
+      return latencyP99;
+   }
+
+   public void setLatencyP99(long latencyP99) {
+      this.latencyP99 = latencyP99;
+   }
+
+   public long getLatencyMax() {
+      return latencyMax;
+   }
+
+   public void setLatencyMax(long latencyMax) {
+      this.latencyMax = latencyMax;
+   }
+
+}
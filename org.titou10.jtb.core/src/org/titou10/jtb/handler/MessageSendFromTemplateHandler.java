@@ -17,6 +17,7 @@
 package org.titou10.jtb.handler;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 import javax.inject.Inject;
@@ -126,13 +127,14 @@ public class MessageSendFromTemplateHandler {
                   try {
                      // Post Messages
                      JTBConnection jtbConnection2 = jtbDestination.getJtbConnection();
+                     List<JTBMessage> jtbMessages = new ArrayList<>(templates.size());
                      for (IFileStore ifs : templates) {
                         JTBMessageTemplate t = templatesManager.readTemplate(ifs);
                         t.setPayloadText(variablesManager.replaceTemplateVariables(t.getPayloadText()));
                         Message m = jtbConnection2.createJMSMessage(t.getJtbMessageType());
-                        JTBMessage jtbMessage = t.toJTBMessage(jtbDestination, m);
-                        jtbDestination.getJtbConnection().sendMessage(jtbMessage);
+                        jtbMessages.add(t.toJTBMessage(jtbDestination, m));
                      }
+                     jtbConnection2.sendMessages(jtbMessages, jtbDestination, Constants.SEND_COMMIT_BATCH_SIZE);
                      // Refresh List if the destination is browsable
                      if ((jtbDestination.isJTBQueue()) && (!jtbDestination.getAsJTBQueue().isBrowsable())) {
                         return;
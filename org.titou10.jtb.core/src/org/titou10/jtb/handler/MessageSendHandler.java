@@ -19,6 +19,7 @@ package org.titou10.jtb.handler;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 
 import javax.inject.Inject;
@@ -46,6 +47,7 @@ import org.titou10.jtb.jms.model.JTBMessageTemplate;
 import org.titou10.jtb.jms.model.JTBMessageType;
 import org.titou10.jtb.jms.model.JTBObject;
 import org.titou10.jtb.jms.model.JTBQueue;
+import org.titou10.jtb.jms.model.JTBSendResult;
 import org.titou10.jtb.jms.model.JTBTopic;
 import org.titou10.jtb.ui.JTBStatusReporter;
 import org.titou10.jtb.ui.dnd.DNDData;
@@ -149,14 +151,16 @@ public class MessageSendHandler {
 
                      } else {
                         // else, blindly duplicate and post the messages
-                        JTBMessage newMessage;
+                        JTBConnection jtbConnection = jtbDestination.getJtbConnection();
+                        List<JTBMessage> newMessages = new ArrayList<>(jtbMessages.size());
                         for (JTBMessage jtbMessage : jtbMessages) {
                            // Create new Message to destination from old Message
-                           JTBConnection jtbConnection = jtbDestination.getJtbConnection();
                            Message newJMSMessage = jtbConnection.cloneJMSMessage(jtbMessage.getJmsMessage());
-                           newMessage = new JTBMessage(jtbDestination, newJMSMessage);
-                           jtbDestination.getJtbConnection().sendMessage(newMessage, jtbDestination);
+                           newMessages.add(new JTBMessage(jtbDestination, newJMSMessage));
                         }
+                        JTBSendResult result = jtbConnection
+                                 .sendMessages(newMessages, jtbDestination, Constants.SEND_COMMIT_BATCH_SIZE);
+                        log.debug("{} messages copied to {}: {}", newMessages.size(), jtbDestination, result);
                      }
 
                      // Refresh List if the destination is browsable
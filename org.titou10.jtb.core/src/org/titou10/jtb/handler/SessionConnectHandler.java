@@ -23,6 +23,7 @@ import javax.inject.Named;
 import javax.xml.bind.JAXBException;
 
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.e4.core.di.annotations.CanExecute;
 import org.eclipse.e4.core.di.annotations.Execute;
 import org.eclipse.e4.core.di.annotations.Optional;
@@ -30,14 +31,14 @@ import org.eclipse.e4.core.services.events.IEventBroker;
 import org.eclipse.e4.ui.model.application.ui.menu.MMenuItem;
 import org.eclipse.e4.ui.services.IServiceConstants;
 import org.eclipse.jface.window.Window;
-import org.eclipse.swt.custom.BusyIndicator;
-import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Shell;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.titou10.jtb.config.ConfigManager;
+import org.titou10.jtb.config.JTBPreferenceStore;
 import org.titou10.jtb.config.gen.SessionDef;
 import org.titou10.jtb.dialog.SessionConnectDialog;
+import org.titou10.jtb.jms.model.JTBConnection;
 import org.titou10.jtb.jms.model.JTBSession;
 import org.titou10.jtb.jms.model.JTBSessionClientType;
 import org.titou10.jtb.ui.JTBStatusReporter;
@@ -65,6 +66,9 @@ public class SessionConnectHandler {
    @Inject
    private ConfigManager       cm;
 
+   @Inject
+   private JTBPreferenceStore  ps;
+
    @Execute
    public void execute(Shell shell, final @Named(IServiceConstants.ACTIVE_SELECTION) @Optional NodeJTBSession nodeJTBSession) {
       log.debug("execute. Selection : {}", nodeJTBSession);
@@ -103,22 +107,12 @@ public class SessionConnectHandler {
          }
       }
 
-      BusyIndicator.showWhile(Display.getCurrent(), new Runnable() {
-
-         @Override
-         public void run() {
-            try {
-               jtbSession.getJTBConnection(JTBSessionClientType.GUI).connect();
-
-               // Refresh Session Browser
-               eventBroker.send(Constants.EVENT_REFRESH_SESSION_BROWSER, nodeJTBSession);
-
-            } catch (Throwable e) {
-               jtbStatusReporter.showError("Connect unsuccessful", Utils.getCause(e), jtbSession.getName());
-               return;
-            }
-         }
-      });
+      // Connect in the background. The session node shows the progress
+      JTBConnection jtbConnection = jtbSession.getJTBConnection(JTBSessionClientType.GUI);
+      int timeout = ps.getInt(Constants.PREF_CONN_TIMEOUT);
+      Job job = new SessionConnectJob(eventBroker, jtbStatusReporter, nodeJTBSession, jtbConnection, timeout);
+      job.schedule();
+      eventBroker.send(Constants.EVENT_REFRESH_SESSION_NODE, nodeJTBSession);
 
    }
 
@@ -133,8 +127,9 @@ public class SessionConnectHandler {
 
          // Show menu only in the QM has been instantiated
          if (jtbSession.isConnectable()) {
-            // Show menu on Disconnected Sessions only
-            if (jtbSession.getJTBConnection(JTBSessionClientType.GUI).isConnected()) {
+            // Show menu on Disconnected Sessions only, not currently connecting
+            JTBConnection jtbConnection = jtbSession.getJTBConnection(JTBSessionClientType.GUI);
+            if (jtbConnection.isConnected() || jtbConnection.isConnecting()) {
                return Utils.disableMenu(menuItem);
             } else {
                return Utils.enableMenu(menuItem);
@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2019 Denis Forveille titou10.titou10@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.titou10.jtb.handler;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.e4.core.services.events.IEventBroker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.titou10.jtb.jms.model.JTBConnection;
+import org.titou10.jtb.jms.model.JTBSession;
+import org.titou10.jtb.ui.JTBStatusReporter;
+import org.titou10.jtb.ui.navigator.NodeJTBSession;
+import org.titou10.jtb.util.Constants;
+import org.titou10.jtb.util.Utils;
+
+/**
+ * Job that connects a session in the background, so that the UI is not blocked and several sessions can connect in parallel
+ * 
+ * The connection itself runs in a dedicated thread because the JMS connect calls can not be interrupted: on timeout or cancel,
+ * the job reports the failure immediately and the connection is closed whenever it completes
+ * 
+ * @author Denis Forveille
+ *
+ */
+final class SessionConnectJob extends Job {
+
+   private static final Logger     log               = LoggerFactory.getLogger(SessionConnectJob.class);
+
+   // The session node shows the time elapsed, refreshed every PROGRESS_INTERVAL ms
+   private static final long       PROGRESS_INTERVAL = 1000;
+
+   private static final int        RUNNING           = 0;
+   private static final int        DONE              = 1;
+   private static final int        ABANDONED         = 2;
+
+   private final IEventBroker      eventBroker;
+   private final JTBStatusReporter jtbStatusReporter;
+
+   private final NodeJTBSession    nodeJTBSession;
+   private final JTBSession        jtbSession;
+   private final JTBConnection     jtbConnection;
+   private final int               timeout;
+
+   private final AtomicInteger     state             = new AtomicInteger(RUNNING);
+   private volatile Throwable      connectException;
+
+   // ------------
+   // Constructors
+   // ------------
+
+   SessionConnectJob(IEventBroker eventBroker,
+                     JTBStatusReporter jtbStatusReporter,
+                     NodeJTBSession nodeJTBSession,
+                     JTBConnection jtbConnection,
+                     int timeout) {
+      super("Connect session " + nodeJTBSession.getName());
+      this.setSystem(true);
+      this.eventBroker = eventBroker;
+      this.jtbStatusReporter = jtbStatusReporter;
+
+      this.nodeJTBSession = nodeJTBSession;
+      this.jtbSession = (JTBSession) nodeJTBSession.getBusinessObject();
+      this.jtbConnection = jtbConnection;
+      this.timeout = timeout;
+   }
+
+   // ------------------
+   // Business Interface
+   // ------------------
+
+   @Override
+   protected IStatus run(IProgressMonitor monitor) {
+
+      Thread connectThread = new Thread(this::connect, "JTB connect " + jtbSession.getName());
+      connectThread.setDaemon(true);
+      connectThread.start();
+
+      long deadline = timeout > 0 ? System.currentTimeMillis() + (timeout * 1000L) : Long.MAX_VALUE;
+
+      try {
+         while (connectThread.isAlive()) {
+
+            // Show the progress in the session node
+            eventBroker.post(Constants.EVENT_REFRESH_SESSION_NODE, nodeJTBSession);
+
+            if (monitor.isCanceled()) {
+               if (state.compareAndSet(RUNNING, ABANDONED)) {
+                  log.warn("Connection to session '{}' cancelled", jtbSession.getName());
+                  eventBroker.post(Constants.EVENT_REFRESH_SESSION_NODE, nodeJTBSession);
+                  return Status.CANCEL_STATUS;
+               }
+               break;
+            }
+            if (System.currentTimeMillis() >= deadline) {
+               if (state.compareAndSet(RUNNING, ABANDONED)) {
+                  log.warn("Connection to session '{}' timed out after {}s", jtbSession.getName(), timeout);
+                  eventBroker.post(Constants.EVENT_REFRESH_SESSION_NODE, nodeJTBSession);
+                  jtbStatusReporter.showError("Connect unsuccessful",
+                                              null,
+                                              "Connection to session '" + jtbSession.getName() + "' timed out after " + timeout
+                                                    + " seconds");
+                  return Status.OK_STATUS;
+               }
+               break;
+            }
+
+            connectThread.join(Math.min(PROGRESS_INTERVAL, deadline - System.currentTimeMillis()));
+         }
+         connectThread.join();
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         state.compareAndSet(RUNNING, ABANDONED);
+         return Status.CANCEL_STATUS;
+      }
+
+      if (connectException != null) {
+         eventBroker.post(Constants.EVENT_REFRESH_SESSION_NODE, nodeJTBSession);
+         jtbStatusReporter.showError("Connect unsuccessful", Utils.getCause(connectException), jtbSession.getName());
+         return Status.OK_STATUS;
+      }
+
+      // Refresh Session Browser
+      eventBroker.post(Constants.EVENT_REFRESH_SESSION_BROWSER, nodeJTBSession);
+
+      return Status.OK_STATUS;
+   }
+
+   @Override
+   public boolean belongsTo(Object family) {
+      if (family instanceof String) {
+         return Constants.JTB_JOBS_FAMILY.equals(family);
+      }
+      return false;
+   }
+
+   // -------
+   // Helpers
+   // -------
+
+   // Runs in the dedicated thread
+   private void connect() {
+      try {
+         jtbConnection.connect();
+      } catch (Throwable e) {
+         connectException = e;
+      }
+
+      if (state.compareAndSet(RUNNING, DONE)) {
+         return;
+      }
+
+      // The job gave up waiting for this connection (timeout or cancel)
+      if (connectException == null) {
+         log.warn("Session '{}' connected after the job gave up. Disconnecting", jtbSession.getName());
+         try {
+            jtbConnection.disconnect();
+         } catch (Exception e) {
+            log.warn("Exception when disconnecting session '{}'", jtbSession.getName(), e);
+         }
+      } else {
+         log.warn("Connection to session '{}' failed after the job gave up", jtbSession.getName(), connectException);
+      }
+      eventBroker.post(Constants.EVENT_REFRESH_SESSION_NODE, nodeJTBSession);
+   }
+}
@@ -26,6 +26,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import javax.jms.BytesMessage;
 import javax.jms.Connection;
@@ -38,12 +42,10 @@ import javax.jms.MessageConsumer;
 import javax.jms.MessageEOFException;
 import javax.jms.MessageProducer;
 import javax.jms.ObjectMessage;
-import javax.jms.Queue;
 import javax.jms.QueueBrowser;
 import javax.jms.Session;
 import javax.jms.StreamMessage;
 import javax.jms.TextMessage;
-import javax.jms.Topic;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -54,6 +56,7 @@ import org.titou10.jtb.jms.qm.DestinationData;
 import org.titou10.jtb.jms.qm.QManager;
 import org.titou10.jtb.jms.qm.QueueData;
 import org.titou10.jtb.jms.qm.TopicData;
+import org.titou10.jtb.jms.util.SubscriptionMetrics;
 import org.titou10.jtb.ui.part.content.TopicListener;
 import org.titou10.jtb.util.Constants;
 import org.titou10.jtb.util.Utils;
@@ -67,46 +70,56 @@ import org.titou10.jtb.util.Utils;
  */
 public class JTBConnection {
 
-   private static final Logger  log                           = LoggerFactory.getLogger(JTBConnection.class);
+   private static final Logger                  log                           = LoggerFactory.getLogger(JTBConnection.class);
 
-   private static final Long    RECEIVE_MAX_WAIT_REMOVE       = 1 * 100L;                                    // 1 secs
-   private static final Long    RECEIVE_MAX_WAIT_REMOVE_ID    = 30 * 1000L;                                  // 30 seconds
+   private static final Long                    RECEIVE_MAX_WAIT_REMOVE       = 1 * 100L;                                    // 1 secs
+   private static final Long                    RECEIVE_MAX_WAIT_REMOVE_ID    = 30 * 1000L;                                  // 30 seconds
 
-   private static final String  UNKNOWN                       = "Unknown";
-   private static final String  JMSMESSAGEID_STD_PREFIX       = "ID:";
-   private static final int     JMSMESSAGEID_STD_PREFIX_START = JMSMESSAGEID_STD_PREFIX.length();
+   private static final String                  UNKNOWN                       = "Unknown";
+   private static final String                  JMSMESSAGEID_STD_PREFIX       = "ID:";
+   private static final int                     JMSMESSAGEID_STD_PREFIX_START = JMSMESSAGEID_STD_PREFIX.length();
 
-   // Global unique ID for the session
-   private static long          CONN_CLIENT_ID                = System.currentTimeMillis();
+   // Global unique ID for the session. Sessions may connect in parallel
+   private static final AtomicLong              CONN_CLIENT_ID                = new AtomicLong(System.currentTimeMillis());
 
-   private JTBSessionClientType jtbSessionClientType;
-   private SessionDef           sessionDef;
-   private QManager             qm;
-   private JTBPreferenceStore   ps;
+   private JTBSessionClientType                 jtbSessionClientType;
+   private SessionDef                           sessionDef;
+   private QManager                             qm;
+   private JTBPreferenceStore                   ps;
 
    // JMS Provider Information
-   private boolean              connected;
-   private Connection           jmsConnection;
-   private Session              jmsSession;
-   private Map<String, Session> jmsAsynchronousSessions       = new HashMap<>();
+   private volatile boolean                     connected;
+   private volatile long                        connectingSince;
+   private Connection                           jmsConnection;
+   private Session                              jmsSession;
+   private Map<String, Session>                 jmsAsynchronousSessions       = new HashMap<>();
+   // Producers of jmsSession. jmsSession is also used to send messages from jobs and from the threads of the connectors: the sends
+   // through jmsSession and the accesses to the producers are serialized on sendLock
+   private final Object                         sendLock                      = new Object();
+   private Map<JTBDestination, MessageProducer> jmsProducers                  = new HashMap<>();
+   // Metrics of the active topic subscriptions, per topic name
+   private Map<String, SubscriptionMetrics>     topicSubscriptionMetrics      = new ConcurrentHashMap<>();
 
    // Connection Metadata
-   private String               metaJMSVersion                = UNKNOWN;
-   private String               metaJMSProviderName           = UNKNOWN;
-   private List<String>         metaJMSPropertyNames          = new ArrayList<>(16);
-   private String               metaProviderVersion           = UNKNOWN;
+   private String                               metaJMSVersion                = UNKNOWN;
+   private String                               metaJMSProviderName           = UNKNOWN;
+   private List<String>                         metaJMSPropertyNames          = new ArrayList<>(16);
+   private String                               metaProviderVersion           = UNKNOWN;
 
    // Children
-   private SortedSet<JTBQueue>  jtbQueues;
-   private SortedSet<JTBTopic>  jtbTopics;
+   private SortedSet<JTBQueue>                  jtbQueues;
+   private SortedSet<JTBTopic>                  jtbTopics;
 
-   private SortedSet<JTBQueue>  jtbQueuesFiltered;
-   private SortedSet<JTBTopic>  jtbTopicsFiltered;
+   private SortedSet<JTBQueue>                  jtbQueuesFiltered;
+   private SortedSet<JTBTopic>                  jtbTopicsFiltered;
+
+   // Index of jtbQueues and jtbTopics by name. Queues have precedence over topics with the same name
+   private Map<String, JTBDestination>          jtbDestinationsByName         = new HashMap<>();
 
    // Destination filter
-   private String               filterPattern;
-   private boolean              apply;
-   private String               filterRegexPattern;
+   private String                               filterPattern;
+   private boolean                              apply;
+   private Pattern                              filterRegexPattern;
 
    // ------------------------
    // Constructor
@@ -150,6 +163,15 @@ public class JTBConnection {
       return connected;
    }
 
+   public boolean isConnecting() {
+      return connectingSince != 0;
+   }
+
+   // Time when the connection in progress started, 0 if not connecting
+   public long getConnectingSince() {
+      return connectingSince;
+   }
+
    @Override
    public String toString() {
       StringBuilder builder = new StringBuilder(128);
@@ -176,8 +198,9 @@ public class JTBConnection {
          this.filterRegexPattern = null;
       } else {
          this.apply = apply;
-         filterRegexPattern = filterPattern.replaceAll(";", "|");
-         filterRegexPattern = filterRegexPattern.replaceAll("\\.", "\\\\.").replaceAll("\\?", ".").replaceAll("\\*", ".*");
+         String regex = filterPattern.replaceAll(";", "|");
+         regex = regex.replaceAll("\\.", "\\\\.").replaceAll("\\?", ".").replaceAll("\\*", ".*");
+         filterRegexPattern = Pattern.compile(regex);
       }
 
       buildFilteredSortedSet();
@@ -193,14 +216,15 @@ public class JTBConnection {
          jtbTopicsFiltered.addAll(jtbTopics);
          return;
       }
+      Matcher m = filterRegexPattern.matcher("");
       for (JTBQueue jtbQueue : jtbQueues) {
-         if (jtbQueue.getName().matches(filterRegexPattern)) {
+         if (m.reset(jtbQueue.getName()).matches()) {
             jtbQueuesFiltered.add(jtbQueue);
          }
       }
 
       for (JTBTopic jtbTopic : jtbTopics) {
-         if (jtbTopic.getName().matches(filterRegexPattern)) {
+         if (m.reset(jtbTopic.getName()).matches()) {
             jtbTopicsFiltered.add(jtbTopic);
          }
       }
@@ -250,18 +274,29 @@ public class JTBConnection {
    // }
    // }
 
-   @SuppressWarnings("unchecked")
+   // May be called from a background thread
    public void connect() throws Exception {
       log.debug("connect '{}'", this);
       if (this.isConnected()) {
          return;
       }
 
+      long start = System.currentTimeMillis();
+      connectingSince = start;
+      try {
+         connect(start);
+      } finally {
+         connectingSince = 0;
+      }
+   }
+
+   @SuppressWarnings("unchecked")
+   private void connect(long start) throws Exception {
       boolean showSystemObjects = ps.getBoolean(Constants.PREF_SHOW_SYSTEM_OBJECTS);
       String clientIdPrefix = ps.getString(Constants.PREF_CONN_CLIENT_ID_PREFIX);
 
       // Must be a unique Name as JMS API restricts duplicate usage
-      String clientId = clientIdPrefix + "-" + CONN_CLIENT_ID++;
+      String clientId = clientIdPrefix + "-" + CONN_CLIENT_ID.getAndIncrement();
 
       // Create JMS connection
       jmsConnection = qm.connect(sessionDef, showSystemObjects, clientId);
@@ -273,23 +308,29 @@ public class JTBConnection {
       metaJMSPropertyNames = Collections.list(meta.getJMSXPropertyNames());
       Collections.sort(metaJMSPropertyNames);
 
-      // Build lists of destinations
+      long connectTime = System.currentTimeMillis() - start;
+
+      // Build lists of destinations. JMS Destinations are created on first use
       DestinationData dd = qm.discoverDestinations(jmsConnection, showSystemObjects);
       for (QueueData qData : dd.getListQueueData()) {
-         log.debug("jmsSession.createQueue '{}'", qData.getName());
-         Queue jmsQ = jmsSession.createQueue(qData.getName());
-         jtbQueues.add(new JTBQueue(this, qData.getName(), jmsQ, qData.isBrowsable()));
+         addJTBDestination(new JTBQueue(this, qData.getName(), qData.isBrowsable()));
       }
 
       for (TopicData tData : dd.getListTopicData()) {
-         log.debug("jmsSession.createTopic '{}'", tData.getName());
-         Topic jmsTopic = jmsSession.createTopic(tData.getName());
-         jtbTopics.add(new JTBTopic(this, tData.getName(), jmsTopic));
+         addJTBDestination(new JTBTopic(this, tData.getName()));
       }
 
       buildFilteredSortedSet();
 
       connected = true;
+
+      log.info("Session '{}' connected in {} ms (connection: {} ms, {} queues and {} topics discovered in {} ms)",
+               sessionDef.getName(),
+               System.currentTimeMillis() - start,
+               connectTime,
+               jtbQueues.size(),
+               jtbTopics.size(),
+               System.currentTimeMillis() - start - connectTime);
    }
 
    public void rescanDestinations() throws Exception {
@@ -306,18 +347,16 @@ public class JTBConnection {
       for (QueueData qData : dd.getListQueueData()) {
          JTBDestination dest = getJTBDestinationByName(qData.getName());
          if (dest == null) {
-            log.debug("new Queue: jmsSession.createQueue '{}'", qData.getName());
-            Queue jmsQ = jmsSession.createQueue(qData.getName());
-            jtbQueues.add(new JTBQueue(this, qData.getName(), jmsQ, qData.isBrowsable()));
+            log.debug("new Queue: '{}'", qData.getName());
+            addJTBDestination(new JTBQueue(this, qData.getName(), qData.isBrowsable()));
          }
       }
 
       for (TopicData tData : dd.getListTopicData()) {
          JTBDestination dest = getJTBDestinationByName(tData.getName());
          if (dest == null) {
-            log.debug("New Topic: jmsSession.createTopic '{}'", tData.getName());
-            Topic jmsTopic = jmsSession.createTopic(tData.getName());
-            jtbTopics.add(new JTBTopic(this, tData.getName(), jmsTopic));
+            log.debug("New Topic: '{}'", tData.getName());
+            addJTBDestination(new JTBTopic(this, tData.getName()));
          }
       }
 
@@ -343,11 +382,14 @@ public class JTBConnection {
       // jmsSessionAsynchronous = null;
       jmsSession = null;
       jmsAsynchronousSessions.clear();
+      jmsProducers.clear();
+      topicSubscriptionMetrics.clear();
 
       jtbQueues.clear();
       jtbQueuesFiltered.clear();
       jtbTopics.clear();
       jtbTopicsFiltered.clear();
+      jtbDestinationsByName.clear();
 
       metaJMSVersion = UNKNOWN;
       metaJMSProviderName = UNKNOWN;
@@ -361,24 +403,28 @@ public class JTBConnection {
 
    public Message createJMSMessage(JTBMessageType jtbMessageType) throws JMSException {
       log.debug("createJMSMessage {}", jtbMessageType);
+      return createJMSMessage(jmsSession, jtbMessageType);
+   }
+
+   static Message createJMSMessage(Session session, JTBMessageType jtbMessageType) throws JMSException {
       switch (jtbMessageType) {
          case TEXT:
-            return jmsSession.createTextMessage();
+            return session.createTextMessage();
 
          case BYTES:
-            return jmsSession.createBytesMessage();
+            return session.createBytesMessage();
 
          case MESSAGE:
-            return jmsSession.createMessage();
+            return session.createMessage();
 
          case MAP:
-            return jmsSession.createMapMessage();
+            return session.createMapMessage();
 
          case OBJECT:
-            return jmsSession.createObjectMessage();
+            return session.createObjectMessage();
 
          case STREAM:
-            return jmsSession.createStreamMessage();
+            return session.createStreamMessage();
       }
       return null; // Impossible
    }
@@ -558,6 +604,20 @@ public class JTBConnection {
    }
 
    public int emptyQueue(JTBQueue jtbQueue) throws JMSException {
+
+      // Use the management API of the Q provider if available
+      try {
+         Integer nbPurged = qm.purgeQueue(jmsConnection, jtbQueue.getName());
+         if (nbPurged != null) {
+            log.debug("emptyQueue {} : {} messages purged by the Q provider", jtbQueue, nbPurged);
+            return nbPurged;
+         }
+      } catch (Exception e) {
+         log.warn("Exception occurred when purging queue {} with the Q provider. Fallback to consuming messages. Msg={}",
+                  jtbQueue,
+                  e.getMessage());
+      }
+
       Message message = null;
       Integer nb = 0;
       try (MessageConsumer consumer = jmsSession.createConsumer(jtbQueue.getJmsDestination());) {
@@ -578,41 +638,118 @@ public class JTBConnection {
 
    public void sendMessage(JTBMessage jtbMessage, JTBDestination jtbDestination) throws JMSException {
       log.debug("sendMessage {} to {}", jtbMessage, jtbDestination);
-      Message m = jtbMessage.getJmsMessage();
-      Destination d = jtbDestination.getJmsDestination();
 
-      try (MessageProducer p = jmsSession.createProducer(d);) {
-         if (jtbMessage.getDeliveryMode() != null) {
-            p.setDeliveryMode(jtbMessage.getDeliveryMode().intValue());
-         }
-         if (jtbMessage.getPriority() != null) {
-            p.setPriority(jtbMessage.getPriority());
-         }
-         if (jtbMessage.getTimeToLive() != null) {
-            p.setTimeToLive(jtbMessage.getTimeToLive());
-         }
-         if (jtbMessage.getReplyToDestinationName() != null) {
-            // Destination replyToDest = jmsSession.createTemporaryQueue();
-            Destination replyToDest = jmsSession.createQueue(jtbMessage.getReplyToDestinationName());
-            m.setJMSReplyTo(replyToDest);
+      synchronized (sendLock) {
+         send(jtbMessage, jtbDestination);
+         jmsSession.commit();
+      }
+      log.debug("Message sent");
+   }
+
+   public void sendMessage(JTBMessage jtbMessage) throws JMSException {
+      sendMessage(jtbMessage, jtbMessage.getJtbDestination());
+   }
+
+   // Send a list of messages to the same destination, committing the session every "commitEvery" messages (0 = only at the end)
+   public JTBSendResult sendMessages(List<JTBMessage> jtbMessages,
+                                     JTBDestination jtbDestination,
+                                     int commitEvery) throws JMSException {
+      log.debug("sendMessages {} messages to {} commitEvery={}", jtbMessages.size(), jtbDestination, commitEvery);
+
+      long start = System.nanoTime();
+
+      int n = 0;
+      synchronized (sendLock) {
+         for (JTBMessage jtbMessage : jtbMessages) {
+            send(jtbMessage, jtbDestination);
+            n++;
+            if ((commitEvery > 0) && (n % commitEvery == 0)) {
+               jmsSession.commit();
+            }
          }
-         if (jtbMessage.getDeliveryDelay() != null) {
+         jmsSession.commit();
+      }
+
+      JTBSendResult result = new JTBSendResult(n, System.nanoTime() - start);
+      log.debug("sendMessages done: {}", result);
+      return result;
+   }
+
+   // Must be called with sendLock held
+   private void send(JTBMessage jtbMessage, JTBDestination jtbDestination) throws JMSException {
+      if (jtbMessage.getDeliveryDelay() != null) {
+         send(jmsSession, null, jtbMessage, jtbDestination);
+         return;
+      }
+
+      MessageProducer p = getCachedProducer(jtbDestination);
+      try {
+         send(jmsSession, p, jtbMessage, jtbDestination);
+      } catch (JMSException e) {
+         // The producer may be unusable now. Do not keep it
+         removeCachedProducer(jtbDestination);
+         throw e;
+      }
+   }
+
+   // Send a message with the given session and producer. The producer is not used for messages with a delivery delay
+   static void send(Session session, MessageProducer p, JTBMessage jtbMessage, JTBDestination jtbDestination) throws JMSException {
+      Message m = jtbMessage.getJmsMessage();
+
+      if (jtbMessage.getReplyToDestinationName() != null) {
+         // Destination replyToDest = session.createTemporaryQueue();
+         Destination replyToDest = session.createQueue(jtbMessage.getReplyToDestinationName());
+         m.setJMSReplyTo(replyToDest);
+      }
+
+      // Delivery delay is a property of the producer, not of the send() call: use a dedicated producer for those messages
+      if (jtbMessage.getDeliveryDelay() != null) {
+         try (MessageProducer p2 = session.createProducer(jtbDestination.getJmsDestination(session));) {
             try {
-               p.setDeliveryDelay(jtbMessage.getDeliveryDelay());
+               p2.setDeliveryDelay(jtbMessage.getDeliveryDelay());
             } catch (Throwable t) {
                log.warn("JMS 2.0 feature 'setDeliveryDelay' failed. ignoring. Msg: {}", t.getMessage());
             }
+            p2.send(m, getDeliveryMode(jtbMessage, p2), getPriority(jtbMessage, p2), getTimeToLive(jtbMessage, p2));
          }
+         return;
+      }
+
+      p.send(m, getDeliveryMode(jtbMessage, p), getPriority(jtbMessage, p), getTimeToLive(jtbMessage, p));
+   }
 
-         p.send(m);
+   private MessageProducer getCachedProducer(JTBDestination jtbDestination) throws JMSException {
+      MessageProducer p = jmsProducers.get(jtbDestination);
+      if (p == null) {
+         log.debug("Creating producer for {}", jtbDestination);
+         p = jmsSession.createProducer(jtbDestination.getJmsDestination());
+         jmsProducers.put(jtbDestination, p);
       }
+      return p;
+   }
 
-      jmsSession.commit();
-      log.debug("Message sent");
+   private void removeCachedProducer(JTBDestination jtbDestination) {
+      MessageProducer p = jmsProducers.remove(jtbDestination);
+      if (p != null) {
+         try {
+            p.close();
+         } catch (JMSException e) {
+            log.warn("Exception occured when closing producer. Ignoring: {}", e.getMessage());
+         }
+      }
    }
 
-   public void sendMessage(JTBMessage jtbMessage) throws JMSException {
-      sendMessage(jtbMessage, jtbMessage.getJtbDestination());
+   // The producer keeps the provider defaults for attributes not set in the message
+   private static int getDeliveryMode(JTBMessage jtbMessage, MessageProducer p) throws JMSException {
+      return jtbMessage.getDeliveryMode() == null ? p.getDeliveryMode() : jtbMessage.getDeliveryMode().intValue();
+   }
+
+   private static int getPriority(JTBMessage jtbMessage, MessageProducer p) throws JMSException {
+      return jtbMessage.getPriority() == null ? p.getPriority() : jtbMessage.getPriority();
+   }
+
+   private static long getTimeToLive(JTBMessage jtbMessage, MessageProducer p) throws JMSException {
+      return jtbMessage.getTimeToLive() == null ? p.getTimeToLive() : jtbMessage.getTimeToLive();
    }
 
    // ----------------
@@ -630,8 +767,10 @@ public class JTBConnection {
          jmsAsynchronousSessions.put(jtbTopic.getName(), jmsAsynchronousSession);
       }
       // messageListener.setJmsAsynchronousSession(jmsAsynchronousSession);
-      MessageConsumer messageConsumer = jmsAsynchronousSession.createConsumer(jtbTopic.getJmsDestination(), selector);
+      MessageConsumer messageConsumer = jmsAsynchronousSession.createConsumer(jtbTopic.getJmsDestination(jmsAsynchronousSession),
+                                                                              selector);
       messageConsumer.setMessageListener(messageListener);
+      topicSubscriptionMetrics.put(jtbTopic.getName(), messageListener.getMetrics());
       return messageConsumer;
    }
 
@@ -641,6 +780,7 @@ public class JTBConnection {
       if (messageConsumer != null) {
          messageConsumer.close();
       }
+      topicSubscriptionMetrics.remove(jtbTopic.getName());
 
       Session jmsAsynchronousSession = jmsAsynchronousSessions.get(jtbTopic.getName());
       if (jmsAsynchronousSession != null) {
@@ -653,17 +793,59 @@ public class JTBConnection {
    // Browse/Search Messages
    // ------------------------
    public Date getFirstMessageTimestamp(JTBQueue jtbQueue) throws JMSException {
-      try (QueueBrowser browser = jmsSession.createBrowser(jtbQueue.getJmsQueue());) {
+      return getFirstMessageTimestamp(jtbQueue, jmsSession);
+   }
+
+   // Same as above but with a session created by createWorkerSession(), for use from a background thread
+   public Date getFirstMessageTimestamp(JTBQueue jtbQueue, Session session) throws JMSException {
+      Date firstMessageTimestamp = null;
+      try (QueueBrowser browser = session.createBrowser(jtbQueue.getJmsQueue(session));) {
          Enumeration<?> msgs = browser.getEnumeration();
-         while (msgs.hasMoreElements()) {
+         if (msgs.hasMoreElements()) {
             Message firstMessage = (Message) msgs.nextElement();
-            return new Date(firstMessage.getJMSTimestamp());
+            firstMessageTimestamp = new Date(firstMessage.getJMSTimestamp());
          }
       }
 
-      jmsSession.commit();
+      if (session.getTransacted()) {
+         session.commit();
+      }
+
+      return firstMessageTimestamp;
+   }
+
+   // Used by JTBDestination to create its JMS Destination on first use
+   Session getJmsSession() {
+      return jmsSession;
+   }
+
+   // JMS sessions are not thread safe: each background thread must use its own session. It must be closed by the caller
+   public Session createWorkerSession() throws JMSException {
+      return jmsConnection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+   }
+
+   // Same as createWorkerSession(), with a transacted session
+   public Session createTransactedWorkerSession() throws JMSException {
+      return jmsConnection.createSession(true, Session.SESSION_TRANSACTED);
+   }
 
-      return null;
+   // A producer with its own JMS session, for use by one background thread. It must be closed by the caller
+   public JTBWorkerProducer createWorkerProducer(JTBDestination jtbDestination) throws JMSException {
+      return createWorkerProducer(createWorkerSession(), jtbDestination);
+   }
+
+   // Same as createWorkerProducer(), with a transacted session committed by the caller
+   public JTBWorkerProducer createTransactedWorkerProducer(JTBDestination jtbDestination) throws JMSException {
+      return createWorkerProducer(createTransactedWorkerSession(), jtbDestination);
+   }
+
+   private JTBWorkerProducer createWorkerProducer(Session session, JTBDestination jtbDestination) throws JMSException {
+      try {
+         return new JTBWorkerProducer(session, session.createProducer(jtbDestination.getJmsDestination(session)), jtbDestination);
+      } catch (JMSException e) {
+         session.close();
+         throw e;
+      }
    }
 
    public List<JTBMessage> browseQueue(JTBQueue jtbQueue, int maxMessages) throws JMSException {
@@ -674,6 +856,32 @@ public class JTBConnection {
                                        int maxMessages,
                                        String payloadSearchText,
                                        String selectorsSearchText) throws JMSException {
+
+      List<JTBMessage> jtbMessages = new ArrayList<>(Math.min(256, maxMessages));
+
+      browseQueue(jtbQueue, maxMessages, payloadSearchText, selectorsSearchText, jtbMessage -> jtbMessages.add(jtbMessage));
+
+      return jtbMessages;
+   }
+
+   // Streaming version of browseQueue: messages are handed to the callback as soon as they are read from the QueueBrowser.
+   // Browsing stops when maxMessages is reached or when the callback returns false
+   // Returns the number of messages handed to the callback
+   public int browseQueue(JTBQueue jtbQueue,
+                          int maxMessages,
+                          String payloadSearchText,
+                          String selectorsSearchText,
+                          JTBBrowseCallback callback) throws JMSException {
+      return browseQueue(jmsSession, jtbQueue, maxMessages, payloadSearchText, selectorsSearchText, callback);
+   }
+
+   // Same as above but with a session created by createWorkerSession(), for use from a background thread
+   public int browseQueue(Session session,
+                          JTBQueue jtbQueue,
+                          int maxMessages,
+                          String payloadSearchText,
+                          String selectorsSearchText,
+                          JTBBrowseCallback callback) throws JMSException {
       log.debug("browseQueue {} maxMessages={}, payloadSearchText='{}' selectorsSearchText='{}'",
                 jtbQueue,
                 maxMessages,
@@ -682,63 +890,60 @@ public class JTBConnection {
 
       int limit = maxMessages == 0 ? Integer.MAX_VALUE : maxMessages;
 
-      List<JTBMessage> jtbMessages = new ArrayList<>(Math.min(256, maxMessages));
+      int n = 0;
 
       // JMS Browser with selector
-      try (QueueBrowser browser = jmsSession.createBrowser(jtbQueue.getJmsQueue(), selectorsSearchText);) {
-         int n = 0;
+      try (QueueBrowser browser = session.createBrowser(jtbQueue.getJmsQueue(session), selectorsSearchText);) {
 
          Enumeration<?> msgs = browser.getEnumeration();
-         loopOnMessages: while (msgs.hasMoreElements()) {
+         while ((n < limit) && (msgs.hasMoreElements())) {
             Message message = (Message) msgs.nextElement();
 
-            // No filter on payload, keep all messages
-            if (payloadSearchText.isEmpty()) {
-               jtbMessages.add(new JTBMessage(jtbQueue, message));
-               if (++n >= limit) {
-                  break loopOnMessages;
-               }
-               continue loopOnMessages;
+            if (!(payloadContains(message, payloadSearchText))) {
+               continue;
             }
 
-            // Search on text payload of Text Messages
-            if (message instanceof TextMessage) {
-               String text = ((TextMessage) message).getText();
-               if (text != null) {
-                  if (text.contains(payloadSearchText)) {
-                     jtbMessages.add(new JTBMessage(jtbQueue, message));
-                     if (++n >= limit) {
-                        break loopOnMessages;
-                     }
-                  }
-               }
-               continue loopOnMessages;
+            n++;
+            if (!(callback.onMessage(new JTBMessage(jtbQueue, message)))) {
+               log.debug("browseQueue {} stopped by consumer after {} messages", jtbQueue, n);
+               break;
             }
+         }
+      }
 
-            // Search on "values" of Map Message content
-            if (message instanceof MapMessage) {
-               MapMessage mm = (MapMessage) message;
-               Enumeration<?> mapNames = mm.getMapNames();
-               while (mapNames.hasMoreElements()) {
-                  Object value = mm.getObject((String) mapNames.nextElement());
-                  if (value != null) {
-                     if (value.toString().contains(payloadSearchText)) {
-                        jtbMessages.add(new JTBMessage(jtbQueue, message));
-                        if (++n >= limit) {
-                           break loopOnMessages;
-                        }
-                     }
-                  }
-               }
+      if (session.getTransacted()) {
+         session.commit();
+      }
+
+      return n;
+   }
 
-               continue loopOnMessages;
+   private boolean payloadContains(Message message, String payloadSearchText) throws JMSException {
+
+      // No filter on payload, keep all messages
+      if (payloadSearchText.isEmpty()) {
+         return true;
+      }
+
+      // Search on text payload of Text Messages
+      if (message instanceof TextMessage) {
+         String text = ((TextMessage) message).getText();
+         return (text != null) && (text.contains(payloadSearchText));
+      }
+
+      // Search on "values" of Map Message content
+      if (message instanceof MapMessage) {
+         MapMessage mm = (MapMessage) message;
+         Enumeration<?> mapNames = mm.getMapNames();
+         while (mapNames.hasMoreElements()) {
+            Object value = mm.getObject((String) mapNames.nextElement());
+            if ((value != null) && (value.toString().contains(payloadSearchText))) {
+               return true;
             }
          }
       }
 
-      jmsSession.commit();
-
-      return jtbMessages;
+      return false;
    }
 
    // ------------------------
@@ -746,25 +951,27 @@ public class JTBConnection {
    // ------------------------
 
    public JTBDestination getJTBDestinationByName(String destinationName) {
-      for (JTBQueue jtbQueue : jtbQueues) {
-         if (jtbQueue.getName().equals(destinationName)) {
-            return jtbQueue;
-         }
-      }
+      return jtbDestinationsByName.get(destinationName);
+   }
 
-      for (JTBTopic jtbTopic : jtbTopics) {
-         if (jtbTopic.getName().equals(destinationName)) {
-            return jtbTopic;
-         }
+   private void addJTBDestination(JTBDestination jtbDestination) {
+      if (jtbDestination.isJTBQueue()) {
+         jtbQueues.add(jtbDestination.getAsJTBQueue());
+         jtbDestinationsByName.put(jtbDestination.getName(), jtbDestination);
+      } else {
+         jtbTopics.add(jtbDestination.getAsJTBTopic());
+         jtbDestinationsByName.putIfAbsent(jtbDestination.getName(), jtbDestination);
       }
-
-      return null;
    }
 
    // ------------------------
    // Standard Getters/Setters
    // ------------------------
 
+   public Map<String, SubscriptionMetrics> getTopicSubscriptionMetrics() {
+      return Collections.unmodifiableMap(topicSubscriptionMetrics);
+   }
+
    public SortedSet<JTBQueue> getJtbQueues() {
       return jtbQueues;
    }
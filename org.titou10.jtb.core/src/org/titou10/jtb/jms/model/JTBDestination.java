@@ -17,6 +17,8 @@
 package org.titou10.jtb.jms.model;
 
 import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.Session;
 
 /**
  * 
@@ -27,20 +29,24 @@ import javax.jms.Destination;
  */
 public abstract class JTBDestination implements JTBObject {
 
-   private JTBConnection jtbConnection;
-   private String        name;
-   private Destination   jmsDestination;
+   private JTBConnection        jtbConnection;
+   private String               name;
+
+   // Created on first use: with thousands of destinations, creating them all at connect time is expensive for some Q providers
+   private volatile Destination jmsDestination;
 
    // ------------------------
    // Constructor
    // ------------------------
 
-   public JTBDestination(JTBConnection jtbConnection, String name, Destination jmsDestination) {
+   public JTBDestination(JTBConnection jtbConnection, String name) {
       this.jtbConnection = jtbConnection;
       this.name = name;
-      this.jmsDestination = jmsDestination;
    }
 
+   // Create the JMS Destination corresponding to this destination
+   protected abstract Destination createJmsDestination(Session session) throws JMSException;
+
    // ------------------------
    // Helpers
    // ------------------------
@@ -76,8 +82,24 @@ public abstract class JTBDestination implements JTBObject {
       return name;
    }
 
-   public Destination getJmsDestination() {
-      return jmsDestination;
+   // Only from the UI thread: the JMS Destination is created with the session of the connection on first use
+   public Destination getJmsDestination() throws JMSException {
+      return getJmsDestination(jtbConnection.getJmsSession());
+   }
+
+   // From a background thread: "session" is the session of the caller, used to create the JMS Destination on first use
+   public Destination getJmsDestination(Session session) throws JMSException {
+      Destination d = jmsDestination;
+      if (d == null) {
+         synchronized (this) {
+            d = jmsDestination;
+            if (d == null) {
+               d = createJmsDestination(session);
+               jmsDestination = d;
+            }
+         }
+      }
+      return d;
    }
 
    public JTBConnection getJtbConnection() {
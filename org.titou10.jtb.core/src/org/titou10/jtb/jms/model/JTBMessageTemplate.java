@@ -16,10 +16,6 @@
  */
 package org.titou10.jtb.jms.model;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Enumeration;
@@ -114,6 +110,45 @@ public class JTBMessageTemplate implements Serializable {
       // JAX-B
    }
 
+   /**
+    * Copy constructor. The properties and the map payload are copied. The text, bytes and object payloads are shared with the
+    * original template, they must be replaced, not modified
+    */
+   public JTBMessageTemplate(JTBMessageTemplate t) {
+      this.jmsType = t.jmsType;
+      this.jmsCorrelationID = t.jmsCorrelationID;
+
+      this.jmsMessageID = t.jmsMessageID;
+      this.jmsTimestamp = t.jmsTimestamp;
+      this.jmsDeliveryTime = t.jmsDeliveryTime;
+      this.jmsExpiration = t.jmsExpiration;
+
+      this.deliveryMode = t.deliveryMode;
+      this.priority = t.priority;
+      this.timeToLive = t.timeToLive;
+      this.deliveryDelay = t.deliveryDelay;
+
+      this.jtbMessageType = t.jtbMessageType;
+      this.replyToDestinationName = t.replyToDestinationName;
+
+      this.payloadText = t.payloadText;
+      this.payloadBytes = t.payloadBytes;
+      this.payloadObject = t.payloadObject;
+      if (t.payloadMap != null) {
+         this.payloadMap = new HashMap<>(t.payloadMap);
+      }
+
+      if (t.jtbProperties != null) {
+         this.jtbProperties = new ArrayList<>(t.jtbProperties.size());
+         for (JTBProperty p : t.jtbProperties) {
+            this.jtbProperties.add(new JTBProperty(p.getName(), p.getValue(), p.getKind()));
+         }
+      }
+      if (t.properties != null) {
+         this.properties = new HashMap<>(t.properties);
+      }
+   }
+
    public JTBMessageTemplate(JTBMessage jtbMessage) throws JMSException {
       Message message = jtbMessage.getJmsMessage();
 
@@ -348,20 +383,6 @@ public class JTBMessageTemplate implements Serializable {
 
    }
 
-   public static JTBMessageTemplate deepClone(JTBMessageTemplate object) {
-      try {
-         ByteArrayOutputStream baos = new ByteArrayOutputStream();
-         ObjectOutputStream oos = new ObjectOutputStream(baos);
-         oos.writeObject(object);
-         ByteArrayInputStream bais = new ByteArrayInputStream(baos.toByteArray());
-         ObjectInputStream ois = new ObjectInputStream(bais);
-         return (JTBMessageTemplate) ois.readObject();
-      } catch (Exception e) {
-         e.printStackTrace();
-         return null;
-      }
-   }
-
    public boolean hasPayload() {
       switch (jtbMessageType) {
          case TEXT:
@@ -379,6 +400,27 @@ public class JTBMessageTemplate implements Serializable {
       }
    }
 
+   // Estimate the size of the payload, the same way as Utils.getPayloadSize() does for JMS Messages
+   public long getPayloadSize() {
+      switch (jtbMessageType) {
+         case TEXT:
+            return payloadText == null ? 0 : payloadText.length() * 2L;
+         case BYTES:
+            return payloadBytes == null ? 0 : payloadBytes.length;
+         case MAP:
+            if (payloadMap == null) {
+               return 0;
+            }
+            long size = 0;
+            for (Entry<String, Object> e : payloadMap.entrySet()) {
+               size += Utils.getMapEntrySize(e.getKey(), e.getValue());
+            }
+            return size;
+         default:
+            return 0;
+      }
+   }
+
    // -------------------------
    // Specific Getters/Setters
    // -------------------------
@@ -420,10 +462,18 @@ public class JTBMessageTemplate implements Serializable {
       return jmsMessageID;
    }
 
+   public void setJmsMessageID(String jmsMessageID) {
+      this.jmsMessageID = jmsMessageID;
+   }
+
    public Long getJmsTimestamp() {
       return jmsTimestamp;
    }
 
+   public void setJmsTimestamp(Long jmsTimestamp) {
+      this.jmsTimestamp = jmsTimestamp;
+   }
+
    public String getJmsType() {
       return jmsType;
    }
@@ -500,10 +550,18 @@ public class JTBMessageTemplate implements Serializable {
       return jmsDeliveryTime;
    }
 
+   public void setJmsDeliveryTime(Long jmsDeliveryTime) {
+      this.jmsDeliveryTime = jmsDeliveryTime;
+   }
+
    public Long getJmsExpiration() {
       return jmsExpiration;
    }
 
+   public void setJmsExpiration(Long jmsExpiration) {
+      this.jmsExpiration = jmsExpiration;
+   }
+
    public void setDeliveryMode(JTBDeliveryMode deliveryMode) {
       this.deliveryMode = deliveryMode;
    }
@@ -16,7 +16,10 @@
  */
 package org.titou10.jtb.jms.model;
 
+import javax.jms.Destination;
+import javax.jms.JMSException;
 import javax.jms.Queue;
+import javax.jms.Session;
 
 /**
  * 
@@ -33,8 +36,8 @@ public class JTBQueue extends JTBDestination implements Comparable<JTBQueue> {
    // Constructor
    // ------------------------
 
-   public JTBQueue(JTBConnection jtbConnection, String name, Queue jmsQueue, boolean browsable) {
-      super(jtbConnection, name, jmsQueue);
+   public JTBQueue(JTBConnection jtbConnection, String name, boolean browsable) {
+      super(jtbConnection, name);
       this.browsable = browsable;
    }
 
@@ -42,6 +45,11 @@ public class JTBQueue extends JTBDestination implements Comparable<JTBQueue> {
    // Helpers
    // -------------
 
+   @Override
+   protected Destination createJmsDestination(Session session) throws JMSException {
+      return session.createQueue(getName());
+   }
+
    @Override
    public String toString() {
       StringBuilder builder = new StringBuilder(128);
@@ -57,10 +65,14 @@ public class JTBQueue extends JTBDestination implements Comparable<JTBQueue> {
    }
 
    // Helper to avoid casting
-   public Queue getJmsQueue() {
+   public Queue getJmsQueue() throws JMSException {
       return (Queue) getJmsDestination();
    }
 
+   public Queue getJmsQueue(Session session) throws JMSException {
+      return (Queue) getJmsDestination(session);
+   }
+
    public boolean isBrowsable() {
       return browsable;
    }
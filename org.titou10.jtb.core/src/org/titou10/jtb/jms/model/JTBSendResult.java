@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2019 Denis Forveille titou10.titou10@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.titou10.jtb.jms.model;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 
+ * Result of a batched send of messages: number of messages sent and elapsed time
+ * 
+ * @author Denis Forveille
+ * 
+ */
+public final class JTBSendResult {
+
+   private final int  nbMessages;
+   private final long elapsedNanos;
+
+   // ------------------------
+   // Constructor
+   // ------------------------
+
+   public JTBSendResult(int nbMessages, long elapsedNanos) {
+      this.nbMessages = nbMessages;
+      this.elapsedNanos = elapsedNanos;
+   }
+
+   // ------------------------
+   // Helpers
+   // ------------------------
+
+   // Messages per second
+   public double getThroughput() {
+      if (elapsedNanos <= 0) {
+         return 0;
+      }
+      return nbMessages * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+   }
+
+   public long getElapsedMillis() {
+      return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+   }
+
+   @Override
+   public String toString() {
+      StringBuilder builder = new StringBuilder(128);
+      builder.append("JTBSendResult [nbMessages=");
+      builder.append(nbMessages);
+      builder.append(", elapsedMillis=");
+      builder.append(getElapsedMillis());
+      builder.append(", throughput=");
+      builder.append(String.format("%.1f msg/s", getThroughput()));
+      builder.append("]");
+      return builder.toString();
+   }
+
+   // ------------------------
+   // Standard Getters
+   // ------------------------
+
+   public int getNbMessages() {
+      return nbMessages;
+   }
+
+   public long getElapsedNanos() {
+      return elapsedNanos;
+   }
+
+}
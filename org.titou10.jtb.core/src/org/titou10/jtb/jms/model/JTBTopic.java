@@ -16,7 +16,9 @@
  */
 package org.titou10.jtb.jms.model;
 
-import javax.jms.Topic;
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.Session;
 
 /**
  * 
@@ -31,14 +33,19 @@ public class JTBTopic extends JTBDestination implements Comparable<JTBTopic> {
    // Constructor
    // ------------------------
 
-   public JTBTopic(JTBConnection jtbConnection, String name, Topic jmsTopic) {
-      super(jtbConnection, name, jmsTopic);
+   public JTBTopic(JTBConnection jtbConnection, String name) {
+      super(jtbConnection, name);
    }
 
    // -------------
    // Helpers
    // -------------
 
+   @Override
+   protected Destination createJmsDestination(Session session) throws JMSException {
+      return session.createTopic(getName());
+   }
+
    @Override
    public String toString() {
       StringBuilder builder = new StringBuilder(128);
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2019 Denis Forveille titou10.titou10@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.titou10.jtb.jms.model;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+
+/**
+ * 
+ * A JMS producer with its own session, to send messages from a background thread
+ * 
+ * The session is transacted when the producer is created by {@link JTBConnection#createTransactedWorkerProducer(JTBDestination)}
+ * 
+ * @author Denis Forveille
+ * 
+ */
+public final class JTBWorkerProducer implements AutoCloseable {
+
+   private final Session         session;
+   private final MessageProducer producer;
+   private final JTBDestination  jtbDestination;
+
+   // ------------------------
+   // Constructor
+   // ------------------------
+
+   JTBWorkerProducer(Session session, MessageProducer producer, JTBDestination jtbDestination) {
+      this.session = session;
+      this.producer = producer;
+      this.jtbDestination = jtbDestination;
+   }
+
+   // ------------------------
+   // Business Interface
+   // ------------------------
+
+   public Message createJMSMessage(JTBMessageType jtbMessageType) throws JMSException {
+      return JTBConnection.createJMSMessage(session, jtbMessageType);
+   }
+
+   public void send(JTBMessage jtbMessage) throws JMSException {
+      JTBConnection.send(session, producer, jtbMessage, jtbDestination);
+   }
+
+   // Transacted session only
+   public void commit() throws JMSException {
+      session.commit();
+   }
+
+   // Transacted session only
+   public void rollback() throws JMSException {
+      session.rollback();
+   }
+
+   @Override
+   public void close() throws JMSException {
+      // Closing the session also closes the producer
+      session.close();
+   }
+
+   // ------------------------
+   // Standard Getters/Setters
+   // ------------------------
+
+   public JTBDestination getJtbDestination() {
+      return jtbDestination;
+   }
+
+}
@@ -10,6 +10,7 @@
  * <http://www.gnu.org/licenses/>. */
 package org.titou10.jtb.jms.qm;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -77,6 +78,39 @@ public abstract class QManager implements JTBObject, Comparable<QManager> {
       return null;
    }
 
+   // Depth of a set of Queues, keyed by queue name. A null value means the depth is unknown
+   // Q providers that can read the depth of many queues in one call should override it. Default: call getQueueDepth for each queue
+   public Map<String, Integer> getQueueDepths(Connection jmsConnection, Collection<String> queueNames) {
+      Map<String, Integer> depths = new HashMap<>(queueNames.size());
+      for (String queueName : queueNames) {
+         depths.put(queueName, getQueueDepth(jmsConnection, queueName));
+      }
+      return depths;
+   }
+
+   // Age in ms of the oldest message of a Queue, from the statistics of the Q provider
+   // Returns null if the Q provider does not support it, or can't tell. In this case the queue will be browsed
+   public Long getFirstMessageAge(Connection jmsConnection, String queueName) {
+      return null;
+   }
+
+   // Age in ms of the oldest message of a set of Queues, keyed by queue name. A null value means the Q provider can't tell
+   // Q providers that can read the statistics of many queues in one call should override it. Default: call getFirstMessageAge for
+   // each queue
+   public Map<String, Long> getFirstMessageAges(Connection jmsConnection, Collection<String> queueNames) {
+      Map<String, Long> ages = new HashMap<>(queueNames.size());
+      for (String queueName : queueNames) {
+         ages.put(queueName, getFirstMessageAge(jmsConnection, queueName));
+      }
+      return ages;
+   }
+
+   // Remove all the messages from a Queue with the management API of the Q provider, without consuming them one by one
+   // Returns the number of messages removed (if known) or null if the Q provider does not support it
+   public Integer purgeQueue(Connection jmsConnection, String queueName) throws Exception {
+      return null;
+   }
+
    public Map<String, Object> getQueueInformation(Connection jmsConnection, String queueName) {
       return Collections.emptyMap();
    }
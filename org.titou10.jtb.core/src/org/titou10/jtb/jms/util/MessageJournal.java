@@ -0,0 +1,588 @@
+/*
+ * Copyright (C) 2019 Denis Forveille titou10.titou10@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.titou10.jtb.jms.util;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import javax.jms.JMSException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.titou10.jtb.jms.model.JTBMessage;
+import org.titou10.jtb.jms.model.JTBMessageTemplate;
+import org.titou10.jtb.jms.model.JTBMessageType;
+import org.titou10.jtb.jms.model.JTBProperty;
+import org.titou10.jtb.jms.qm.JMSPropertyKind;
+
+/**
+ * Append-only journal of captured messages, stored on disk in segments
+ * 
+ * Each segment is made of a data file holding the messages (headers, properties and payload) one after the other, and of an index
+ * file holding the offset of each message in the data file (8 bytes per message), so any message can be read back by its position
+ * without keeping anything on heap
+ * 
+ * @author Denis Forveille
+ *
+ */
+public final class MessageJournal {
+
+   private static final Logger         log              = LoggerFactory.getLogger(MessageJournal.class);
+
+   private static final long           MAX_SEGMENT_SIZE = 64L * 1024L * 1024L;
+   private static final String         SEGMENT_DATA     = "segment-%05d.dat";
+   private static final String         SEGMENT_INDEX    = "segment-%05d.idx";
+   private static final byte           FORMAT_VERSION   = 1;
+
+   // Types of the values stored in the journal
+   private static final byte           T_NULL           = 0;
+   private static final byte           T_STRING         = 1;
+   private static final byte           T_BOOLEAN        = 2;
+   private static final byte           T_BYTE           = 3;
+   private static final byte           T_SHORT          = 4;
+   private static final byte           T_INT            = 5;
+   private static final byte           T_LONG           = 6;
+   private static final byte           T_FLOAT          = 7;
+   private static final byte           T_DOUBLE         = 8;
+   private static final byte           T_BYTES          = 9;
+   private static final byte           T_CHAR           = 10;
+   private static final byte           T_SERIALIZABLE   = 11;
+
+   private final Path                  directory;
+   private final List<Segment>         segments         = new ArrayList<>();
+   private final ByteArrayOutputStream recordBuffer     = new ByteArrayOutputStream(4096);
+
+   private DataOutputStream            dataOut;
+   private DataOutputStream            indexOut;
+   private long                        dataPosition;
+   private long                        nbRecords;
+   private long                        nbRecordsFlushed;
+   private long                        totalBytes;
+   private boolean                     recording;
+
+   // Readers working in the background retain the journal, so that it is not deleted while they read it
+   private int                         nbReaders;
+   private boolean                     deleted;
+
+   // ------------
+   // Constructors
+   // ------------
+
+   private MessageJournal(Path directory) {
+      this.directory = directory;
+   }
+
+   public static MessageJournal create(Path directory) throws IOException {
+      log.debug("Create journal in {}", directory);
+
+      Files.createDirectories(directory);
+      MessageJournal journal = new MessageJournal(directory);
+      journal.openNewSegment();
+      journal.recording = true;
+      return journal;
+   }
+
+   // --------
+   // Business
+   // --------
+
+   // Record a message. Returns its position in the journal
+   public synchronized long append(JTBMessage jtbMessage) throws JMSException, IOException {
+      if (!recording) {
+         throw new IllegalStateException("The journal is not recording");
+      }
+
+      recordBuffer.reset();
+      writeTemplate(new DataOutputStream(recordBuffer), new JTBMessageTemplate(jtbMessage));
+      int recordSize = recordBuffer.size();
+
+      if ((dataPosition > 0) && (dataPosition + recordSize + 4 > MAX_SEGMENT_SIZE)) {
+         closeWriters();
+         openNewSegment();
+      }
+
+      indexOut.writeLong(dataPosition);
+      dataOut.writeInt(recordSize);
+      recordBuffer.writeTo(dataOut);
+
+      dataPosition += recordSize + 4;
+      totalBytes += recordSize + 4 + 8;
+      return nbRecords++;
+   }
+
+   // Read "count" messages starting at position "first" (0 = oldest message)
+   // Only the state of the journal is read under the lock: the disk reads do not block append() on the JMS listener thread
+   public List<JTBMessageTemplate> read(long first, int count) throws IOException {
+      long last;
+      List<Segment> segmentsToRead;
+      synchronized (this) {
+         last = Math.min(nbRecords, first + count);
+         if ((recording) && (last > nbRecordsFlushed)) {
+            dataOut.flush();
+            indexOut.flush();
+            nbRecordsFlushed = nbRecords;
+         }
+         segmentsToRead = new ArrayList<>(segments);
+      }
+
+      List<JTBMessageTemplate> res = new ArrayList<>((int) Math.max(0, last - first));
+
+      ByteBuffer header = ByteBuffer.allocate(8);
+      for (long i = Math.max(0, first); i < last; i++) {
+         Segment segment = findSegment(segmentsToRead, i);
+
+         header.clear().limit(8);
+         readFully(segment.getIndexChannel(), header, (i - segment.firstRecord) * 8);
+         long offset = header.getLong(0);
+
+         header.clear().limit(4);
+         readFully(segment.getDataChannel(), header, offset);
+         ByteBuffer record = ByteBuffer.allocate(header.getInt(0));
+         readFully(segment.getDataChannel(), record, offset + 4);
+
+         res.add(readTemplate(new DataInputStream(new ByteArrayInputStream(record.array()))));
+      }
+      return res;
+   }
+
+   public synchronized void stopRecording() throws IOException {
+      if (recording) {
+         log.debug("Stop recording journal in {}. {} messages recorded", directory, nbRecords);
+         recording = false;
+         closeWriters();
+      }
+   }
+
+   public synchronized void close() {
+      try {
+         stopRecording();
+      } catch (IOException e) {
+         log.warn("Exception occurred when closing journal writers. Ignoring: {}", e.getMessage());
+      }
+      for (Segment segment : segments) {
+         segment.close();
+      }
+   }
+
+   // Close the journal and delete its files, as soon as no reader retains it
+   public synchronized void delete() {
+      deleted = true;
+      if (nbReaders == 0) {
+         close();
+         deleteFiles();
+         return;
+      }
+
+      // The segments are still read: the last reader deletes the files
+      try {
+         stopRecording();
+      } catch (IOException e) {
+         log.warn("Exception occurred when closing journal writers. Ignoring: {}", e.getMessage());
+      }
+   }
+
+   // Called by a reader before reading the journal in the background. Returns false if the journal has been deleted
+   public synchronized boolean retain() {
+      if (deleted) {
+         return false;
+      }
+      nbReaders++;
+      return true;
+   }
+
+   public synchronized void release() {
+      nbReaders--;
+      if ((deleted) && (nbReaders == 0)) {
+         close();
+         deleteFiles();
+      }
+   }
+
+   public synchronized long size() {
+      return nbRecords;
+   }
+
+   public synchronized long getSizeOnDisk() {
+      return totalBytes;
+   }
+
+   public synchronized boolean isRecording() {
+      return recording;
+   }
+
+   public Path getDirectory() {
+      return directory;
+   }
+
+   // -------
+   // Helpers
+   // -------
+
+   private void openNewSegment() throws IOException {
+      int number = segments.size();
+      Segment segment = new Segment(nbRecords,
+                                    directory.resolve(String.format(SEGMENT_DATA, number)),
+                                    directory.resolve(String.format(SEGMENT_INDEX, number)));
+      segments.add(segment);
+
+      dataOut = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(segment.dataFile,
+                                                                                    StandardOpenOption.CREATE_NEW,
+                                                                                    StandardOpenOption.WRITE),
+                                                              65536));
+      indexOut = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(segment.indexFile,
+                                                                                     StandardOpenOption.CREATE_NEW,
+                                                                                     StandardOpenOption.WRITE),
+                                                               8192));
+      dataPosition = 0;
+   }
+
+   private void closeWriters() throws IOException {
+      try {
+         dataOut.close();
+      } finally {
+         indexOut.close();
+      }
+   }
+
+   private void deleteFiles() {
+      log.debug("Delete journal in {}", directory);
+
+      try {
+         for (Segment segment : segments) {
+            segment.close();
+            Files.deleteIfExists(segment.dataFile);
+            Files.deleteIfExists(segment.indexFile);
+         }
+         Files.deleteIfExists(directory);
+      } catch (IOException e) {
+         log.warn("Exception occurred when deleting journal {}. Ignoring: {}", directory, e.getMessage());
+      }
+   }
+
+   private static Segment findSegment(List<Segment> segments, long position) {
+      for (int i = segments.size() - 1; i > 0; i--) {
+         Segment segment = segments.get(i);
+         if (segment.firstRecord <= position) {
+            return segment;
+         }
+      }
+      return segments.get(0);
+   }
+
+   private static void readFully(FileChannel channel, ByteBuffer bb, long position) throws IOException {
+      long pos = position;
+      while (bb.hasRemaining()) {
+         int n = channel.read(bb, pos);
+         if (n < 0) {
+            throw new EOFException("Unexpected end of journal file at position " + pos);
+         }
+         pos += n;
+      }
+   }
+
+   // Messages
+
+   private static void writeTemplate(DataOutputStream out, JTBMessageTemplate t) throws IOException {
+      out.writeByte(FORMAT_VERSION);
+      out.writeByte(t.getJtbMessageType().ordinal());
+
+      writeValue(out, t.getJmsMessageID());
+      writeValue(out, t.getJmsCorrelationID());
+      writeValue(out, t.getJmsType());
+      writeValue(out, t.getReplyToDestinationName());
+      writeValue(out, t.getJmsTimestamp());
+      writeValue(out, t.getJmsDeliveryTime());
+      writeValue(out, t.getJmsExpiration());
+      writeValue(out, t.getDeliveryMode() == null ? null : t.getDeliveryMode().intValue());
+      writeValue(out, t.getPriority());
+      writeValue(out, t.getTimeToLive());
+      writeValue(out, t.getDeliveryDelay());
+
+      switch (t.getJtbMessageType()) {
+         case TEXT:
+            writeValue(out, t.getPayloadText());
+            break;
+         case BYTES:
+            writeValue(out, t.getPayloadBytes());
+            break;
+         case MAP:
+            Map<String, Object> map = t.getPayloadMap();
+            out.writeInt(map == null ? -1 : map.size());
+            if (map != null) {
+               for (Entry<String, Object> e : map.entrySet()) {
+                  writeString(out, e.getKey());
+                  writeValue(out, e.getValue());
+               }
+            }
+            break;
+         case OBJECT:
+            writeValue(out, t.getPayloadObject());
+            break;
+         default:
+            break;
+      }
+
+      List<JTBProperty> jtbProperties = t.getJtbProperties();
+      out.writeInt(jtbProperties == null ? -1 : jtbProperties.size());
+      if (jtbProperties != null) {
+         for (JTBProperty jtbProperty : jtbProperties) {
+            writeString(out, jtbProperty.getName());
+            writeString(out, jtbProperty.getKind() == null ? null : jtbProperty.getKind().name());
+            writeValue(out, jtbProperty.getValue());
+         }
+      }
+   }
+
+   private static JTBMessageTemplate readTemplate(DataInputStream in) throws IOException {
+      byte version = in.readByte();
+      if (version != FORMAT_VERSION) {
+         throw new IOException("Unsupported journal format version: " + version);
+      }
+
+      JTBMessageTemplate t = new JTBMessageTemplate();
+      t.setJtbMessageType(JTBMessageType.values()[in.readByte()]);
+
+      t.setJmsMessageID((String) readValue(in));
+      t.setJmsCorrelationID((String) readValue(in));
+      t.setJmsType((String) readValue(in));
+      t.setReplyToDestinationName((String) readValue(in));
+      t.setJmsTimestamp((Long) readValue(in));
+      t.setJmsDeliveryTime((Long) readValue(in));
+      t.setJmsExpiration((Long) readValue(in));
+      t.setDeliveryMode(JTBDeliveryMode.fromValue((Integer) readValue(in)));
+      t.setPriority((Integer) readValue(in));
+      t.setTimeToLive((Long) readValue(in));
+      t.setDeliveryDelay((Long) readValue(in));
+
+      switch (t.getJtbMessageType()) {
+         case TEXT:
+            t.setPayloadText((String) readValue(in));
+            break;
+         case BYTES:
+            t.setPayloadBytes((byte[]) readValue(in));
+            break;
+         case MAP:
+            int nbEntries = in.readInt();
+            if (nbEntries >= 0) {
+               Map<String, Object> map = new HashMap<>(nbEntries * 2);
+               for (int i = 0; i < nbEntries; i++) {
+                  map.put(readString(in), readValue(in));
+               }
+               t.setPayloadMap(map);
+            }
+            break;
+         case OBJECT:
+            t.setPayloadObject((Serializable) readValue(in));
+            break;
+         default:
+            break;
+      }
+
+      int nbProperties = in.readInt();
+      if (nbProperties >= 0) {
+         List<JTBProperty> jtbProperties = new ArrayList<>(nbProperties);
+         for (int i = 0; i < nbProperties; i++) {
+            String name = readString(in);
+            String kind = readString(in);
+            Object value = readValue(in);
+            jtbProperties.add(new JTBProperty(name, value, kind == null ? null : JMSPropertyKind.valueOf(kind)));
+         }
+         t.setJtbProperties(jtbProperties);
+      }
+
+      return t;
+   }
+
+   // Values
+
+   private static void writeString(DataOutputStream out, String s) throws IOException {
+      if (s == null) {
+         out.writeInt(-1);
+         return;
+      }
+      byte[] b = s.getBytes(StandardCharsets.UTF_8);
+      out.writeInt(b.length);
+      out.write(b);
+   }
+
+   private static String readString(DataInputStream in) throws IOException {
+      int length = in.readInt();
+      if (length < 0) {
+         return null;
+      }
+      byte[] b = new byte[length];
+      in.readFully(b);
+      return new String(b, StandardCharsets.UTF_8);
+   }
+
+   private static void writeValue(DataOutputStream out, Object value) throws IOException {
+      if (value == null) {
+         out.writeByte(T_NULL);
+      } else if (value instanceof String) {
+         out.writeByte(T_STRING);
+         writeString(out, (String) value);
+      } else if (value instanceof Boolean) {
+         out.writeByte(T_BOOLEAN);
+         out.writeBoolean((Boolean) value);
+      } else if (value instanceof Byte) {
+         out.writeByte(T_BYTE);
+         out.writeByte((Byte) value);
+      } else if (value instanceof Short) {
+         out.writeByte(T_SHORT);
+         out.writeShort((Short) value);
+      } else if (value instanceof Integer) {
+         out.writeByte(T_INT);
+         out.writeInt((Integer) value);
+      } else if (value instanceof Long) {
+         out.writeByte(T_LONG);
+         out.writeLong((Long) value);
+      } else if (value instanceof Float) {
+         out.writeByte(T_FLOAT);
+         out.writeFloat((Float) value);
+      } else if (value instanceof Double) {
+         out.writeByte(T_DOUBLE);
+         out.writeDouble((Double) value);
+      } else if (value instanceof byte[]) {
+         byte[] b = (byte[]) value;
+         out.writeByte(T_BYTES);
+         out.writeInt(b.length);
+         out.write(b);
+      } else if (value instanceof Character) {
+         out.writeByte(T_CHAR);
+         out.writeChar((Character) value);
+      } else if (value instanceof Serializable) {
+         ByteArrayOutputStream baos = new ByteArrayOutputStream();
+         try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+            oos.writeObject(value);
+         }
+         out.writeByte(T_SERIALIZABLE);
+         out.writeInt(baos.size());
+         baos.writeTo(out);
+      } else {
+         out.writeByte(T_STRING);
+         writeString(out, value.toString());
+      }
+   }
+
+   private static Object readValue(DataInputStream in) throws IOException {
+      byte type = in.readByte();
+      switch (type) {
+         case T_NULL:
+            return null;
+         case T_STRING:
+            return readString(in);
+         case T_BOOLEAN:
+            return in.readBoolean();
+         case T_BYTE:
+            return in.readByte();
+         case T_SHORT:
+            return in.readShort();
+         case T_INT:
+            return in.readInt();
+         case T_LONG:
+            return in.readLong();
+         case T_FLOAT:
+            return in.readFloat();
+         case T_DOUBLE:
+            return in.readDouble();
+         case T_BYTES:
+            byte[] b = new byte[in.readInt()];
+            in.readFully(b);
+            return b;
+         case T_CHAR:
+            return in.readChar();
+         case T_SERIALIZABLE:
+            byte[] o = new byte[in.readInt()];
+            in.readFully(o);
+            try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(o))) {
+               return ois.readObject();
+            } catch (ClassNotFoundException e) {
+               throw new IOException("Class not found when reading a serialized object from the journal", e);
+            }
+         default:
+            throw new IOException("Unknown value type in journal: " + type);
+      }
+   }
+
+   // --------------
+   // Helper Classes
+   // --------------
+
+   // The channels are opened on first read and may be used by several readers at the same time
+   private static final class Segment {
+      private final long  firstRecord;
+      private final Path  dataFile;
+      private final Path  indexFile;
+
+      private FileChannel dataChannel;
+      private FileChannel indexChannel;
+
+      private Segment(long firstRecord, Path dataFile, Path indexFile) {
+         this.firstRecord = firstRecord;
+         this.dataFile = dataFile;
+         this.indexFile = indexFile;
+      }
+
+      private synchronized FileChannel getDataChannel() throws IOException {
+         if (dataChannel == null) {
+            dataChannel = FileChannel.open(dataFile, StandardOpenOption.READ);
+         }
+         return dataChannel;
+      }
+
+      private synchronized FileChannel getIndexChannel() throws IOException {
+         if (indexChannel == null) {
+            indexChannel = FileChannel.open(indexFile, StandardOpenOption.READ);
+         }
+         return indexChannel;
+      }
+
+      private synchronized void close() {
+         try {
+            if (dataChannel != null) {
+               dataChannel.close();
+            }
+            if (indexChannel != null) {
+               indexChannel.close();
+            }
+         } catch (IOException e) {
+            log.warn("Exception occurred when closing journal segment. Ignoring: {}", e.getMessage());
+         }
+         dataChannel = null;
+         indexChannel = null;
+      }
+   }
+}
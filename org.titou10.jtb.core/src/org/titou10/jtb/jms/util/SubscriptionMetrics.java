@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2019 Denis Forveille titou10.titou10@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.titou10.jtb.jms.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.titou10.jtb.util.LatencyHistogram;
+
+/**
+ * Throughput and latency metrics of a topic subscription
+ * 
+ * Rates are computed over the last RATE_SECONDS complete seconds, from per-second counters kept in a small ring.<br>
+ * Publish-to-receive latencies (reception time - JMSTimestamp) are kept in a {@link LatencyHistogram}, so recording a message
+ * does not allocate anything
+ * 
+ * Updated by the thread delivering the messages, read by any thread
+ * 
+ * @author Denis Forveille
+ *
+ */
+public final class SubscriptionMetrics {
+
+   private static final int       RATE_SECONDS    = 5;
+   private static final int       NB_SECONDS      = RATE_SECONDS + 2;
+
+   private final long             startTime       = System.currentTimeMillis();
+
+   private final AtomicLong       nbMessages      = new AtomicLong();
+   private final AtomicLong       nbBytes         = new AtomicLong();
+
+   // Per second counters
+   private final AtomicLongArray  seconds         = new AtomicLongArray(NB_SECONDS);
+   private final AtomicLongArray  secondsMessages = new AtomicLongArray(NB_SECONDS);
+   private final AtomicLongArray  secondsBytes    = new AtomicLongArray(NB_SECONDS);
+
+   // Latencies, in ns. Guarded by itself
+   private final LatencyHistogram latencies       = new LatencyHistogram();
+
+   // --------
+   // Business
+   // --------
+
+   public void record(long payloadSize, long jmsTimestamp) {
+      long now = System.currentTimeMillis();
+
+      nbMessages.incrementAndGet();
+      nbBytes.addAndGet(payloadSize);
+
+      long second = now / 1000;
+      int i = (int) (second % NB_SECONDS);
+      if (seconds.get(i) != second) {
+         synchronized (this) {
+            if (seconds.get(i) != second) {
+               secondsMessages.set(i, 0);
+               secondsBytes.set(i, 0);
+               seconds.set(i, second);
+            }
+         }
+      }
+      secondsMessages.incrementAndGet(i);
+      secondsBytes.addAndGet(i, payloadSize);
+
+      // JMSTimestamp is optional
+      if (jmsTimestamp > 0) {
+         long latency = TimeUnit.MILLISECONDS.toNanos(Math.max(0, now - jmsTimestamp));
+         synchronized (latencies) {
+            latencies.record(latency);
+         }
+      }
+   }
+
+   public double getMessagesPerSecond() {
+      return computeRate(secondsMessages);
+   }
+
+   public double getBytesPerSecond() {
+      return computeRate(secondsBytes);
+   }
+
+   // Latency in ms under which "percentile" (0-100) % of the messages have been received, -1 if unknown
+   public long getLatencyPercentile(double percentile) {
+      synchronized (latencies) {
+         if (latencies.getCount() == 0) {
+            return -1;
+         }
+         return TimeUnit.NANOSECONDS.toMillis(latencies.getValueAtPercentile(percentile));
+      }
+   }
+
+   @Override
+   public String toString() {
+      StringBuilder builder = new StringBuilder(256);
+      builder.append("SubscriptionMetrics [nbMessages=");
+      builder.append(nbMessages);
+      builder.append(", nbBytes=");
+      builder.append(nbBytes);
+      builder.append(", msgs/s=");
+      builder.append(String.format("%.1f", getMessagesPerSecond()));
+      builder.append(", bytes/s=");
+      builder.append(String.format("%.0f", getBytesPerSecond()));
+      builder.append(", latency p50=");
+      builder.append(getLatencyPercentile(50));
+      builder.append(" p99=");
+      builder.append(getLatencyPercentile(99));
+      builder.append(" max=");
+      builder.append(getMaxLatency());
+      builder.append("]");
+      return builder.toString();
+   }
+
+   // -------
+   // Helpers
+   // -------
+
+   // Average over the last RATE_SECONDS complete seconds, or since the start of the subscription if more recent
+   private double computeRate(AtomicLongArray counters) {
+      long now = System.currentTimeMillis();
+      long currentSecond = now / 1000;
+      long sum = 0;
+      for (long second = currentSecond - RATE_SECONDS; second < currentSecond; second++) {
+         int i = (int) (second % NB_SECONDS);
+         if (seconds.get(i) == second) {
+            sum += counters.get(i);
+         }
+      }
+      long elapsedSeconds = currentSecond - (startTime / 1000);
+      long nbSeconds = Math.max(1, Math.min(RATE_SECONDS, elapsedSeconds));
+      return (double) sum / nbSeconds;
+   }
+
+   // ------------------------
+   // Standard Getters/Setters
+   // ------------------------
+
+   public long getStartTime() {
+      return startTime;
+   }
+
+   public long getNbMessages() {
+      return nbMessages.get();
+   }
+
+   public long getNbBytes() {
+      return nbBytes.get();
+   }
+
+   public long getNbLatencies() {
+      synchronized (latencies) {
+         return latencies.getCount();
+      }
+   }
+
+   // Max latency in ms, -1 if unknown
+   public long getMaxLatency() {
+      synchronized (latencies) {
+         return latencies.getCount() == 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(latencies.getMax());
+      }
+   }
+
+}
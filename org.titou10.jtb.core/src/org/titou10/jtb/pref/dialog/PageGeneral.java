@@ -66,10 +66,15 @@ final class PageGeneral extends PreferencePage {
    private Button              autoResizeColumnsWidth;
    private Button              editMessageOnDragAndDrop;
    private Button              showNonBrowsableQueue;
+   private Spinner             spinnerQDepthParallelism;
+   private Spinner             spinnerQDepthBrowseInterval;
    private Button              trustAllCertificates;
    private Button              clearScriptLogsOnExecution;
+   private Button              memoryMapDataFiles;
    private Spinner             spinnerMaxMessagesTopic;
+   private Spinner             spinnerMaxMBTopic;
    private Text                textConnectionClientId;
+   private Spinner             spinnerConnectionTimeout;
    private Spinner             spinnerXMLindent;
    private Button              synchronizeSessionBrowser;
    private Combo               comboMessageTabDisplay;
@@ -152,6 +157,19 @@ final class PageGeneral extends PreferencePage {
       Label lbl10 = new Label(gBrowser, SWT.LEFT);
       lbl10.setText("messages (0 = no limit)");
 
+      Label lbl5 = new Label(gBrowser, SWT.LEFT);
+      lbl5.setText("Limit payload captured per topic subscription to");
+      lbl5.setLayoutData(new GridData(SWT.RIGHT, SWT.CENTER, false, false, 1, 1));
+      spinnerMaxMBTopic = new Spinner(gBrowser, SWT.BORDER);
+      spinnerMaxMBTopic.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, false, false, 1, 1));
+      spinnerMaxMBTopic.setMinimum(0);
+      spinnerMaxMBTopic.setMaximum(9999);
+      spinnerMaxMBTopic.setIncrement(1);
+      spinnerMaxMBTopic.setPageIncrement(16);
+      spinnerMaxMBTopic.setTextLimit(4);
+      Label lbl6 = new Label(gBrowser, SWT.LEFT);
+      lbl6.setText("MB (0 = no limit)");
+
       Label lbl24 = new Label(gBrowser, SWT.LEFT);
       lbl24.setLayoutData(new GridData(SWT.RIGHT, SWT.CENTER, false, false, 1, 1));
       lbl24.setText("Default Columns Set:");
@@ -173,10 +191,38 @@ final class PageGeneral extends PreferencePage {
       Group qQDepth = new Group(composite, SWT.SHADOW_ETCHED_IN);
       qQDepth.setLayoutData(new GridData(SWT.LEFT, SWT.CENTER, true, false, 1, 1));
       qQDepth.setText("Queue depth browsers");
-      qQDepth.setLayout(new GridLayout(1, false));
+      qQDepth.setLayout(new GridLayout(3, false));
 
       showNonBrowsableQueue = new Button(qQDepth, SWT.CHECK);
       showNonBrowsableQueue.setText("Show 'non browsable' queues in the 'Queue depth' browser");
+      showNonBrowsableQueue.setLayoutData(new GridData(SWT.LEFT, SWT.CENTER, true, false, 3, 1));
+
+      Label lbl25 = new Label(qQDepth, SWT.LEFT);
+      lbl25.setText("Collect queue data with up to");
+      lbl25.setLayoutData(new GridData(SWT.RIGHT, SWT.CENTER, false, false, 1, 1));
+      spinnerQDepthParallelism = new Spinner(qQDepth, SWT.BORDER);
+      spinnerQDepthParallelism.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, false, false, 1, 1));
+      spinnerQDepthParallelism.setMinimum(1);
+      spinnerQDepthParallelism.setMaximum(32);
+      spinnerQDepthParallelism.setIncrement(1);
+      spinnerQDepthParallelism.setPageIncrement(4);
+      spinnerQDepthParallelism.setTextLimit(2);
+      Label lbl26 = new Label(qQDepth, SWT.LEFT);
+      lbl26.setText("parallel requests per session");
+
+      Label lbl27 = new Label(qQDepth, SWT.LEFT);
+      lbl27.setText("Browse a queue to get its first message at most every");
+      lbl27.setLayoutData(new GridData(SWT.RIGHT, SWT.CENTER, false, false, 1, 1));
+      spinnerQDepthBrowseInterval = new Spinner(qQDepth, SWT.BORDER);
+      spinnerQDepthBrowseInterval.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, false, false, 1, 1));
+      spinnerQDepthBrowseInterval.setToolTipText("Only for Q providers that can not tell the age of the oldest message of a queue");
+      spinnerQDepthBrowseInterval.setMinimum(0);
+      spinnerQDepthBrowseInterval.setMaximum(3600);
+      spinnerQDepthBrowseInterval.setIncrement(1);
+      spinnerQDepthBrowseInterval.setPageIncrement(30);
+      spinnerQDepthBrowseInterval.setTextLimit(4);
+      Label lbl28 = new Label(qQDepth, SWT.LEFT);
+      lbl28.setText("seconds (0 = on each refresh)");
 
       // Message Viewer
 
@@ -230,21 +276,36 @@ final class PageGeneral extends PreferencePage {
       clearScriptLogsOnExecution = new Button(gScripts, SWT.CHECK);
       clearScriptLogsOnExecution.setText("Clear scripts logs before execution/simulation");
 
+      memoryMapDataFiles = new Button(gScripts, SWT.CHECK);
+      memoryMapDataFiles.setText("Read data files with memory mapping (faster for very large data files)");
+
       // Connection
 
       Group gConnection = new Group(composite, SWT.SHADOW_ETCHED_IN);
       gConnection.setText("Connection");
-      gConnection.setLayout(new GridLayout(2, false));
+      gConnection.setLayout(new GridLayout(3, false));
       gConnection.setLayoutData(new GridData(SWT.LEFT, SWT.LEFT, true, false, 1, 1));
 
       Label lbl11 = new Label(gConnection, SWT.LEFT);
       lbl11.setText("JMS connection 'Client ID' prefix: ");
       textConnectionClientId = new Text(gConnection, SWT.BORDER);
-      textConnectionClientId.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 1, 1));
+      textConnectionClientId.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 2, 1));
+
+      Label lbl29 = new Label(gConnection, SWT.LEFT);
+      lbl29.setText("Give up connecting to a session after: ");
+      spinnerConnectionTimeout = new Spinner(gConnection, SWT.BORDER);
+      spinnerConnectionTimeout.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, false, false, 1, 1));
+      spinnerConnectionTimeout.setMinimum(0);
+      spinnerConnectionTimeout.setMaximum(3600);
+      spinnerConnectionTimeout.setIncrement(1);
+      spinnerConnectionTimeout.setPageIncrement(10);
+      spinnerConnectionTimeout.setTextLimit(4);
+      Label lbl30 = new Label(gConnection, SWT.LEFT);
+      lbl30.setText("seconds (0 = no timeout)");
 
       trustAllCertificates = new Button(gConnection, SWT.CHECK);
       trustAllCertificates.setText("Trust all server certificates. Do not check/validate servers certificate authenticity !!!");
-      trustAllCertificates.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 2, 1));
+      trustAllCertificates.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 3, 1));
 
       // Set Values
       spinnerMaxMessages.setSelection(ps.getInt(Constants.PREF_MAX_MESSAGES));
@@ -253,10 +314,15 @@ final class PageGeneral extends PreferencePage {
       autoResizeColumnsWidth.setSelection(ps.getBoolean(Constants.PREF_AUTO_RESIZE_COLS_BROWSER));
       editMessageOnDragAndDrop.setSelection(ps.getBoolean(Constants.PREF_EDIT_MESSAGE_DND));
       showNonBrowsableQueue.setSelection(ps.getBoolean(Constants.PREF_SHOW_NON_BROWSABLE_Q));
+      spinnerQDepthParallelism.setSelection(ps.getInt(Constants.PREF_Q_DEPTH_PARALLELISM));
+      spinnerQDepthBrowseInterval.setSelection(ps.getInt(Constants.PREF_Q_DEPTH_BROWSE_INTERVAL));
       trustAllCertificates.setSelection(ps.getBoolean(Constants.PREF_TRUST_ALL_CERTIFICATES));
       clearScriptLogsOnExecution.setSelection(ps.getBoolean(Constants.PREF_CLEAR_LOGS_EXECUTION));
+      memoryMapDataFiles.setSelection(ps.getBoolean(Constants.PREF_SCRIPT_DATAFILE_MMAP));
       spinnerMaxMessagesTopic.setSelection(ps.getInt(Constants.PREF_MAX_MESSAGES_TOPIC));
+      spinnerMaxMBTopic.setSelection(ps.getInt(Constants.PREF_MAX_MB_TOPIC));
       textConnectionClientId.setText(ps.getString(Constants.PREF_CONN_CLIENT_ID_PREFIX));
+      spinnerConnectionTimeout.setSelection(ps.getInt(Constants.PREF_CONN_TIMEOUT));
       spinnerXMLindent.setSelection(ps.getInt(Constants.PREF_XML_INDENT));
       synchronizeSessionBrowser.setSelection(ps.getBoolean(Constants.PREF_SYNCHRONIZE_SESSIONS_MESSAGES));
 
@@ -307,10 +373,15 @@ final class PageGeneral extends PreferencePage {
       autoResizeColumnsWidth.setSelection(ps.getDefaultBoolean(Constants.PREF_AUTO_RESIZE_COLS_BROWSER));
       editMessageOnDragAndDrop.setSelection(ps.getDefaultBoolean(Constants.PREF_EDIT_MESSAGE_DND));
       showNonBrowsableQueue.setSelection(ps.getDefaultBoolean(Constants.PREF_SHOW_NON_BROWSABLE_Q));
+      spinnerQDepthParallelism.setSelection(ps.getDefaultInt(Constants.PREF_Q_DEPTH_PARALLELISM));
+      spinnerQDepthBrowseInterval.setSelection(ps.getDefaultInt(Constants.PREF_Q_DEPTH_BROWSE_INTERVAL));
       trustAllCertificates.setSelection(ps.getDefaultBoolean(Constants.PREF_TRUST_ALL_CERTIFICATES));
       clearScriptLogsOnExecution.setSelection(ps.getDefaultBoolean(Constants.PREF_CLEAR_LOGS_EXECUTION));
+      memoryMapDataFiles.setSelection(ps.getDefaultBoolean(Constants.PREF_SCRIPT_DATAFILE_MMAP));
       spinnerMaxMessagesTopic.setSelection(ps.getDefaultInt(Constants.PREF_MAX_MESSAGES_TOPIC));
+      spinnerMaxMBTopic.setSelection(ps.getDefaultInt(Constants.PREF_MAX_MB_TOPIC));
       textConnectionClientId.setText(ps.getDefaultString(Constants.PREF_CONN_CLIENT_ID_PREFIX));
+      spinnerConnectionTimeout.setSelection(ps.getDefaultInt(Constants.PREF_CONN_TIMEOUT));
       spinnerXMLindent.setSelection(ps.getDefaultInt(Constants.PREF_XML_INDENT));
       synchronizeSessionBrowser.setSelection(ps.getDefaultBoolean(Constants.PREF_SYNCHRONIZE_SESSIONS_MESSAGES));
 
@@ -337,10 +408,15 @@ final class PageGeneral extends PreferencePage {
       ps.setValue(Constants.PREF_AUTO_RESIZE_COLS_BROWSER, autoResizeColumnsWidth.getSelection());
       ps.setValue(Constants.PREF_EDIT_MESSAGE_DND, editMessageOnDragAndDrop.getSelection());
       ps.setValue(Constants.PREF_SHOW_NON_BROWSABLE_Q, showNonBrowsableQueue.getSelection());
+      ps.setValue(Constants.PREF_Q_DEPTH_PARALLELISM, spinnerQDepthParallelism.getSelection());
+      ps.setValue(Constants.PREF_Q_DEPTH_BROWSE_INTERVAL, spinnerQDepthBrowseInterval.getSelection());
       ps.setValue(Constants.PREF_TRUST_ALL_CERTIFICATES, trustAllCertificates.getSelection());
       ps.setValue(Constants.PREF_CLEAR_LOGS_EXECUTION, clearScriptLogsOnExecution.getSelection());
+      ps.setValue(Constants.PREF_SCRIPT_DATAFILE_MMAP, memoryMapDataFiles.getSelection());
       ps.setValue(Constants.PREF_MAX_MESSAGES_TOPIC, spinnerMaxMessagesTopic.getSelection());
+      ps.setValue(Constants.PREF_MAX_MB_TOPIC, spinnerMaxMBTopic.getSelection());
       ps.setValue(Constants.PREF_CONN_CLIENT_ID_PREFIX, textConnectionClientId.getText());
+      ps.setValue(Constants.PREF_CONN_TIMEOUT, spinnerConnectionTimeout.getSelection());
       ps.setValue(Constants.PREF_XML_INDENT, spinnerXMLindent.getSelection());
       ps.setValue(Constants.PREF_SYNCHRONIZE_SESSIONS_MESSAGES, synchronizeSessionBrowser.getSelection());
 
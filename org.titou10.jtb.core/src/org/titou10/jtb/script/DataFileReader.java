@@ -0,0 +1,258 @@
+/*
+ * Copyright (C) 2019 Denis Forveille titou10.titou10@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.titou10.jtb.script;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single pass, streaming reader of the records of a data file
+ * 
+ * Fields are separated by a delimiter of one or more characters. A field starting with a double quote is quoted: it ends
+ * with the next double quote not followed by another one, may contain delimiters and line breaks, and "" stands for one
+ * double quote. Records are separated by CR, LF or CR+LF
+ * 
+ * The file may be read through a channel or, for large files, by memory mapped windows
+ * 
+ * @author Denis Forveille
+ *
+ */
+final class DataFileReader implements Closeable {
+
+   private static final int      BUFFER_SIZE  = 64 * 1024;
+   private static final int      MMAP_WINDOW  = 64 * 1024 * 1024;
+
+   private static final char     QUOTE        = '"';
+   private static final char     CR           = '\r';
+   private static final char     LF           = '\n';
+
+   private static final String[] EMPTY_RECORD = new String[0];
+
+   private final FileChannel     channel;
+   private final long            size;
+   private final boolean         memoryMapped;
+   private final CharsetDecoder  decoder;
+   private final char[]          delimiter;
+   private final char            delimiterLast;
+
+   private ByteBuffer            bytes;
+   private long                  windowPosition;                                 // Memory mapped: position of the current window in the file
+   private boolean               endOfBytes;
+   private final CharBuffer      chars        = CharBuffer.allocate(BUFFER_SIZE);
+   private boolean               endOfChars;
+
+   private final StringBuilder   field        = new StringBuilder(256);
+   private final List<String>    fields       = new ArrayList<>();
+   private boolean               skipLF;
+
+   // -----------
+   // Constructor
+   // -----------
+   DataFileReader(Path path, Charset charset, String delimiter, boolean memoryMapped) throws IOException {
+      this.channel = FileChannel.open(path, StandardOpenOption.READ);
+      this.size = channel.size();
+      this.memoryMapped = memoryMapped;
+      this.decoder = charset.newDecoder();
+      this.delimiter = delimiter.toCharArray();
+      this.delimiterLast = this.delimiter[this.delimiter.length - 1];
+
+      if (memoryMapped) {
+         this.bytes = ByteBuffer.allocate(0);
+      } else {
+         this.bytes = ByteBuffer.allocateDirect(BUFFER_SIZE);
+         this.bytes.flip();
+      }
+      this.chars.flip();
+   }
+
+   // -------
+   // Methods
+   // -------
+
+   /**
+    * @return the fields of the next record, or null at the end of the file
+    */
+   String[] readRecord() throws IOException {
+      fields.clear();
+      field.setLength(0);
+
+      int c = nextChar();
+      if (skipLF) {
+         skipLF = false;
+         if (c == LF) {
+            c = nextChar();
+         }
+      }
+      if (c < 0) {
+         return null;
+      }
+
+      boolean fieldStart = true;
+      int quotedLength = 0;
+      while (true) {
+
+         // Quoted field
+         if (fieldStart) {
+            fieldStart = false;
+            if (c == QUOTE) {
+               while (true) {
+                  c = nextChar();
+                  if (c < 0) {
+                     break;
+                  }
+                  if (c == QUOTE) {
+                     c = nextChar();
+                     if (c != QUOTE) {
+                        break;
+                     }
+                  }
+                  field.append((char) c);
+               }
+               // Characters after the closing quote are kept, up to the next delimiter or end of record
+               quotedLength = field.length();
+            }
+         }
+
+         if ((c < 0) || (c == LF)) {
+            fields.add(field.toString());
+            break;
+         }
+         if (c == CR) {
+            fields.add(field.toString());
+            skipLF = true;
+            break;
+         }
+
+         field.append((char) c);
+         if ((c == delimiterLast) && (endsWithDelimiter(quotedLength))) {
+            field.setLength(field.length() - delimiter.length);
+            fields.add(field.toString());
+            field.setLength(0);
+            fieldStart = true;
+            quotedLength = 0;
+         }
+
+         c = nextChar();
+      }
+
+      return fields.toArray(EMPTY_RECORD);
+   }
+
+   /**
+    * @return the number of bytes of the file read so far, to estimate the progress
+    */
+   long getBytesRead() {
+      if (memoryMapped) {
+         return windowPosition + bytes.position();
+      }
+      try {
+         return channel.position() - bytes.remaining();
+      } catch (IOException e) {
+         return 0;
+      }
+   }
+
+   long getSize() {
+      return size;
+   }
+
+   @Override
+   public void close() throws IOException {
+      channel.close();
+   }
+
+   // -------
+   // Helpers
+   // -------
+
+   // The delimiter can not overlap the content of a quoted field
+   private boolean endsWithDelimiter(int quotedLength) {
+      int offset = field.length() - delimiter.length;
+      if (offset < quotedLength) {
+         return false;
+      }
+      for (int i = 0; i < delimiter.length; i++) {
+         if (field.charAt(offset + i) != delimiter[i]) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   private int nextChar() throws IOException {
+      if ((!chars.hasRemaining()) && (!fillChars())) {
+         return -1;
+      }
+      return chars.get();
+   }
+
+   private boolean fillChars() throws IOException {
+      if (endOfChars) {
+         return false;
+      }
+
+      chars.clear();
+      while (true) {
+         CoderResult cr = decoder.decode(bytes, chars, endOfBytes);
+         if (cr.isError()) {
+            cr.throwException();
+         }
+         if (chars.position() > 0) {
+            break;
+         }
+         if (endOfBytes) {
+            decoder.flush(chars);
+            endOfChars = true;
+            break;
+         }
+         if (!readBytes()) {
+            endOfBytes = true;
+         }
+      }
+      chars.flip();
+      return chars.hasRemaining();
+   }
+
+   private boolean readBytes() throws IOException {
+      if (memoryMapped) {
+         // The next window starts with the bytes not decoded yet (partial multi-bytes character)
+         long next = windowPosition + bytes.position();
+         if (next >= size) {
+            return false;
+         }
+         bytes = channel.map(MapMode.READ_ONLY, next, Math.min(MMAP_WINDOW, size - next));
+         windowPosition = next;
+         return true;
+      }
+
+      bytes.compact();
+      int n = channel.read(bytes);
+      bytes.flip();
+      return n >= 0;
+   }
+}
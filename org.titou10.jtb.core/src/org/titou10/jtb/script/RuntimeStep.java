@@ -45,6 +45,18 @@ public class RuntimeStep {
 
    private String             templateName;
 
+   // Sends the requests of "request/reply" steps, during the execution of the step
+   private StepRequestor      requestor;
+
+   // Posts the messages of load tests, during the execution of the step
+   private StepLoadPoster     loadPoster;
+
+   // Sends the messages of the other "regular" steps, during the execution of the step
+   private StepSender         sender;
+
+   // Set the send time on the messages posted, for the end-to-end latency measured by the "consume" steps of the script
+   private boolean            stampSendTime;
+
    // -----------
    // Constructor
    // -----------
@@ -60,7 +72,19 @@ public class RuntimeStep {
    public String toString() {
       StringBuilder sb = new StringBuilder(256);
 
-      if (step.getKind() == StepKind.REGULAR) {
+      if (step.getKind() == StepKind.CONSUME) {
+         sb.append("Consume ");
+         sb.append(step.getIterations());
+         sb.append(" message(s) from ");
+         sb.append(step.getDestinationName());
+         sb.append(" -> ");
+         sb.append(step.getSessionName());
+         if (step.getSelector() != null) {
+            sb.append(". Selector: '");
+            sb.append(step.getSelector());
+            sb.append("'");
+         }
+      } else if (step.getKind() != StepKind.PAUSE) {
          sb.append("[");
          sb.append(step.getTemplateDirectory());
          sb.append("::");
@@ -77,6 +101,9 @@ public class RuntimeStep {
             sb.append(step.getPayloadDirectory());
             sb.append("'");
          }
+         if (step.getKind() == StepKind.REQUEST_REPLY) {
+            sb.append(". Wait for replies");
+         }
       } else {
          sb.append("Pause for");
          sb.append(step.getPauseSecsAfter());
@@ -146,4 +173,36 @@ public class RuntimeStep {
       return templateName;
    }
 
+   StepRequestor getRequestor() {
+      return requestor;
+   }
+
+   void setRequestor(StepRequestor requestor) {
+      this.requestor = requestor;
+   }
+
+   StepLoadPoster getLoadPoster() {
+      return loadPoster;
+   }
+
+   void setLoadPoster(StepLoadPoster loadPoster) {
+      this.loadPoster = loadPoster;
+   }
+
+   StepSender getSender() {
+      return sender;
+   }
+
+   void setSender(StepSender sender) {
+      this.sender = sender;
+   }
+
+   boolean isStampSendTime() {
+      return stampSendTime;
+   }
+
+   void setStampSendTime(boolean stampSendTime) {
+      this.stampSendTime = stampSendTime;
+   }
+
 }
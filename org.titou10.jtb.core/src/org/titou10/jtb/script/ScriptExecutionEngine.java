@@ -16,9 +16,7 @@
  */
 package org.titou10.jtb.script;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.nio.charset.Charset;
@@ -31,9 +29,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.regex.Pattern;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -70,6 +68,7 @@ import org.titou10.jtb.template.TemplatesManager;
 import org.titou10.jtb.template.TemplatesManager.TemplateNameStructure;
 import org.titou10.jtb.util.Constants;
 import org.titou10.jtb.util.Utils;
+import org.titou10.jtb.variable.CompiledText;
 import org.titou10.jtb.variable.VariablesManager;
 import org.titou10.jtb.variable.gen.Variable;
 
@@ -86,10 +85,21 @@ public class ScriptExecutionEngine {
    private static final Logger log                     = LoggerFactory.getLogger(ScriptExecutionEngine.class);
 
    private static final String VARIABLE_NAME_SEPARATOR = ",";
-   private static final String MAX_MESSAGES_REACHED    = "MAX_MESSAGES_REACHED";
+   static final String         MAX_MESSAGES_REACHED    = "MAX_MESSAGES_REACHED";
    private static final int    NB_TICKS_VALIDATION     = 7;
    private static final int    NB_TICKS_PER_STEP       = 100000;
 
+   // Multi-threaded steps: interval between the refreshes of the progress monitor, in ms
+   private static final long   LOAD_PROGRESS_INTERVAL  = 500;
+
+   // Request/reply steps: defaults for the number of requests waiting for a reply and for the timeout of the replies
+   private static final int    DEFAULT_MAX_IN_FLIGHT   = 1;
+   private static final int    DEFAULT_REPLY_TIMEOUT   = 30;
+
+   // Default values for "consume" steps. The messages of the "regular" steps are also committed every DEFAULT_COMMIT_EVERY messages
+   private static final int    DEFAULT_COMMIT_EVERY    = 100;
+   private static final int    DEFAULT_CONSUME_TIMEOUT = 60;
+
    @Inject
    private IEventBroker        eventBroker;
 
@@ -108,6 +118,9 @@ public class ScriptExecutionEngine {
    @Inject
    private ScriptsManager      scriptsManager;
 
+   @Inject
+   private ScriptExecutionLog  executionLog;
+
    public void executeScript(Script script, final boolean simulation, boolean doShowPostLogs, int nbMessagesMax) {
       log.debug("executeScript '{}'. simulation? {}", script.getName(), simulation);
 
@@ -148,7 +161,10 @@ public class ScriptExecutionEngine {
       }
    }
 
-   public int executeScriptNoUI(String scriptName, final boolean simulation, int nbMessagesMax) throws Exception {
+   public int executeScriptNoUI(String scriptName,
+                                final boolean simulation,
+                                int nbMessagesMax,
+                                List<StepStatistics> stepsStatistics) throws Exception {
       log.info("executeScriptNoUI scriptName '{}' simulation? {} nbMessagesMax {}", scriptName, simulation, nbMessagesMax);
 
       int msgMax = nbMessagesMax == 0 ? Integer.MAX_VALUE : nbMessagesMax;
@@ -162,7 +178,11 @@ public class ScriptExecutionEngine {
 
       // Execute Script
       AtomicInteger nbMessagePost = new AtomicInteger(0);
-      executeScriptInBackground(new NullProgressMonitor(), simulation, false, msgMax, nbMessagePost, script);
+      try {
+         executeScriptInBackground(new NullProgressMonitor(), simulation, false, msgMax, nbMessagePost, stepsStatistics, script);
+      } finally {
+         reportStatistics(stepsStatistics);
+      }
       return nbMessagePost.get();
    }
 
@@ -175,6 +195,7 @@ public class ScriptExecutionEngine {
                                           boolean doShowPostLogs,
                                           int nbMessagesMax,
                                           AtomicInteger nbMessagePost,
+                                          List<StepStatistics> stepsStatistics,
                                           Script script) throws InterruptedException, InvocationTargetException,
                                                          ScriptValidationException {
       log.debug("executeScriptInBackground '{}'. simulation? {}", script.getName(), simulation);
@@ -227,6 +248,7 @@ public class ScriptExecutionEngine {
                break;
 
             case REGULAR:
+            case REQUEST_REPLY:
 
                updateLog(doShowPostLogs,
                          ScriptStepResult.createStepStart(runtimeStep.getTemplateName(),
@@ -236,15 +258,87 @@ public class ScriptExecutionEngine {
                JTBMessageTemplate t = runtimeStep.getJtbMessageTemplate();
                String payload = t.getPayloadText();
                if (payload != null) {
-                  for (Entry<String, String> v : globalVariablesValues.entrySet()) {
-                     payload = payload.replaceAll(variablesManager.buildVariableReplaceName(v.getKey()), v.getValue());
-                  }
-                  t.setPayloadText(payload);
+                  t.setPayloadText(variablesManager.replaceVariables(globalVariablesValues, payload));
+               }
+
+               // Rate, ramp-up and duration of the step
+               StepRatePacer pacer = null;
+               if ((!simulation) && (StepRatePacer.isPaced(step))) {
+                  pacer = new StepRatePacer(step.getRate(), step.getRampUpSecs(), step.getDurationSecs());
                }
 
+               // Request/reply steps send from one thread, with several requests waiting for their reply
+               int nbThreads = ((step.getThreads() == null) || (step.getKind() == StepKind.REQUEST_REPLY)) ? 1 : step.getThreads();
+               Integer targetRate = ((step.getRate() == null) || (step.getRate() == 0)) ? null : step.getRate();
+               StepStatistics stats = new StepStatistics(step.getKind(),
+                                                         runtimeStep.getTemplateName(),
+                                                         runtimeStep.getJtbDestination().getName(),
+                                                         nbThreads,
+                                                         targetRate);
+               stepsStatistics.add(stats);
+
+               int nbMessagesBefore = nbMessagePost.get();
+               long start = System.nanoTime();
                try {
 
-                  executeRegular(subMonitorExecution, simulation, doShowPostLogs, nbMessagesMax, nbMessagePost, runtimeStep);
+                  if ((!simulation) && (step.getKind() == StepKind.REQUEST_REPLY)) {
+                     runtimeStep.setRequestor(StepRequestor.open(runtimeStep.getJtbConnection(),
+                                                                 runtimeStep.getJtbDestination(),
+                                                                 step.getReplyToDestinationName(),
+                                                                 step.getMaxInFlight() == null ? DEFAULT_MAX_IN_FLIGHT
+                                                                          : step.getMaxInFlight(),
+                                                                 step.getTimeoutSecs() == null ? DEFAULT_REPLY_TIMEOUT
+                                                                          : step.getTimeoutSecs()));
+                  }
+
+                  // Load test: the threads post the iterations of all the payloads of the step
+                  if ((!simulation) && (nbThreads > 1)) {
+                     runtimeStep.setLoadPoster(StepLoadPoster.start(runtimeStep,
+                                                                    nbThreads,
+                                                                    nbMessagesMax,
+                                                                    nbMessagePost,
+                                                                    pacer,
+                                                                    stats,
+                                                                    this::buildIterationTemplate));
+                  }
+
+                  // Other steps: the messages are posted from this thread, in a session committed by batches
+                  if ((!simulation) && (runtimeStep.getRequestor() == null) && (runtimeStep.getLoadPoster() == null)) {
+                     runtimeStep.setSender(StepSender.open(runtimeStep.getJtbConnection(),
+                                                           runtimeStep.getJtbDestination(),
+                                                           step.getCommitEvery() == null ? DEFAULT_COMMIT_EVERY
+                                                                    : step.getCommitEvery()));
+                  }
+
+                  if (pacer != null) {
+                     pacer.start();
+                  }
+                  try {
+                     executeRegular(subMonitorExecution,
+                                    simulation,
+                                    doShowPostLogs,
+                                    nbMessagesMax,
+                                    nbMessagePost,
+                                    runtimeStep,
+                                    pacer,
+                                    stats);
+
+                     StepLoadPoster loadPoster = runtimeStep.getLoadPoster();
+                     if (loadPoster != null) {
+                        loadPoster.finish(subMonitorExecution);
+                     }
+                     commitSends(runtimeStep);
+                  } catch (InterruptedException e) {
+                     // Max messages reached or cancelled: the messages already sent are kept, as when they were committed one by one
+                     commitSends(runtimeStep);
+
+                     // Max messages reached: the replies to the requests already sent are still expected
+                     if (MAX_MESSAGES_REACHED.equals(e.getMessage())) {
+                        awaitReplies(subMonitorExecution, runtimeStep);
+                     }
+                     throw e;
+                  }
+                  awaitReplies(subMonitorExecution, runtimeStep);
 
                   updateLog(doShowPostLogs, ScriptStepResult.createStepSuccess());
 
@@ -252,6 +346,79 @@ public class ScriptExecutionEngine {
                   log.error("Exception occurred during step execution ", e);
                   updateLog(doShowPostLogs, ScriptStepResult.createStepFail(runtimeStep.getJtbDestination().getName(), e));
                   throw new InvocationTargetException(e);
+               } finally {
+                  StepLoadPoster loadPoster = runtimeStep.getLoadPoster();
+                  if (loadPoster != null) {
+                     runtimeStep.setLoadPoster(null);
+                     loadPoster.close();
+                  }
+
+                  // On failure, the messages not committed yet are rolled back
+                  StepSender sender = runtimeStep.getSender();
+                  if (sender != null) {
+                     runtimeStep.setSender(null);
+                     sender.close();
+                  }
+
+                  stats.setNbMessages(nbMessagePost.get() - nbMessagesBefore);
+                  stats.setElapsedNanos(System.nanoTime() - start);
+
+                  StepRequestor requestor = runtimeStep.getRequestor();
+                  if (requestor != null) {
+                     runtimeStep.setRequestor(null);
+                     requestor.close();
+                     requestor.addRoundTripLatency(stats.getReceiveLatency());
+                     stats.setNbReceived(requestor.getNbReplies());
+                     stats.setNbTimeouts(requestor.getNbTimeouts());
+                     if (requestor.getNbUnexpected() > 0) {
+                        log.warn("{} replies received after their timeout or without a known JMSCorrelationID",
+                                 requestor.getNbUnexpected());
+                     }
+                  }
+
+                  // Report the throughput of load tests and paced steps
+                  if ((!simulation) && ((nbThreads > 1) || (pacer != null))) {
+                     log.info("{} messages posted to {} by {} threads in {} ms ({} msg/s, target: {} msg/s)",
+                              stats.getNbMessages(),
+                              stats.getDestinationName(),
+                              nbThreads,
+                              stats.getElapsedMillis(),
+                              String.format("%.1f", stats.getAchievedRate()),
+                              targetRate == null ? "none" : targetRate);
+                     updateLog(doShowPostLogs, ScriptStepResult.createStepThroughput(stats));
+                  }
+               }
+               break;
+
+            case CONSUME:
+
+               updateLog(doShowPostLogs,
+                         ScriptStepResult.createConsumeStart(runtimeStep.getJtbDestination().getName(), step.getSelector()));
+
+               StepStatistics consumeStats = new StepStatistics(step.getKind(),
+                                                                null,
+                                                                runtimeStep.getJtbDestination().getName(),
+                                                                1,
+                                                                null);
+               stepsStatistics.add(consumeStats);
+
+               try {
+                  executeConsume(subMonitorExecution, simulation, runtimeStep, consumeStats);
+                  updateLog(doShowPostLogs, ScriptStepResult.createStepSuccess());
+               } catch (JMSException e) {
+                  log.error("Exception occurred during step execution ", e);
+                  updateLog(doShowPostLogs, ScriptStepResult.createStepFail(runtimeStep.getJtbDestination().getName(), e));
+                  throw new InvocationTargetException(e);
+               } finally {
+                  if (!simulation) {
+                     log.info("{}/{} messages consumed from {} in {} ms ({} msg/s)",
+                              consumeStats.getNbReceived(),
+                              step.getIterations(),
+                              consumeStats.getDestinationName(),
+                              consumeStats.getDrainMillis(),
+                              String.format("%.1f", consumeStats.getDrainRate()));
+                     updateLog(doShowPostLogs, ScriptStepResult.createConsumeThroughput(consumeStats));
+                  }
                }
                break;
 
@@ -266,7 +433,9 @@ public class ScriptExecutionEngine {
                                boolean doShowPostLogs,
                                int nbMessagesMax,
                                AtomicInteger nbMessagePost,
-                               RuntimeStep runtimeStep) throws JMSException, InterruptedException, IOException {
+                               RuntimeStep runtimeStep,
+                               StepRatePacer pacer,
+                               StepStatistics stats) throws JMSException, InterruptedException, IOException {
       log.debug("executeRegular. Simulation? {}", simulation);
 
       Map<String, String> dataFileVariables = new HashMap<>();
@@ -277,6 +446,9 @@ public class ScriptExecutionEngine {
       List<File> payloadFiles = runtimeStep.getPayloadFiles();
       String templateName = runtimeStep.getTemplateName();
 
+      // Parse the payload once for all the iterations
+      CompiledText payloadText = variablesManager.compileText(jtbMessageTemplate.getPayloadText());
+
       if (dataFile == null) {
          if (payloadFiles == null) {
             executeRegular2(subMonitor,
@@ -287,8 +459,11 @@ public class ScriptExecutionEngine {
                             nbMessagePost,
                             runtimeStep,
                             jtbMessageTemplate,
+                            payloadText,
                             templateName,
-                            dataFileVariables);
+                            dataFileVariables,
+                            pacer,
+                            stats);
             return;
          }
 
@@ -296,6 +471,10 @@ public class ScriptExecutionEngine {
          int nbTicks = NB_TICKS_PER_STEP / payloadFiles.size();
          log.debug("nbFiles: {} nbTicksPerFile: {}", payloadFiles.size(), nbTicks);
          for (File file : payloadFiles) {
+            if ((pacer != null) && (pacer.isExpired())) {
+               log.debug("Duration of the step elapsed");
+               break;
+            }
             switch (jtbMessageTemplate.getJtbMessageType()) {
                case TEXT:
                   jtbMessageTemplate.setPayloadText(new String(Files.readAllBytes(file.toPath())));
@@ -308,6 +487,7 @@ public class ScriptExecutionEngine {
                default:
                   break;
             }
+            payloadText = variablesManager.compileText(jtbMessageTemplate.getPayloadText());
             executeRegular2(subMonitor,
                             nbTicks,
                             simulation,
@@ -316,8 +496,11 @@ public class ScriptExecutionEngine {
                             nbMessagePost,
                             runtimeStep,
                             jtbMessageTemplate,
+                            payloadText,
                             templateName,
-                            dataFileVariables);
+                            dataFileVariables,
+                            pacer,
+                            stats);
          }
          return;
       }
@@ -334,22 +517,25 @@ public class ScriptExecutionEngine {
          charset = Charset.forName(dataFile.getCharset());
       }
 
-      // Count nbOfLines for progressMonitor
-      int nbLines = 0;
-      try (BufferedReader reader = new BufferedReader(new FileReader(dataFile.getFileName()));) {
-         while (reader.readLine() != null)
-            nbLines++;
-      }
-      int nbTicks = nbLines > NB_TICKS_PER_STEP ? 1 : NB_TICKS_PER_STEP / nbLines;
-      log.debug("nbLines: {} nbTicksPerLine: {}", nbLines, nbTicks);
-
-      try (BufferedReader reader = Files.newBufferedReader(Paths.get(dataFile.getFileName()), charset);) {
-         String line = null;
-         while ((line = reader.readLine()) != null) {
+      // The file is read once, the progress is estimated from the number of bytes read
+      boolean memoryMapped = ps.getBoolean(Constants.PREF_SCRIPT_DATAFILE_MMAP);
+      try (DataFileReader reader = new DataFileReader(Paths.get(dataFile.getFileName()),
+                                                      charset,
+                                                      dataFile.getDelimiter(),
+                                                      memoryMapped);) {
+         long size = reader.getSize();
+         log.debug("Data file size: {} bytes. Memory mapped? {}", size, memoryMapped);
+
+         int ticksDone = 0;
+         String[] values;
+         while ((values = reader.readRecord()) != null) {
+            if ((pacer != null) && (pacer.isExpired())) {
+               log.debug("Duration of the step elapsed");
+               break;
+            }
             dataFileVariables.clear();
 
-            // Parse and setup line Variables
-            String[] values = line.split(Pattern.quote(dataFile.getDelimiter()));
+            // Setup line Variables
             String value;
             for (int i = 0; i < varNames.length; i++) {
                String varName = varNames[i];
@@ -363,15 +549,22 @@ public class ScriptExecutionEngine {
 
             // Execute Step
             executeRegular2(subMonitor,
-                            nbTicks,
+                            0,
                             simulation,
                             doShowPostLogs,
                             nbMessagesMax,
                             nbMessagePost,
                             runtimeStep,
                             jtbMessageTemplate,
+                            payloadText,
                             templateName,
-                            dataFileVariables);
+                            dataFileVariables,
+                            pacer,
+                            stats);
+
+            int ticks = size == 0 ? NB_TICKS_PER_STEP : (int) (NB_TICKS_PER_STEP * reader.getBytesRead() / size);
+            subMonitor.worked(ticks - ticksDone);
+            ticksDone = ticks;
          }
       }
    }
@@ -384,42 +577,68 @@ public class ScriptExecutionEngine {
                                 AtomicInteger nbMessagePost,
                                 RuntimeStep runtimeStep,
                                 JTBMessageTemplate t,
+                                CompiledText payloadText,
                                 String templateName,
-                                Map<String, String> dataFileVariables) throws JMSException, InterruptedException {
+                                Map<String, String> dataFileVariables,
+                                StepRatePacer pacer,
+                                StepStatistics stats) throws JMSException, InterruptedException {
 
       Step step = runtimeStep.getStep();
-      JTBConnection jtbConnection = runtimeStep.getJtbConnection();
       JTBDestination jtbDestination = runtimeStep.getJtbDestination();
 
-      int nbTickWorkePerIteration = step.getIterations() > nbTicks ? 1 : nbTicks / step.getIterations();
+      // Load test: hand the iterations over to the threads of the step
+      StepLoadPoster loadPoster = runtimeStep.getLoadPoster();
+      if (loadPoster != null) {
+         if (!loadPoster.submit(subMonitor, nbTicks, t, payloadText, dataFileVariables, step.getIterations())) {
+            // The threads have stopped: report why
+            loadPoster.finish(subMonitor);
+         }
+         return;
+      }
+
+      int nbTickWorkePerIteration = nbTicks == 0 ? 0 : step.getIterations() > nbTicks ? 1 : nbTicks / step.getIterations();
+      StringBuilder buffer = new StringBuilder(payloadText.hasVariables() ? payloadText.getText().length() + 256 : 0);
 
       for (int i = 0; i < step.getIterations(); i++) {
 
-         JTBMessageTemplate jtbMessageTemplate = JTBMessageTemplate.deepClone(t);
-
-         // If we use a data file, replace the dataFileVariables
-         if (!(dataFileVariables.isEmpty())) {
-            jtbMessageTemplate.setPayloadText(variablesManager.replaceDataFileVariables(dataFileVariables,
-                                                                                        jtbMessageTemplate.getPayloadText()));
+         // Wait for the next send time of the step
+         if ((pacer != null) && (!pacer.acquire())) {
+            log.debug("Duration of the step elapsed");
+            return;
          }
 
-         // Generate local variables for each iteration
-         jtbMessageTemplate.setPayloadText(variablesManager.replaceTemplateVariables(jtbMessageTemplate.getPayloadText()));
+         long startPrepare = System.nanoTime();
+         JTBMessageTemplate jtbMessageTemplate = buildIterationTemplate(t, payloadText, dataFileVariables, buffer);
+         stats.recordPrepare(System.nanoTime() - startPrepare);
 
          updateLog(doShowPostLogs, ScriptStepResult.createPostStart(jtbMessageTemplate, templateName));
 
          // Send Message
          if (!simulation) {
-            Message m = jtbConnection.createJMSMessage(jtbMessageTemplate.getJtbMessageType());
-            JTBMessage jtbMessage = jtbMessageTemplate.toJTBMessage(jtbDestination, m);
-            jtbDestination.getJtbConnection().sendMessage(jtbMessage);
+            StepRequestor requestor = runtimeStep.getRequestor();
+            if (requestor != null) {
+               requestor.awaitSlot();
+            }
+            long startSend = System.nanoTime();
+            if (requestor == null) {
+               StepSender sender = runtimeStep.getSender();
+               Message m = sender.createJMSMessage(jtbMessageTemplate.getJtbMessageType());
+               JTBMessage jtbMessage = jtbMessageTemplate.toJTBMessage(jtbDestination, m);
+               stampSendTime(runtimeStep, m);
+               sender.send(jtbMessage);
+            } else {
+               Message m = requestor.createJMSMessage(jtbMessageTemplate.getJtbMessageType());
+               JTBMessage jtbMessage = jtbMessageTemplate.toJTBMessage(jtbDestination, m);
+               stampSendTime(runtimeStep, m);
+               requestor.send(jtbMessage);
+            }
+            stats.recordSend(System.nanoTime() - startSend, jtbMessageTemplate.getPayloadSize());
          }
 
          updateLog(doShowPostLogs, ScriptStepResult.createPostSuccess());
 
          // Increment nb messages posted
-         nbMessagePost.set(nbMessagePost.get() + 1);
-         if (nbMessagePost.get() >= nbMessagesMax) {
+         if (nbMessagePost.incrementAndGet() >= nbMessagesMax) {
             throw new InterruptedException(MAX_MESSAGES_REACHED);
          }
 
@@ -428,6 +647,11 @@ public class ScriptExecutionEngine {
          if ((pause != null) && (pause > 0)) {
             updateLog(doShowPostLogs, ScriptStepResult.createStepPauseStart(pause));
 
+            // The messages sent are visible during the pause
+            if (!simulation) {
+               commitSends(runtimeStep);
+            }
+
             if (!simulation) {
                try {
                   TimeUnit.SECONDS.sleep(step.getPauseSecsAfter());
@@ -446,6 +670,126 @@ public class ScriptExecutionEngine {
       }
    }
 
+   // Commit the messages sent from the thread of the script since the last commit
+   private void commitSends(RuntimeStep runtimeStep) throws JMSException {
+      StepSender sender = runtimeStep.getSender();
+      if (sender != null) {
+         sender.commit();
+      }
+   }
+
+   // Wait for the replies of a "request/reply" step, until they are all received or timed out
+   private void awaitReplies(SubMonitor subMonitor, RuntimeStep runtimeStep) throws InterruptedException {
+      StepRequestor requestor = runtimeStep.getRequestor();
+      if (requestor == null) {
+         return;
+      }
+      while (!requestor.awaitReplies(LOAD_PROGRESS_INTERVAL)) {
+         if (subMonitor.isCanceled()) {
+            subMonitor.done();
+            throw new InterruptedException();
+         }
+         subMonitor.subTask(String.format("%s: waiting for %d replies", runtimeStep, requestor.getNbPending()));
+      }
+   }
+
+   // Receive the messages of a "consume" step until the expected number of messages is reached or the timeout expires
+   // The messages are committed by batches of "commitEvery" messages
+   private void executeConsume(SubMonitor subMonitor,
+                               boolean simulation,
+                               RuntimeStep runtimeStep,
+                               StepStatistics stats) throws JMSException, InterruptedException {
+
+      Step step = runtimeStep.getStep();
+      int expected = step.getIterations();
+      int timeoutSecs = step.getTimeoutSecs() == null ? DEFAULT_CONSUME_TIMEOUT : step.getTimeoutSecs();
+      int commitEvery = step.getCommitEvery() == null ? DEFAULT_COMMIT_EVERY : step.getCommitEvery();
+
+      log.debug("running consume step. expected: {} messages, timeout: {} seconds", expected, timeoutSecs);
+      if (simulation) {
+         subMonitor.worked(NB_TICKS_PER_STEP);
+         return;
+      }
+
+      long start = System.nanoTime();
+      StepConsumer consumer = StepConsumer.open(runtimeStep.getJtbConnection(),
+                                                runtimeStep.getJtbDestination(),
+                                                step.getSelector(),
+                                                commitEvery);
+      try {
+         long deadline = start + TimeUnit.SECONDS.toNanos(timeoutSecs);
+         long nextProgress = start;
+         long ticksDone = 0;
+         while (consumer.getNbConsumed() < expected) {
+            long now = System.nanoTime();
+            long remainingNanos = deadline - now;
+            if (remainingNanos <= 0) {
+               log.debug("Timeout of the consume step elapsed");
+               break;
+            }
+
+            // Report progress and check for cancellation at most every LOAD_PROGRESS_INTERVAL ms
+            if (now - nextProgress >= 0) {
+               nextProgress = now + TimeUnit.MILLISECONDS.toNanos(LOAD_PROGRESS_INTERVAL);
+               if (subMonitor.isCanceled()) {
+                  subMonitor.done();
+                  throw new InterruptedException();
+               }
+               int n = consumer.getNbConsumed();
+               long ticks = (long) NB_TICKS_PER_STEP * n / expected;
+               subMonitor.worked((int) (ticks - ticksDone));
+               ticksDone = ticks;
+               subMonitor.subTask(String.format("%s: %d/%d messages consumed (%.0f msg/s)",
+                                                runtimeStep,
+                                                n,
+                                                expected,
+                                                throughput(n, now - start)));
+            }
+
+            long waitMillis = Math.min(LOAD_PROGRESS_INTERVAL, TimeUnit.NANOSECONDS.toMillis(remainingNanos));
+            consumer.receive(Math.max(1, waitMillis));
+         }
+         consumer.commit();
+         subMonitor.worked((int) (NB_TICKS_PER_STEP - ticksDone));
+
+      } finally {
+         consumer.close();
+
+         stats.setElapsedNanos(System.nanoTime() - start);
+         stats.setNbReceived(consumer.getNbReceived());
+         stats.setNbTimeouts(Math.max(0, expected - consumer.getNbReceived()));
+         stats.setNbReceivedBytes(consumer.getNbBytes());
+         stats.setDrainNanos(consumer.getLastReceiveNanos() == 0 ? 0 : consumer.getLastReceiveNanos() - start);
+         consumer.addEndToEndLatency(stats.getReceiveLatency());
+      }
+   }
+
+   // Set the send time used by the "consume" steps of the script to compute the end-to-end latency of the messages
+   static void stampSendTime(RuntimeStep runtimeStep, Message m) throws JMSException {
+      if (runtimeStep.isStampSendTime()) {
+         m.setLongProperty(StepConsumer.SEND_TIME_PROPERTY, System.currentTimeMillis());
+      }
+   }
+
+   private JTBMessageTemplate buildIterationTemplate(JTBMessageTemplate t,
+                                                     CompiledText payloadText,
+                                                     Map<String, String> dataFileVariables,
+                                                     StringBuilder buffer) {
+      JTBMessageTemplate jtbMessageTemplate = new JTBMessageTemplate(t);
+
+      // Replace the dataFileVariables, then generate local variables for each iteration, in one pass
+      if (payloadText.hasVariables()) {
+         jtbMessageTemplate.setPayloadText(variablesManager
+                  .replaceTemplateVariables(payloadText, dataFileVariables, ThreadLocalRandom.current(), buffer));
+      }
+
+      return jtbMessageTemplate;
+   }
+
+   private static double throughput(int nbMessages, long elapsedNanos) {
+      return elapsedNanos == 0 ? 0 : nbMessages * 1_000_000_000d / elapsedNanos;
+   }
+
    private void executePause(SubMonitor subMonitor, boolean simulation, RuntimeStep runtimeStep) throws InterruptedException {
 
       Step step = runtimeStep.getStep();
@@ -469,13 +813,50 @@ public class ScriptExecutionEngine {
       subMonitor.worked(NB_TICKS_PER_STEP);
    }
 
+   // End-of-run performance report of the "regular" steps executed
+   private void reportStatistics(List<StepStatistics> stepsStatistics) {
+      if (stepsStatistics.isEmpty()) {
+         return;
+      }
+
+      int nbMessages = 0;
+      long nbBytes = 0;
+      long elapsedNanos = 0;
+      for (StepStatistics stats : stepsStatistics) {
+         if (stats.getKind() == StepKind.CONSUME) {
+            log.info("Consume from '{}': {} messages in {} ms. End-to-end: {}",
+                     stats.getDestinationName(),
+                     stats.getNbReceived(),
+                     stats.getDrainMillis(),
+                     stats.getReceiveLatency());
+            updateLog(false, ScriptStepResult.createConsumeReport(stats));
+            elapsedNanos += stats.getElapsedNanos();
+            continue;
+         }
+         log.info("Step '{}' to '{}': {} messages in {} ms. Build: {}. Send: {}",
+                  stats.getTemplateName(),
+                  stats.getDestinationName(),
+                  stats.getNbMessages(),
+                  stats.getElapsedMillis(),
+                  stats.getPrepareLatency(),
+                  stats.getSendLatency());
+         updateLog(false, ScriptStepResult.createStepReport(stats));
+         nbMessages += stats.getNbMessages();
+         nbBytes += stats.getNbBytes();
+         elapsedNanos += stats.getElapsedNanos();
+      }
+      updateLog(false, ScriptStepResult.createScriptReport(nbMessages, nbBytes, TimeUnit.NANOSECONDS.toMillis(elapsedNanos)));
+   }
+
    private void updateLog(boolean doShowPostLogs, ScriptStepResult ssr) {
       if (ssr.getData() != null) {
          log.debug(ssr.getData().toString());
       }
       if (ssr.isAlwaysShow() || doShowPostLogs) {
-         // eventBroker.post(Constants.EVENT_REFRESH_EXECUTION_LOG, ssr);
-         eventBroker.send(Constants.EVENT_REFRESH_EXECUTION_LOG, ssr);
+         // The UI reads the new entries from the execution log by batches, notify it only when it has caught up
+         if (executionLog.add(ssr)) {
+            eventBroker.post(Constants.EVENT_REFRESH_EXECUTION_LOG, "noUse");
+         }
       }
    }
 
@@ -498,13 +879,19 @@ public class ScriptExecutionEngine {
          runtimeSteps.add(new RuntimeStep(step));
       }
 
+      // The messages posted carry their send time only if a step of the script consumes them
+      boolean stampSendTime = steps.stream().anyMatch(s -> s.getKind() == StepKind.CONSUME);
+      for (RuntimeStep runtimeStep : runtimeSteps) {
+         runtimeStep.setStampSendTime(stampSendTime && postsMessages(runtimeStep.getStep()));
+      }
+
       // Gather templates used in the script and validate their existence
       try {
          subMonitor.subTask("Validating Templates...");
          for (RuntimeStep runtimeStep : runtimeSteps) {
             Step step = runtimeStep.getStep();
 
-            if (step.getKind() != StepKind.REGULAR) {
+            if (!postsMessages(step)) {
                continue;
             }
 
@@ -551,7 +938,7 @@ public class ScriptExecutionEngine {
       for (RuntimeStep runtimeStep : runtimeSteps) {
          Step step = runtimeStep.getStep();
 
-         if (step.getKind() != StepKind.REGULAR) {
+         if (step.getKind() == StepKind.PAUSE) {
             continue;
          }
 
@@ -613,7 +1000,7 @@ public class ScriptExecutionEngine {
       subMonitor.subTask("Validating Data Files...");
       for (RuntimeStep runtimeStep : runtimeSteps) {
          Step step = runtimeStep.getStep();
-         if (step.getKind() != StepKind.REGULAR) {
+         if (!postsMessages(step)) {
             continue;
          }
 
@@ -662,7 +1049,7 @@ public class ScriptExecutionEngine {
       subMonitor.subTask("Validating Payload Directory...");
       for (RuntimeStep runtimeStep : runtimeSteps) {
          Step step = runtimeStep.getStep();
-         if (step.getKind() != StepKind.REGULAR) {
+         if (!postsMessages(step)) {
             continue;
          }
 
@@ -735,7 +1122,7 @@ public class ScriptExecutionEngine {
       subMonitor.subTask("Validating Destinations...");
       for (RuntimeStep runtimeStep : runtimeSteps) {
          Step step = runtimeStep.getStep();
-         if (step.getKind() == StepKind.REGULAR) {
+         if (step.getKind() != StepKind.PAUSE) {
             JTBConnection jtbConnection = runtimeStep.getJtbConnection();
             JTBDestination jtbDestination = jtbConnection.getJTBDestinationByName(step.getDestinationName());
             if (jtbDestination == null) {
@@ -755,6 +1142,11 @@ public class ScriptExecutionEngine {
       return runtimeSteps;
    }
 
+   // Steps that post messages built from a template
+   private static boolean postsMessages(Step step) {
+      return (step.getKind() == StepKind.REGULAR) || (step.getKind() == StepKind.REQUEST_REPLY);
+   }
+
    // --------------
    // Helper Classes
    // --------------
@@ -774,13 +1166,14 @@ public class ScriptExecutionEngine {
 
    private class MyIRunnableWithProgress implements IRunnableWithProgress {
 
-      private AtomicInteger nbMessagePost = new AtomicInteger(0);
+      private AtomicInteger        nbMessagePost   = new AtomicInteger(0);
+      private List<StepStatistics> stepsStatistics = new ArrayList<>();
 
-      final boolean         clearLogsBeforeExecution;
-      final boolean         simulation;
-      final int             nbMessagesMax;
-      final boolean         doShowPostLogs;
-      final private Script  script;
+      final boolean                clearLogsBeforeExecution;
+      final boolean                simulation;
+      final int                    nbMessagesMax;
+      final boolean                doShowPostLogs;
+      final private Script         script;
 
       public MyIRunnableWithProgress(boolean clearLogsBeforeExecution,
                                      boolean simulation,
@@ -799,13 +1192,22 @@ public class ScriptExecutionEngine {
 
          // Clear logs is the option is set in preferences
          if (clearLogsBeforeExecution) {
+            executionLog.clear();
             eventBroker.send(Constants.EVENT_CLEAR_EXECUTION_LOG, "noUse");
          }
 
          try {
-            executeScriptInBackground(monitor, simulation, doShowPostLogs, nbMessagesMax, nbMessagePost, script);
+            executeScriptInBackground(monitor,
+                                      simulation,
+                                      doShowPostLogs,
+                                      nbMessagesMax,
+                                      nbMessagePost,
+                                      stepsStatistics,
+                                      script);
          } catch (ScriptValidationException e) {
             throw new InvocationTargetException(e);
+         } finally {
+            reportStatistics(stepsStatistics);
          }
          monitor.done();
       }
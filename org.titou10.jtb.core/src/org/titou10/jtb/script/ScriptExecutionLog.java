@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2019 Denis Forveille titou10.titou10@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.titou10.jtb.script;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.inject.Singleton;
+
+import org.eclipse.e4.core.di.annotations.Creatable;
+import org.titou10.jtb.script.ScriptStepResult.ExectionReturnCode;
+
+/**
+ * Bounded log of the script executions, shared by the execution engine and the execution log view
+ * 
+ * Only the last entries are kept. The entries added and evicted are delivered to the UI by batches, so the threads
+ * executing the scripts are never blocked by the rendering. The counters cover all the entries added since the last clear
+ * 
+ * @author Denis Forveille
+ *
+ */
+@Creatable
+@Singleton
+public class ScriptExecutionLog {
+
+   public static final int                     MAX_ENTRIES            = 5000;
+
+   private final ArrayDeque<ScriptStepResult>  entries                = new ArrayDeque<>(MAX_ENTRIES);
+   private final List<ScriptStepResult>        removed                = new ArrayList<>();
+   // Number of entries at the end of the log not delivered yet
+   private int                                 nbPending;
+   private boolean                             notificationPending;
+
+   private long                                nbEntries;
+   private final Map<ExectionReturnCode, Long> nbEntriesPerReturnCode = new EnumMap<>(ExectionReturnCode.class);
+
+   /**
+    * Add an entry to the log
+    * 
+    * @return true if the UI must be notified that new entries are available, ie it has been notified since the last
+    *         {@link #drain()}
+    */
+   public synchronized boolean add(ScriptStepResult ssr) {
+      entries.addLast(ssr);
+      nbPending++;
+
+      nbEntries++;
+      nbEntriesPerReturnCode.merge(ssr.getReturnCode(), 1L, Long::sum);
+
+      if (entries.size() > MAX_ENTRIES) {
+         ScriptStepResult evicted = entries.removeFirst();
+         if (nbPending > entries.size()) {
+            // Not delivered yet, just forget it
+            nbPending--;
+         } else {
+            removed.add(evicted);
+         }
+      }
+
+      if (notificationPending) {
+         return false;
+      }
+      notificationPending = true;
+      return true;
+   }
+
+   /**
+    * Returns the entries added and removed since the last call
+    */
+   public synchronized Batch drain() {
+      notificationPending = false;
+
+      List<ScriptStepResult> added;
+      if (nbPending == 0) {
+         added = Collections.emptyList();
+      } else {
+         added = new ArrayList<>(nbPending);
+         Iterator<ScriptStepResult> it = entries.descendingIterator();
+         for (int i = 0; i < nbPending; i++) {
+            added.add(it.next());
+         }
+         Collections.reverse(added);
+         nbPending = 0;
+      }
+
+      Batch batch = new Batch(added, new ArrayList<>(removed));
+      removed.clear();
+      return batch;
+   }
+
+   /**
+    * Returns all the entries of the log, considered as delivered
+    */
+   public synchronized List<ScriptStepResult> resync() {
+      notificationPending = false;
+      nbPending = 0;
+      removed.clear();
+      return new ArrayList<>(entries);
+   }
+
+   public synchronized void clear() {
+      entries.clear();
+      removed.clear();
+      nbPending = 0;
+      nbEntries = 0;
+      nbEntriesPerReturnCode.clear();
+   }
+
+   public synchronized long getNbEntries() {
+      return nbEntries;
+   }
+
+   public synchronized long getNbEntries(ExectionReturnCode returnCode) {
+      return nbEntriesPerReturnCode.getOrDefault(returnCode, 0L);
+   }
+
+   // ----------------
+   // Batch of entries
+   // ----------------
+   public static final class Batch {
+      private final List<ScriptStepResult> added;
+      private final List<ScriptStepResult> removed;
+
+      private Batch(List<ScriptStepResult> added, List<ScriptStepResult> removed) {
+         this.added = added;
+         this.removed = removed;
+      }
+
+      public List<ScriptStepResult> getAdded() {
+         return added;
+      }
+
+      public List<ScriptStepResult> getRemoved() {
+         return removed;
+      }
+   }
+}
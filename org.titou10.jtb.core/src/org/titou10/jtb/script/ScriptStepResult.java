@@ -19,6 +19,8 @@ package org.titou10.jtb.script;
 import java.util.Calendar;
 
 import org.titou10.jtb.jms.model.JTBMessageTemplate;
+import org.titou10.jtb.script.gen.StepKind;
+import org.titou10.jtb.util.Utils;
 
 /**
  * Hold the result of an execution step
@@ -42,6 +44,16 @@ public final class ScriptStepResult {
    private static final String STEP_FAILED                     = "Step to destination %s failed : %s";
    private static final String STEP_PAUSE_RUNNING              = "Pause for %d seconds after post ...";
    private static final String STEP_PAUSE_SUCCESS              = "Pause terminated.";
+   private static final String STEP_THROUGHPUT                 = "%d messages posted by %d thread(s) in %d ms (%.0f msg/s)";
+   private static final String STEP_THROUGHPUT_TARGET          = "%d messages posted by %d thread(s) in %d ms (%.1f msg/s achieved, target: %d msg/s)";
+   private static final String STEP_REPORT                     = "Template '%s' to '%s': %d messages, %s in %d ms (%.1f msg/s, %s/s). Build: %s";
+   private static final String STEP_REPORT_SEND                = ". Send: %s";
+   private static final String STEP_REPORT_REPLIES             = ". Replies: %d, timeouts: %d. Round-trip: %s";
+   private static final String CONSUME_START                   = "Consume from destination '%s'";
+   private static final String CONSUME_START_SELECTOR          = "Consume from destination '%s' with selector '%s'";
+   private static final String CONSUME_THROUGHPUT              = "%d/%d messages consumed in %d ms (%.0f msg/s)";
+   private static final String CONSUME_REPORT                  = "Consume from '%s': %d/%d messages, %s in %d ms (%.1f msg/s, %s/s). End-to-end: %s";
+   private static final String SCRIPT_REPORT                   = "Performance report: %d messages, %s in %d ms (%.1f msg/s)";
 
    private static final String PAUSE_RUNNING                   = "Pause for %d seconds ...";
    private static final String PAUSE_SUCCESS                   = "Pause terminated.";
@@ -89,12 +101,12 @@ public final class ScriptStepResult {
                                    CANCELLED;
    }
 
-   private Calendar           ts;
-   private ExectionActionCode action;
-   private ExectionReturnCode returnCode;
-   private Object             data;
-   private String             templateName;
-   private boolean            alwaysShow;
+   private Calendar            ts;
+   private ExectionActionCode  action;
+   private ExectionReturnCode  returnCode;
+   private Object              data;
+   private String              templateName;
+   private boolean             alwaysShow;
 
    // ------------------------
    // Constructor
@@ -233,6 +245,87 @@ public final class ScriptStepResult {
                                   true);
    }
 
+   public static ScriptStepResult createStepThroughput(StepStatistics stats) {
+      String msg;
+      if (stats.getTargetRate() == null) {
+         msg = String.format(STEP_THROUGHPUT,
+                             stats.getNbMessages(),
+                             stats.getNbThreads(),
+                             stats.getElapsedMillis(),
+                             stats.getAchievedRate());
+      } else {
+         msg = String.format(STEP_THROUGHPUT_TARGET,
+                             stats.getNbMessages(),
+                             stats.getNbThreads(),
+                             stats.getElapsedMillis(),
+                             stats.getAchievedRate(),
+                             stats.getTargetRate());
+      }
+      return new ScriptStepResult(ExectionActionCode.STEP, ExectionReturnCode.SUCCESS, msg, true);
+   }
+
+   public static ScriptStepResult createStepReport(StepStatistics stats) {
+      StringBuilder sb = new StringBuilder(256);
+      sb.append(String.format(STEP_REPORT,
+                              stats.getTemplateName(),
+                              stats.getDestinationName(),
+                              stats.getNbMessages(),
+                              Utils.formatSize(stats.getNbBytes()),
+                              stats.getElapsedMillis(),
+                              stats.getAchievedRate(),
+                              Utils.formatSize((long) stats.getBytesRate()),
+                              stats.getPrepareLatency()));
+      // No message sent in simulation mode
+      if (stats.getSendLatency().getCount() > 0) {
+         sb.append(String.format(STEP_REPORT_SEND, stats.getSendLatency()));
+      }
+      if ((stats.getKind() == StepKind.REQUEST_REPLY) && (stats.getSendLatency().getCount() > 0)) {
+         sb.append(String.format(STEP_REPORT_REPLIES, stats.getNbReceived(), stats.getNbTimeouts(), stats.getReceiveLatency()));
+      }
+      return new ScriptStepResult(ExectionActionCode.STEP, ExectionReturnCode.SUCCESS, sb.toString(), true);
+   }
+
+   public static ScriptStepResult createConsumeStart(String destinationName, String selector) {
+      String msg = selector == null ? String.format(CONSUME_START, destinationName)
+               : String.format(CONSUME_START_SELECTOR, destinationName, selector);
+      return new ScriptStepResult(ExectionActionCode.STEP, ExectionReturnCode.START, msg, true);
+   }
+
+   public static ScriptStepResult createConsumeThroughput(StepStatistics stats) {
+      return new ScriptStepResult(ExectionActionCode.STEP,
+                                  ExectionReturnCode.SUCCESS,
+                                  String.format(CONSUME_THROUGHPUT,
+                                                stats.getNbReceived(),
+                                                stats.getNbReceived() + stats.getNbTimeouts(),
+                                                stats.getDrainMillis(),
+                                                stats.getDrainRate()),
+                                  true);
+   }
+
+   // The drain rate is computed up to the last message received, the wait for messages that never came is not included
+   public static ScriptStepResult createConsumeReport(StepStatistics stats) {
+      return new ScriptStepResult(ExectionActionCode.STEP,
+                                  ExectionReturnCode.SUCCESS,
+                                  String.format(CONSUME_REPORT,
+                                                stats.getDestinationName(),
+                                                stats.getNbReceived(),
+                                                stats.getNbReceived() + stats.getNbTimeouts(),
+                                                Utils.formatSize(stats.getNbReceivedBytes()),
+                                                stats.getDrainMillis(),
+                                                stats.getDrainRate(),
+                                                Utils.formatSize((long) stats.getReceivedBytesRate()),
+                                                stats.getReceiveLatency()),
+                                  true);
+   }
+
+   public static ScriptStepResult createScriptReport(int nbMessages, long nbBytes, long elapsedMillis) {
+      double rate = elapsedMillis == 0 ? 0 : nbMessages * 1000d / elapsedMillis;
+      return new ScriptStepResult(ExectionActionCode.SCRIPT,
+                                  ExectionReturnCode.SUCCESS,
+                                  String.format(SCRIPT_REPORT, nbMessages, Utils.formatSize(nbBytes), elapsedMillis, rate),
+                                  true);
+   }
+
    public static ScriptStepResult createStepPauseStart(Integer delay) {
       return new ScriptStepResult(ExectionActionCode.STEP,
                                   ExectionReturnCode.START,
@@ -242,6 +242,15 @@ public class ScriptsManager {
       return step;
    }
 
+   public Step buildConsumeStep() {
+      Step step = new Step();
+      step.setKind(StepKind.CONSUME);
+      step.setPauseSecsAfter(0);
+      step.setIterations(1);
+      step.setTimeoutSecs(60);
+      return step;
+   }
+
    public Step buildStep() {
       Step step = new Step();
       step.setKind(StepKind.REGULAR);
@@ -322,6 +331,15 @@ public class ScriptsManager {
          newStep.setPayloadDirectory(step.getPayloadDirectory());
          newStep.setKind(step.getKind());
          newStep.setIterations(step.getIterations());
+         newStep.setThreads(step.getThreads());
+         newStep.setRate(step.getRate());
+         newStep.setRampUpSecs(step.getRampUpSecs());
+         newStep.setDurationSecs(step.getDurationSecs());
+         newStep.setReplyToDestinationName(step.getReplyToDestinationName());
+         newStep.setMaxInFlight(step.getMaxInFlight());
+         newStep.setTimeoutSecs(step.getTimeoutSecs());
+         newStep.setSelector(step.getSelector());
+         newStep.setCommitEvery(step.getCommitEvery());
          newStep.setPauseSecsAfter(step.getPauseSecsAfter());
          steps.add(newStep);
       }
@@ -342,6 +360,15 @@ public class ScriptsManager {
       step.setVariablePrefix(baseStep.getVariablePrefix());
       step.setPayloadDirectory(baseStep.getPayloadDirectory());
       step.setIterations(baseStep.getIterations());
+      step.setThreads(baseStep.getThreads());
+      step.setRate(baseStep.getRate());
+      step.setRampUpSecs(baseStep.getRampUpSecs());
+      step.setDurationSecs(baseStep.getDurationSecs());
+      step.setReplyToDestinationName(baseStep.getReplyToDestinationName());
+      step.setMaxInFlight(baseStep.getMaxInFlight());
+      step.setTimeoutSecs(baseStep.getTimeoutSecs());
+      step.setSelector(baseStep.getSelector());
+      step.setCommitEvery(baseStep.getCommitEvery());
       step.setPauseSecsAfter(baseStep.getPauseSecsAfter());
 
       String templateDirectory = baseStep.getTemplateDirectory();
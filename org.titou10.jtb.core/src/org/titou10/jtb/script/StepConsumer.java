@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2019 Denis Forveille titou10.titou10@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.titou10.jtb.script;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.Session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.titou10.jtb.jms.model.JTBConnection;
+import org.titou10.jtb.jms.model.JTBDestination;
+import org.titou10.jtb.util.LatencyHistogram;
+import org.titou10.jtb.util.Utils;
+
+/**
+ * Receives the messages of a "consume" step and measures their end-to-end latency
+ * 
+ * The messages are received in a transacted session committed every "commitEvery" messages. The end-to-end latency is
+ * computed from the send time stamped by the posting steps of the script in the {@link #SEND_TIME_PROPERTY} property, or
+ * from the JMSTimestamp for messages posted by other applications
+ * 
+ * @author Denis Forveille
+ *
+ */
+final class StepConsumer implements AutoCloseable {
+
+   private static final Logger    log                = LoggerFactory.getLogger(StepConsumer.class);
+
+   // Send time in ms since the epoch, set by the posting steps of a script that contains a "consume" step
+   static final String            SEND_TIME_PROPERTY = "JTBScriptSendTime";
+
+   private final Session          session;
+   private final MessageConsumer  consumer;
+   private final int              commitEvery;
+
+   private final LatencyHistogram endToEnd           = new LatencyHistogram();
+   private int                    nbUncommitted;
+   private int                    nbReceived;
+   private long                   nbBytes;
+   private long                   lastReceiveNanos;
+
+   // -----------
+   // Constructor
+   // -----------
+   private StepConsumer(Session session, MessageConsumer consumer, int commitEvery) {
+      this.session = session;
+      this.consumer = consumer;
+      this.commitEvery = commitEvery;
+   }
+
+   /**
+    * Opens the transacted JMS session used to receive the messages
+    * 
+    * @param selector
+    *           JMS selector of the messages to receive. null = all the messages
+    */
+   static StepConsumer open(JTBConnection jtbConnection,
+                            JTBDestination jtbDestination,
+                            String selector,
+                            int commitEvery) throws JMSException {
+      Session session = jtbConnection.createTransactedWorkerSession();
+      try {
+         log.debug("Consume from {} with selector '{}'", jtbDestination.getName(), selector);
+         return new StepConsumer(session, session.createConsumer(jtbDestination.getJmsDestination(session), selector), commitEvery);
+      } catch (JMSException e) {
+         session.close();
+         throw e;
+      }
+   }
+
+   // ---------------
+   // Business Logic
+   // ---------------
+
+   /**
+    * Receives one message and commits the transaction when "commitEvery" messages have been received
+    * 
+    * @return false if no message was received after "timeoutMillis"
+    */
+   boolean receive(long timeoutMillis) throws JMSException {
+      Message m = consumer.receive(timeoutMillis);
+      if (m == null) {
+         return false;
+      }
+      lastReceiveNanos = System.nanoTime();
+
+      long sendTime = m.propertyExists(SEND_TIME_PROPERTY) ? m.getLongProperty(SEND_TIME_PROPERTY) : m.getJMSTimestamp();
+      if (sendTime > 0) {
+         // Clocks of the posting and consuming hosts may differ
+         long latencyMillis = Math.max(0, System.currentTimeMillis() - sendTime);
+         endToEnd.record(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+      }
+      nbBytes += Utils.getPayloadSize(m);
+
+      if (++nbUncommitted >= commitEvery) {
+         commit();
+      }
+      return true;
+   }
+
+   // Commits the messages received since the last commit
+   void commit() throws JMSException {
+      if (nbUncommitted == 0) {
+         return;
+      }
+      session.commit();
+      nbReceived += nbUncommitted;
+      nbUncommitted = 0;
+   }
+
+   // Messages received, including the ones not committed yet
+   int getNbConsumed() {
+      return nbReceived + nbUncommitted;
+   }
+
+   // Messages received and committed
+   int getNbReceived() {
+      return nbReceived;
+   }
+
+   long getNbBytes() {
+      return nbBytes;
+   }
+
+   long getLastReceiveNanos() {
+      return lastReceiveNanos;
+   }
+
+   void addEndToEndLatency(LatencyHistogram histogram) {
+      histogram.add(endToEnd);
+   }
+
+   // Messages not committed are rolled back
+   @Override
+   public void close() {
+      try {
+         consumer.close();
+         if (nbUncommitted > 0) {
+            log.warn("{} messages received but not committed are rolled back", nbUncommitted);
+            session.rollback();
+         }
+         session.close();
+      } catch (JMSException e) {
+         log.warn("Exception occurred when closing the consume session. Ignoring", e);
+      }
+   }
+
+}
@@ -0,0 +1,342 @@
+/*
+ * Copyright (C) 2019 Denis Forveille titou10.titou10@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.titou10.jtb.script;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+
+import org.eclipse.core.runtime.SubMonitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.titou10.jtb.jms.model.JTBDestination;
+import org.titou10.jtb.jms.model.JTBMessage;
+import org.titou10.jtb.jms.model.JTBMessageTemplate;
+import org.titou10.jtb.jms.model.JTBWorkerProducer;
+import org.titou10.jtb.util.LatencyHistogram;
+import org.titou10.jtb.variable.CompiledText;
+
+/**
+ * Posts the messages of a "regular" step with several threads (load test)
+ * 
+ * The threads, each one with its own JMS session and producer, are started once for the step. The payloads of the step (the
+ * template, each payload file or each record of the data file) are submitted with their number of iterations and the threads
+ * post the iterations as they come. The individual posts are not logged, only the aggregated throughput of the step
+ * 
+ * @author Denis Forveille
+ *
+ */
+final class StepLoadPoster implements AutoCloseable {
+
+   private static final Logger              log                   = LoggerFactory.getLogger(StepLoadPoster.class);
+
+   // Number of iterations waiting for a thread, per thread
+   private static final int                 QUEUE_SIZE_PER_THREAD = 64;
+
+   // Interval between two progress reports, in ms
+   private static final long                PROGRESS_INTERVAL     = 500;
+
+   // Max time to wait for the threads to close their producer, in ms
+   private static final long                CLOSE_TIMEOUT         = 5000;
+
+   // Tells a thread that all the iterations of the step have been submitted
+   private static final Payload             END                   = new Payload(null, null, null);
+
+   private final RuntimeStep                runtimeStep;
+   private final int                        nbThreads;
+   private final int                        nbMessagesMax;
+   private final AtomicInteger              nbMessagePost;
+   private final StepRatePacer              pacer;
+   private final StepStatistics             stats;
+   private final IterationBuilder           iterationBuilder;
+
+   private final BlockingQueue<Payload>     queue;
+   private final ExecutorService            executor;
+   private final long                       start;
+
+   private final AtomicInteger              nbPosted              = new AtomicInteger();
+   private final AtomicBoolean              stop                  = new AtomicBoolean();
+   private final AtomicBoolean              maxReached            = new AtomicBoolean();
+   private final AtomicReference<Exception> failure               = new AtomicReference<>();
+
+   // Only used by the thread running the script
+   private int                              nbSubmitted;
+
+   /**
+    * Builds the template of an iteration. Called concurrently by the threads, each one with its own buffer
+    */
+   @FunctionalInterface
+   interface IterationBuilder {
+      JTBMessageTemplate build(JTBMessageTemplate t,
+                               CompiledText payloadText,
+                               Map<String, String> dataFileVariables,
+                               StringBuilder buffer);
+   }
+
+   // A payload of the step, shared by all its iterations
+   private static final class Payload {
+      private final JTBMessageTemplate  template;
+      private final CompiledText        payloadText;
+      private final Map<String, String> dataFileVariables;
+
+      private Payload(JTBMessageTemplate template, CompiledText payloadText, Map<String, String> dataFileVariables) {
+         this.template = template;
+         this.payloadText = payloadText;
+         this.dataFileVariables = dataFileVariables;
+      }
+   }
+
+   // -----------
+   // Constructor
+   // -----------
+   private StepLoadPoster(RuntimeStep runtimeStep,
+                          int nbThreads,
+                          int nbMessagesMax,
+                          AtomicInteger nbMessagePost,
+                          StepRatePacer pacer,
+                          StepStatistics stats,
+                          IterationBuilder iterationBuilder) {
+      this.runtimeStep = runtimeStep;
+      this.nbThreads = nbThreads;
+      this.nbMessagesMax = nbMessagesMax;
+      this.nbMessagePost = nbMessagePost;
+      this.pacer = pacer;
+      this.stats = stats;
+      this.iterationBuilder = iterationBuilder;
+
+      String threadName = "JTB script worker - " + runtimeStep.getJtbDestination().getName();
+      this.queue = new ArrayBlockingQueue<>(nbThreads * QUEUE_SIZE_PER_THREAD);
+      this.executor = Executors.newFixedThreadPool(nbThreads, r -> {
+         Thread thread = new Thread(r, threadName);
+         thread.setDaemon(true);
+         return thread;
+      });
+      this.start = System.nanoTime();
+   }
+
+   /**
+    * Starts the threads of the step. They share the pacer of the step, if any
+    */
+   static StepLoadPoster start(RuntimeStep runtimeStep,
+                               int nbThreads,
+                               int nbMessagesMax,
+                               AtomicInteger nbMessagePost,
+                               StepRatePacer pacer,
+                               StepStatistics stats,
+                               IterationBuilder iterationBuilder) {
+      log.debug("Starting {} threads to post to {}", nbThreads, runtimeStep.getJtbDestination().getName());
+
+      StepLoadPoster poster = new StepLoadPoster(runtimeStep,
+                                                 nbThreads,
+                                                 nbMessagesMax,
+                                                 nbMessagePost,
+                                                 pacer,
+                                                 stats,
+                                                 iterationBuilder);
+      for (int i = 0; i < nbThreads; i++) {
+         poster.executor.execute(poster::post);
+      }
+      return poster;
+   }
+
+   // ---------------
+   // Business Logic
+   // ---------------
+
+   /**
+    * Submits the iterations of a payload to the threads. Waits while the threads are busy
+    * 
+    * @return false if the threads have stopped: duration of the step elapsed, max number of messages reached or failure
+    */
+   boolean submit(SubMonitor subMonitor,
+                  int nbTicks,
+                  JTBMessageTemplate t,
+                  CompiledText payloadText,
+                  Map<String, String> dataFileVariables,
+                  int iterations) throws InterruptedException {
+
+      // The caller reuses the template and the variables for the next payload
+      Payload payload = new Payload(new JTBMessageTemplate(t), payloadText, new HashMap<>(dataFileVariables));
+
+      long ticksDone = 0;
+      for (int i = 0; i < iterations; i++) {
+         if (stop.get()) {
+            return false;
+         }
+         while (!queue.offer(payload, PROGRESS_INTERVAL, TimeUnit.MILLISECONDS)) {
+            reportProgress(subMonitor);
+            if (stop.get()) {
+               return false;
+            }
+         }
+         nbSubmitted++;
+
+         long ticks = (long) nbTicks * (i + 1) / iterations;
+         subMonitor.worked((int) (ticks - ticksDone));
+         ticksDone = ticks;
+      }
+      return true;
+   }
+
+   /**
+    * Waits for the threads to post the iterations submitted, then reports the failure of a thread or the max number of messages
+    * reached
+    */
+   void finish(SubMonitor subMonitor) throws JMSException, InterruptedException {
+      for (int i = 0; i < nbThreads; i++) {
+         while ((!stop.get()) && (!queue.offer(END, PROGRESS_INTERVAL, TimeUnit.MILLISECONDS))) {
+            reportProgress(subMonitor);
+         }
+      }
+      executor.shutdown();
+      while (!executor.awaitTermination(PROGRESS_INTERVAL, TimeUnit.MILLISECONDS)) {
+         reportProgress(subMonitor);
+      }
+
+      Exception e = failure.get();
+      if (e instanceof JMSException) {
+         throw (JMSException) e;
+      }
+      if (e != null) {
+         throw new RuntimeException(e);
+      }
+      if (maxReached.get()) {
+         throw new InterruptedException(ScriptExecutionEngine.MAX_MESSAGES_REACHED);
+      }
+   }
+
+   @Override
+   public void close() {
+      stop.set(true);
+      executor.shutdownNow(); // Interrupt the pauses
+      try {
+         if (!executor.awaitTermination(CLOSE_TIMEOUT, TimeUnit.MILLISECONDS)) {
+            log.warn("Some threads posting to {} did not stop", runtimeStep.getJtbDestination().getName());
+         }
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+      }
+   }
+
+   // -------
+   // Helpers
+   // -------
+
+   // Run by each thread until the end of the step
+   private void post() {
+      JTBDestination jtbDestination = runtimeStep.getJtbDestination();
+      Integer pause = runtimeStep.getStep().getPauseSecsAfter();
+
+      StringBuilder buffer = new StringBuilder(256);
+      LatencyHistogram prepareLatency = new LatencyHistogram();
+      LatencyHistogram sendLatency = new LatencyHistogram();
+      long nbBytes = 0;
+      try (JTBWorkerProducer producer = runtimeStep.getJtbConnection().createWorkerProducer(jtbDestination)) {
+         while (!stop.get()) {
+            Payload payload = queue.poll(PROGRESS_INTERVAL, TimeUnit.MILLISECONDS);
+            if (payload == null) {
+               continue;
+            }
+            if (payload == END) {
+               break;
+            }
+
+            // Wait for the next send time of the step
+            if ((pacer != null) && (!pacer.acquire())) {
+               log.debug("Duration of the step elapsed");
+               stop.set(true);
+               break;
+            }
+
+            // Reserve the message in the global count before posting it
+            int n = nbMessagePost.incrementAndGet();
+            if (n > nbMessagesMax) {
+               nbMessagePost.decrementAndGet();
+               stop.set(true);
+               break;
+            }
+
+            long startPrepare = System.nanoTime();
+            JTBMessageTemplate jtbMessageTemplate = iterationBuilder.build(payload.template,
+                                                                           payload.payloadText,
+                                                                           payload.dataFileVariables,
+                                                                           buffer);
+            long startSend = System.nanoTime();
+            prepareLatency.record(startSend - startPrepare);
+            try {
+               Message m = producer.createJMSMessage(jtbMessageTemplate.getJtbMessageType());
+               JTBMessage jtbMessage = jtbMessageTemplate.toJTBMessage(jtbDestination, m);
+               ScriptExecutionEngine.stampSendTime(runtimeStep, m);
+               producer.send(jtbMessage);
+            } catch (JMSException e) {
+               nbMessagePost.decrementAndGet();
+               throw e;
+            }
+            sendLatency.record(System.nanoTime() - startSend);
+            nbBytes += jtbMessageTemplate.getPayloadSize();
+            nbPosted.incrementAndGet();
+
+            if (n >= nbMessagesMax) {
+               maxReached.set(true);
+               stop.set(true);
+               break;
+            }
+
+            // Eventually pause after...
+            if ((pause != null) && (pause > 0)) {
+               TimeUnit.SECONDS.sleep(pause);
+            }
+         }
+      } catch (InterruptedException e) {
+         // Cancelled
+      } catch (Exception e) {
+         log.error("Exception occurred in a worker thread", e);
+         failure.compareAndSet(null, e);
+         stop.set(true);
+      } finally {
+         stats.add(prepareLatency, sendLatency, nbBytes);
+      }
+   }
+
+   private void reportProgress(SubMonitor subMonitor) throws InterruptedException {
+      if (subMonitor.isCanceled()) {
+         stop.set(true);
+         executor.shutdownNow(); // Interrupt the pauses
+         subMonitor.done();
+         throw new InterruptedException();
+      }
+
+      int n = nbPosted.get();
+      long elapsedNanos = System.nanoTime() - start;
+      subMonitor.subTask(String.format("%s: %d/%d messages posted by %d threads (%.0f msg/s)",
+                                       runtimeStep,
+                                       n,
+                                       nbSubmitted,
+                                       nbThreads,
+                                       elapsedNanos == 0 ? 0 : n * 1_000_000_000d / elapsedNanos));
+   }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2019 Denis Forveille titou10.titou10@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.titou10.jtb.script;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.titou10.jtb.script.gen.Step;
+
+/**
+ * Paces the messages posted by a step at a target rate, with an optional linear ramp-up and an optional maximum duration
+ * 
+ * The send time of each message is computed from the start of the step and not from the previous send, so the delays of
+ * the JMS provider or of the scheduler do not accumulate. The pacer may be shared by several threads
+ * 
+ * @author Denis Forveille
+ *
+ */
+final class StepRatePacer {
+
+   private static final long NANOS_PER_SECOND  = 1_000_000_000L;
+
+   // When the posts are late on the schedule, at most this number of seconds of messages can be posted in a burst to catch up
+   private static final long MAX_BURST_SECONDS = 1;
+
+   private final double      rate;                              // Target rate, msg/s. 0 = no limit
+   private final double      rampUpSecs;
+   private final long        durationNanos;                     // 0 = no limit
+
+   private long              start;
+   private long              deadline;
+   private long              nextSlot;
+
+   // -----------
+   // Constructor
+   // -----------
+   StepRatePacer(Integer rate, Integer rampUpSecs, Integer durationSecs) {
+      this.rate = rate == null ? 0 : rate;
+      this.rampUpSecs = ((rampUpSecs == null) || (this.rate == 0)) ? 0 : rampUpSecs;
+      this.durationNanos = durationSecs == null ? 0 : TimeUnit.SECONDS.toNanos(durationSecs);
+   }
+
+   static boolean isPaced(Step step) {
+      return ((step.getRate() != null) && (step.getRate() > 0))
+             || ((step.getDurationSecs() != null) && (step.getDurationSecs() > 0));
+   }
+
+   // -------
+   // Methods
+   // -------
+
+   synchronized void start() {
+      start = System.nanoTime();
+      deadline = durationNanos == 0 ? Long.MAX_VALUE : start + durationNanos;
+      nextSlot = 0;
+   }
+
+   /**
+    * Waits until the next message can be posted
+    * 
+    * @return false if the duration of the step has elapsed and no more message must be posted
+    */
+   boolean acquire() throws InterruptedException {
+      long sendTime;
+      synchronized (this) {
+         long now = System.nanoTime();
+         if (now - deadline >= 0) {
+            return false;
+         }
+         if (rate == 0) {
+            return true;
+         }
+
+         sendTime = start + sendTimeOffset(nextSlot);
+
+         // Too late on the schedule: shift the schedule to limit the burst
+         long lateness = now - sendTime - MAX_BURST_SECONDS * NANOS_PER_SECOND;
+         if (lateness > 0) {
+            start += lateness;
+            sendTime += lateness;
+         }
+
+         if (sendTime - deadline >= 0) {
+            return false;
+         }
+         nextSlot++;
+      }
+
+      long remaining;
+      while ((remaining = sendTime - System.nanoTime()) > 0) {
+         LockSupport.parkNanos(remaining);
+         if (Thread.interrupted()) {
+            throw new InterruptedException();
+         }
+      }
+      return true;
+   }
+
+   boolean isExpired() {
+      return (durationNanos != 0) && (System.nanoTime() - deadline >= 0);
+   }
+
+   double getTargetRate() {
+      return rate;
+   }
+
+   // -------
+   // Helpers
+   // -------
+
+   // Offset from the start of the send time of message n (0-based)
+   // The number of messages sent at time t is rate.t^2/(2.rampUpSecs) during the ramp-up, then increases by rate per second
+   private long sendTimeOffset(long n) {
+      double rampUpMessages = rate * rampUpSecs / 2;
+      double t;
+      if (n < rampUpMessages) {
+         t = Math.sqrt(2 * n * rampUpSecs / rate);
+      } else {
+         t = rampUpSecs + (n - rampUpMessages) / rate;
+      }
+      return (long) (t * NANOS_PER_SECOND);
+   }
+}
@@ -0,0 +1,286 @@
+/*
+ * Copyright (C) 2019 Denis Forveille titou10.titou10@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.titou10.jtb.script;
+
+import java.util.Map.Entry;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.Session;
+import javax.jms.TemporaryQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.titou10.jtb.jms.model.JTBConnection;
+import org.titou10.jtb.jms.model.JTBDestination;
+import org.titou10.jtb.jms.model.JTBMessage;
+import org.titou10.jtb.jms.model.JTBMessageType;
+import org.titou10.jtb.jms.model.JTBWorkerProducer;
+import org.titou10.jtb.util.LatencyHistogram;
+
+/**
+ * Sends the requests of a "request/reply" step and measures the round-trip time of the replies
+ * 
+ * Each request gets a unique JMSCorrelationID and a JMSReplyTo set to a temporary queue or to a named queue. The replies
+ * are received asynchronously and matched on their JMSCorrelationID, so up to "maxInFlight" requests are waiting for their
+ * reply at the same time. A request without reply after the timeout is counted as timed out and frees its place
+ * 
+ * @author Denis Forveille
+ *
+ */
+final class StepRequestor implements AutoCloseable {
+
+   private static final Logger                   log           = LoggerFactory.getLogger(StepRequestor.class);
+
+   // Interval between two checks of the timeouts, in ms
+   private static final long                     POLL_INTERVAL = 50;
+
+   private final JTBWorkerProducer               producer;
+   private final Session                         replySession;
+   private final Destination                     replyDestination;
+   private final TemporaryQueue                  temporaryQueue;
+   private final MessageConsumer                 consumer;
+
+   private final Semaphore                       inFlight;
+   private final long                            timeoutNanos;
+   private final String                          correlationIDPrefix;
+   private final AtomicLong                      sequence      = new AtomicLong();
+
+   // Send time of the requests waiting for a reply, per JMSCorrelationID
+   private final ConcurrentHashMap<String, Long> pending       = new ConcurrentHashMap<>();
+
+   private final LatencyHistogram                roundTrip     = new LatencyHistogram();
+   private final AtomicInteger                   nbReplies     = new AtomicInteger();
+   private final AtomicInteger                   nbTimeouts    = new AtomicInteger();
+   private final AtomicInteger                   nbUnexpected  = new AtomicInteger();
+
+   // -----------
+   // Constructor
+   // -----------
+   private StepRequestor(JTBWorkerProducer producer,
+                         Session replySession,
+                         Destination replyDestination,
+                         TemporaryQueue temporaryQueue,
+                         String correlationIDPrefix,
+                         int maxInFlight,
+                         int timeoutSecs) throws JMSException {
+      this.producer = producer;
+      this.replySession = replySession;
+      this.replyDestination = replyDestination;
+      this.temporaryQueue = temporaryQueue;
+      this.correlationIDPrefix = correlationIDPrefix;
+      this.inFlight = new Semaphore(maxInFlight);
+      this.timeoutNanos = TimeUnit.SECONDS.toNanos(timeoutSecs);
+
+      // On a named queue, only receive the replies to this step
+      String selector = temporaryQueue == null ? "JMSCorrelationID LIKE '" + correlationIDPrefix + "%'" : null;
+      this.consumer = replySession.createConsumer(replyDestination, selector);
+      this.consumer.setMessageListener(this::onReply);
+   }
+
+   /**
+    * Opens the JMS sessions used to send the requests and to receive the replies
+    * 
+    * @param replyToDestinationName
+    *           name of the queue where the replies are sent. null = a temporary queue
+    */
+   static StepRequestor open(JTBConnection jtbConnection,
+                             JTBDestination jtbDestination,
+                             String replyToDestinationName,
+                             int maxInFlight,
+                             int timeoutSecs) throws JMSException {
+
+      String correlationIDPrefix = "JTB-" + UUID.randomUUID().toString() + "-";
+
+      JTBWorkerProducer producer = jtbConnection.createWorkerProducer(jtbDestination);
+      Session replySession = null;
+      try {
+         replySession = jtbConnection.createWorkerSession();
+         TemporaryQueue temporaryQueue = null;
+         Destination replyDestination;
+         if (replyToDestinationName == null) {
+            temporaryQueue = replySession.createTemporaryQueue();
+            replyDestination = temporaryQueue;
+         } else {
+            replyDestination = replySession.createQueue(replyToDestinationName);
+         }
+         log.debug("Requests to {} with replies to {}", jtbDestination.getName(), replyDestination);
+
+         return new StepRequestor(producer,
+                                  replySession,
+                                  replyDestination,
+                                  temporaryQueue,
+                                  correlationIDPrefix,
+                                  maxInFlight,
+                                  timeoutSecs);
+      } catch (JMSException e) {
+         if (replySession != null) {
+            replySession.close();
+         }
+         producer.close();
+         throw e;
+      }
+   }
+
+   // ---------------
+   // Business Logic
+   // ---------------
+
+   Message createJMSMessage(JTBMessageType jtbMessageType) throws JMSException {
+      return producer.createJMSMessage(jtbMessageType);
+   }
+
+   /**
+    * Waits for a place if "maxInFlight" requests are already waiting for their reply. Must be called before each
+    * {@link #send(JTBMessage)}
+    */
+   void awaitSlot() throws InterruptedException {
+      while (!inFlight.tryAcquire(POLL_INTERVAL, TimeUnit.MILLISECONDS)) {
+         expire();
+      }
+   }
+
+   void send(JTBMessage jtbMessage) throws JMSException {
+      String correlationID = correlationIDPrefix + sequence.incrementAndGet();
+
+      Message m = jtbMessage.getJmsMessage();
+      m.setJMSCorrelationID(correlationID);
+      m.setJMSReplyTo(replyDestination);
+      jtbMessage.setReplyToDestinationName(null); // Do not let the template override the JMSReplyTo
+
+      // Register the request before sending it: the reply may arrive before send() returns
+      pending.put(correlationID, System.nanoTime());
+      try {
+         producer.send(jtbMessage);
+      } catch (JMSException e) {
+         if (pending.remove(correlationID) != null) {
+            inFlight.release();
+         }
+         throw e;
+      }
+   }
+
+   /**
+    * Waits for the replies of the requests sent
+    * 
+    * @return true if no request is waiting for a reply anymore, false if some are still waiting after "maxWaitMillis"
+    */
+   boolean awaitReplies(long maxWaitMillis) throws InterruptedException {
+      long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+      while (!pending.isEmpty()) {
+         expire();
+         if (System.nanoTime() - end >= 0) {
+            return pending.isEmpty();
+         }
+         TimeUnit.MILLISECONDS.sleep(Math.min(POLL_INTERVAL, maxWaitMillis));
+      }
+      return true;
+   }
+
+   int getNbPending() {
+      return pending.size();
+   }
+
+   int getNbReplies() {
+      return nbReplies.get();
+   }
+
+   int getNbTimeouts() {
+      return nbTimeouts.get();
+   }
+
+   int getNbUnexpected() {
+      return nbUnexpected.get();
+   }
+
+   void addRoundTripLatency(LatencyHistogram histogram) {
+      synchronized (roundTrip) {
+         histogram.add(roundTrip);
+      }
+   }
+
+   @Override
+   public void close() {
+      try {
+         consumer.close();
+         if (temporaryQueue != null) {
+            temporaryQueue.delete();
+         }
+         replySession.close();
+      } catch (JMSException e) {
+         log.warn("Exception occurred when closing the reply session. Ignoring", e);
+      }
+
+      // Requests still pending are considered as timed out
+      nbTimeouts.addAndGet(pending.size());
+      pending.clear();
+      try {
+         producer.close();
+      } catch (JMSException e) {
+         log.warn("Exception occurred when closing the request session. Ignoring", e);
+      }
+   }
+
+   // -------
+   // Helpers
+   // -------
+
+   // Called by the JMS provider thread of the reply session
+   private void onReply(Message reply) {
+      long now = System.nanoTime();
+
+      Long sendTime = null;
+      try {
+         String correlationID = reply.getJMSCorrelationID();
+         if (correlationID != null) {
+            sendTime = pending.remove(correlationID);
+         }
+      } catch (JMSException e) {
+         log.warn("Exception occurred when reading the JMSCorrelationID of a reply", e);
+      }
+
+      // Reply received after the timeout, or not a reply to this step
+      if (sendTime == null) {
+         nbUnexpected.incrementAndGet();
+         return;
+      }
+
+      synchronized (roundTrip) {
+         roundTrip.record(now - sendTime);
+      }
+      nbReplies.incrementAndGet();
+      inFlight.release();
+   }
+
+   private void expire() {
+      long now = System.nanoTime();
+      for (Entry<String, Long> e : pending.entrySet()) {
+         if ((now - e.getValue() > timeoutNanos) && (pending.remove(e.getKey(), e.getValue()))) {
+            nbTimeouts.incrementAndGet();
+            inFlight.release();
+         }
+      }
+   }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2019 Denis Forveille titou10.titou10@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.titou10.jtb.script;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.titou10.jtb.jms.model.JTBConnection;
+import org.titou10.jtb.jms.model.JTBDestination;
+import org.titou10.jtb.jms.model.JTBMessage;
+import org.titou10.jtb.jms.model.JTBMessageType;
+import org.titou10.jtb.jms.model.JTBWorkerProducer;
+
+/**
+ * Sends the messages of a "regular" step posted from the thread of the script
+ * 
+ * The messages are sent in a transacted session committed every "commitEvery" messages, instead of one commit per message. The
+ * messages not committed when the sender is closed are rolled back
+ * 
+ * @author Denis Forveille
+ *
+ */
+final class StepSender implements AutoCloseable {
+
+   private static final Logger     log = LoggerFactory.getLogger(StepSender.class);
+
+   private final JTBWorkerProducer producer;
+   private final int               commitEvery;
+
+   private int                     nbUncommitted;
+
+   // -----------
+   // Constructor
+   // -----------
+   private StepSender(JTBWorkerProducer producer, int commitEvery) {
+      this.producer = producer;
+      this.commitEvery = commitEvery;
+   }
+
+   // Opens the transacted JMS session used to send the messages
+   static StepSender open(JTBConnection jtbConnection, JTBDestination jtbDestination, int commitEvery) throws JMSException {
+      log.debug("Send to {}, commit every {} messages", jtbDestination.getName(), commitEvery);
+      return new StepSender(jtbConnection.createTransactedWorkerProducer(jtbDestination), commitEvery);
+   }
+
+   // ---------------
+   // Business Logic
+   // ---------------
+
+   Message createJMSMessage(JTBMessageType jtbMessageType) throws JMSException {
+      return producer.createJMSMessage(jtbMessageType);
+   }
+
+   // Sends one message and commits the transaction when "commitEvery" messages have been sent
+   void send(JTBMessage jtbMessage) throws JMSException {
+      producer.send(jtbMessage);
+      if (++nbUncommitted >= commitEvery) {
+         commit();
+      }
+   }
+
+   // Commits the messages sent since the last commit
+   void commit() throws JMSException {
+      if (nbUncommitted == 0) {
+         return;
+      }
+      producer.commit();
+      nbUncommitted = 0;
+   }
+
+   // Messages not committed are rolled back
+   @Override
+   public void close() {
+      try {
+         if (nbUncommitted > 0) {
+            log.warn("{} messages sent but not committed are rolled back", nbUncommitted);
+            producer.rollback();
+         }
+         producer.close();
+      } catch (JMSException e) {
+         log.warn("Exception occurred when closing the send session. Ignoring", e);
+      }
+   }
+
+}
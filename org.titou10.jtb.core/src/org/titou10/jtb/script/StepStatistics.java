@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2019 Denis Forveille titou10.titou10@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.titou10.jtb.script;
+
+import java.util.concurrent.TimeUnit;
+
+import org.titou10.jtb.script.gen.StepKind;
+import org.titou10.jtb.util.LatencyHistogram;
+
+/**
+ * Statistics of the execution of a "regular", "request/reply" or "consume" step of a script
+ * 
+ * @author Denis Forveille
+ *
+ */
+public final class StepStatistics {
+
+   private final StepKind         kind;
+   private final String           templateName;
+   private final String           destinationName;
+   private final int              nbThreads;
+   private final Integer          targetRate;
+
+   private int                    nbMessages;
+   private long                   elapsedNanos;
+
+   // Time spent to build the messages (template copy and variables replacement) and to send them
+   private final LatencyHistogram prepareLatency = new LatencyHistogram();
+   private final LatencyHistogram sendLatency    = new LatencyHistogram();
+   private long                   nbBytes;
+
+   // Messages received by the step: round-trip time of the replies for "request/reply" steps, end-to-end latency of the
+   // messages for "consume" steps
+   private final LatencyHistogram receiveLatency = new LatencyHistogram();
+   private int                    nbReceived;
+   private int                    nbTimeouts;
+
+   // "consume" steps: size of the messages received and time from the start of the step to the last message received
+   private long                   nbReceivedBytes;
+   private long                   drainNanos;
+
+   // -----------
+   // Constructor
+   // -----------
+   StepStatistics(StepKind kind, String templateName, String destinationName, int nbThreads, Integer targetRate) {
+      this.kind = kind;
+      this.templateName = templateName;
+      this.destinationName = destinationName;
+      this.nbThreads = nbThreads;
+      this.targetRate = targetRate;
+   }
+
+   // -------
+   // Methods
+   // -------
+
+   public double getAchievedRate() {
+      return elapsedNanos == 0 ? 0 : nbMessages * 1_000_000_000d / elapsedNanos;
+   }
+
+   public long getElapsedMillis() {
+      return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+   }
+
+   public double getBytesRate() {
+      return elapsedNanos == 0 ? 0 : nbBytes * 1_000_000_000d / elapsedNanos;
+   }
+
+   public double getDrainRate() {
+      return drainNanos == 0 ? 0 : nbReceived * 1_000_000_000d / drainNanos;
+   }
+
+   public double getReceivedBytesRate() {
+      return drainNanos == 0 ? 0 : nbReceivedBytes * 1_000_000_000d / drainNanos;
+   }
+
+   public long getDrainMillis() {
+      return TimeUnit.NANOSECONDS.toMillis(drainNanos);
+   }
+
+   void recordPrepare(long nanos) {
+      prepareLatency.record(nanos);
+   }
+
+   void recordSend(long nanos, long bytes) {
+      sendLatency.record(nanos);
+      nbBytes += bytes;
+   }
+
+   // Merge the latencies recorded by a thread of the step
+   synchronized void add(LatencyHistogram prepare, LatencyHistogram send, long bytes) {
+      prepareLatency.add(prepare);
+      sendLatency.add(send);
+      nbBytes += bytes;
+   }
+
+   // ------------------------
+   // Standard Getters/Setters
+   // ------------------------
+
+   public StepKind getKind() {
+      return kind;
+   }
+
+   public String getTemplateName() {
+      return templateName;
+   }
+
+   public String getDestinationName() {
+      return destinationName;
+   }
+
+   public int getNbThreads() {
+      return nbThreads;
+   }
+
+   public Integer getTargetRate() {
+      return targetRate;
+   }
+
+   public int getNbMessages() {
+      return nbMessages;
+   }
+
+   void setNbMessages(int nbMessages) {
+      this.nbMessages = nbMessages;
+   }
+
+   public long getElapsedNanos() {
+      return elapsedNanos;
+   }
+
+   void setElapsedNanos(long elapsedNanos) {
+      this.elapsedNanos = elapsedNanos;
+   }
+
+   public LatencyHistogram getPrepareLatency() {
+      return prepareLatency;
+   }
+
+   public LatencyHistogram getSendLatency() {
+      return sendLatency;
+   }
+
+   public long getNbBytes() {
+      return nbBytes;
+   }
+
+   public LatencyHistogram getReceiveLatency() {
+      return receiveLatency;
+   }
+
+   public int getNbReceived() {
+      return nbReceived;
+   }
+
+   void setNbReceived(int nbReceived) {
+      this.nbReceived = nbReceived;
+   }
+
+   public int getNbTimeouts() {
+      return nbTimeouts;
+   }
+
+   void setNbTimeouts(int nbTimeouts) {
+      this.nbTimeouts = nbTimeouts;
+   }
+
+   public long getNbReceivedBytes() {
+      return nbReceivedBytes;
+   }
+
+   void setNbReceivedBytes(long nbReceivedBytes) {
+      this.nbReceivedBytes = nbReceivedBytes;
+   }
+
+   public long getDrainNanos() {
+      return drainNanos;
+   }
+
+   void setDrainNanos(long drainNanos) {
+      this.drainNanos = drainNanos;
+   }
+
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright (C) 2019 Denis Forveille titou10.titou10@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.titou10.jtb.script.dialog;
+
+import org.eclipse.jface.dialogs.Dialog;
+import org.eclipse.jface.dialogs.MessageDialog;
+import org.eclipse.jface.window.Window;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.BusyIndicator;
+import org.eclipse.swt.events.SelectionListener;
+import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.layout.GridData;
+import org.eclipse.swt.layout.GridLayout;
+import org.eclipse.swt.widgets.Button;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Spinner;
+import org.eclipse.swt.widgets.Text;
+import org.titou10.jtb.config.ConfigManager;
+import org.titou10.jtb.jms.model.JTBConnection;
+import org.titou10.jtb.jms.model.JTBDestination;
+import org.titou10.jtb.jms.model.JTBSession;
+import org.titou10.jtb.jms.model.JTBSessionClientType;
+import org.titou10.jtb.script.gen.Script;
+import org.titou10.jtb.script.gen.Step;
+import org.titou10.jtb.sessiontype.SessionTypeManager;
+import org.titou10.jtb.ui.JTBStatusReporter;
+import org.titou10.jtb.util.Utils;
+
+/**
+ * 
+ * Dialog to create a new Step of kind "consume" in a Script
+ * 
+ * @author Denis Forveille
+ *
+ */
+public class ScriptNewConsumeDialog extends Dialog {
+
+   private JTBStatusReporter  jtbStatusReporter;
+   private ConfigManager      cm;
+   private SessionTypeManager sessionTypeManager;
+   private Step               step;
+   private Script             script;
+
+   private String             sessionName;
+   private String             destinationName;
+
+   private Label              lblSessionName;
+   private Label              lblDestinationName;
+   private Text               txtSelector;
+   private Spinner            countSpinner;
+   private Spinner            timeoutSpinner;
+   private Spinner            commitEverySpinner;
+   private Spinner            delaySpinner;
+
+   private Button             btnChooseDestination;
+
+   public ScriptNewConsumeDialog(Shell parentShell,
+                                 JTBStatusReporter jtbStatusReporter,
+                                 ConfigManager cm,
+                                 SessionTypeManager sessionTypeManager,
+                                 Step step,
+                                 Script script) {
+      super(parentShell);
+      setShellStyle(SWT.RESIZE | SWT.TITLE | SWT.PRIMARY_MODAL);
+      this.jtbStatusReporter = jtbStatusReporter;
+      this.cm = cm;
+      this.sessionTypeManager = sessionTypeManager;
+      this.step = step;
+      this.script = script;
+   }
+
+   @Override
+   protected void configureShell(Shell newShell) {
+      super.configureShell(newShell);
+      newShell.setText(script.getName() + ": Add/Edit a consume step");
+   }
+
+   @Override
+   protected Point getInitialSize() {
+      Point p = super.getInitialSize();
+      return new Point(600, p.y);
+   }
+
+   @Override
+   protected Control createDialogArea(Composite parent) {
+      final Composite container = (Composite) super.createDialogArea(parent);
+      container.setLayout(new GridLayout(3, false));
+
+      // Session
+
+      Label lbl1 = new Label(container, SWT.NONE);
+      lbl1.setLayoutData(new GridData(SWT.RIGHT, SWT.CENTER, false, false, 1, 1));
+      lbl1.setText("Session:");
+
+      lblSessionName = new Label(container, SWT.BORDER | SWT.SHADOW_NONE);
+      lblSessionName.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 1, 1));
+
+      Button btnChooseSession = new Button(container, SWT.NONE);
+      btnChooseSession.setText("Select...");
+      btnChooseSession.addSelectionListener(SelectionListener.widgetSelectedAdapter(e -> {
+         // Dialog to choose a Session
+         SessionChooserDialog dialog1 = new SessionChooserDialog(getShell(), cm);
+         if (dialog1.open() == Window.OK) {
+
+            JTBSession jtbSession = dialog1.getSelectedJTBSession();
+            if (jtbSession != null) {
+               // Reset Destination if session name changed
+               if (!(jtbSession.getName().equals(sessionName))) {
+                  destinationName = "";
+                  lblDestinationName.setText(destinationName);
+               }
+               sessionName = jtbSession.getName();
+               lblSessionName.setText(sessionName);
+
+               btnChooseDestination.setEnabled(true);
+            }
+         }
+      }));
+
+      // Destination
+
+      Label lbl2 = new Label(container, SWT.NONE);
+      lbl2.setLayoutData(new GridData(SWT.RIGHT, SWT.CENTER, false, false, 1, 1));
+      lbl2.setText("Destination:");
+
+      lblDestinationName = new Label(container, SWT.BORDER | SWT.SHADOW_NONE);
+      lblDestinationName.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 1, 1));
+
+      btnChooseDestination = new Button(container, SWT.NONE);
+      btnChooseDestination.setText("Select...");
+      btnChooseDestination.addSelectionListener(SelectionListener.widgetSelectedAdapter(e -> {
+         // Connect to session, get list of destinations
+         final JTBSession jtbSession = cm.getJTBSessionByName(sessionName);
+         if (jtbSession == null) {
+            jtbStatusReporter.showError("It seems session '" + sessionName + "' does not exist", null);
+            return;
+         }
+
+         final JTBConnection jtbConnection = jtbSession.getJTBConnection(JTBSessionClientType.SCRIPT);
+         if (!(jtbConnection.isConnected())) {
+            BusyIndicator.showWhile(Display.getCurrent(), () -> {
+               try {
+                  jtbConnection.connect();
+               } catch (Throwable e1) {
+                  jtbStatusReporter.showError("Connect unsuccessful", e1, jtbSession.getName());
+               }
+            });
+         }
+         // Retest to check is the connect was successfull...
+         if (!(jtbConnection.isConnected())) {
+            return;
+         }
+
+         // Dialog to choose a destination
+         DestinationChooserDialog dialog1 = new DestinationChooserDialog(getShell(), sessionTypeManager, jtbSession);
+         if (dialog1.open() == Window.OK) {
+            JTBDestination jtbDestination = dialog1.getSelectedJTBDestination();
+            if (jtbDestination != null) {
+               destinationName = jtbDestination.getName();
+               lblDestinationName.setText(destinationName);
+            }
+         }
+      }));
+
+      // Selector
+
+      Label lbl3 = new Label(container, SWT.NONE);
+      lbl3.setLayoutData(new GridData(SWT.RIGHT, SWT.CENTER, false, false, 1, 1));
+      lbl3.setText("Selector:");
+
+      txtSelector = new Text(container, SWT.BORDER);
+      txtSelector.setToolTipText("JMS selector of the messages to consume. Empty = all the messages");
+      txtSelector.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 2, 1));
+
+      // Count and timeout
+
+      Label lbl4 = new Label(container, SWT.NONE);
+      lbl4.setLayoutData(new GridData(SWT.RIGHT, SWT.CENTER, false, false, 1, 1));
+      lbl4.setText("Consume");
+
+      Composite countComposite = new Composite(container, SWT.NONE);
+      countComposite.setLayoutData(new GridData(SWT.LEFT, SWT.CENTER, false, false, 2, 1));
+      GridLayout glCountComposite = new GridLayout(4, false);
+      glCountComposite.marginWidth = 0;
+      countComposite.setLayout(glCountComposite);
+
+      countSpinner = new Spinner(countComposite, SWT.BORDER);
+      countSpinner.setToolTipText("The step ends when this number of messages has been consumed");
+      countSpinner.setMinimum(1);
+      countSpinner.setMaximum(999999);
+      countSpinner.setPageIncrement(10);
+      countSpinner.setTextLimit(6);
+      countSpinner.setSelection(1);
+
+      Label lbl5 = new Label(countComposite, SWT.NONE);
+      lbl5.setText(" message(s), timeout");
+
+      timeoutSpinner = new Spinner(countComposite, SWT.BORDER);
+      timeoutSpinner.setToolTipText("The step ends after this delay even if not all the messages have been consumed");
+      timeoutSpinner.setMinimum(1);
+      timeoutSpinner.setMaximum(99999);
+      timeoutSpinner.setPageIncrement(10);
+      timeoutSpinner.setTextLimit(5);
+      timeoutSpinner.setSelection(60);
+
+      Label lbl6 = new Label(countComposite, SWT.NONE);
+      lbl6.setText(" s");
+
+      // Commit
+
+      Label lbl7 = new Label(container, SWT.NONE);
+      lbl7.setLayoutData(new GridData(SWT.RIGHT, SWT.CENTER, false, false, 1, 1));
+      lbl7.setText("Commit every");
+
+      Composite commitComposite = new Composite(container, SWT.NONE);
+      commitComposite.setLayoutData(new GridData(SWT.LEFT, SWT.CENTER, false, false, 2, 1));
+      GridLayout glCommitComposite = new GridLayout(2, false);
+      glCommitComposite.marginWidth = 0;
+      commitComposite.setLayout(glCommitComposite);
+
+      commitEverySpinner = new Spinner(commitComposite, SWT.BORDER);
+      commitEverySpinner.setToolTipText("Number of messages received in the same transaction");
+      commitEverySpinner.setMinimum(1);
+      commitEverySpinner.setMaximum(99999);
+      commitEverySpinner.setPageIncrement(10);
+      commitEverySpinner.setTextLimit(5);
+      commitEverySpinner.setSelection(100);
+
+      Label lbl8 = new Label(commitComposite, SWT.NONE);
+      lbl8.setText(" message(s)");
+
+      // Pause
+
+      Label lbl9 = new Label(container, SWT.NONE);
+      lbl9.setLayoutData(new GridData(SWT.RIGHT, SWT.CENTER, false, false, 1, 1));
+      lbl9.setText("Pause for");
+
+      Composite pauseComposite = new Composite(container, SWT.NONE);
+      pauseComposite.setLayoutData(new GridData(SWT.LEFT, SWT.CENTER, false, false, 2, 1));
+      GridLayout glPauseComposite = new GridLayout(2, false);
+      glPauseComposite.marginWidth = 0;
+      pauseComposite.setLayout(glPauseComposite);
+
+      delaySpinner = new Spinner(pauseComposite, SWT.BORDER);
+      delaySpinner.setMinimum(0);
+      delaySpinner.setMaximum(9999);
+      delaySpinner.setPageIncrement(10);
+      delaySpinner.setTextLimit(4);
+      delaySpinner.setSelection(0);
+
+      Label lbl10 = new Label(pauseComposite, SWT.NONE);
+      lbl10.setText(" second(s) after this step");
+
+      // Populate Fields
+      sessionName = step.getSessionName();
+      destinationName = step.getDestinationName();
+
+      lblSessionName.setText(sessionName == null ? "" : sessionName);
+      lblDestinationName.setText(destinationName == null ? "" : destinationName);
+      txtSelector.setText(step.getSelector() == null ? "" : step.getSelector());
+      countSpinner.setSelection(step.getIterations());
+      timeoutSpinner.setSelection(step.getTimeoutSecs() == null ? 60 : step.getTimeoutSecs());
+      commitEverySpinner.setSelection(step.getCommitEvery() == null ? 100 : step.getCommitEvery());
+      delaySpinner.setSelection(step.getPauseSecsAfter());
+
+      btnChooseDestination.setEnabled(Utils.isNotEmpty(sessionName));
+
+      return container;
+   }
+
+   @Override
+   protected void okPressed() {
+
+      if (Utils.isEmpty(sessionName)) {
+         MessageDialog.openError(getShell(), "Error", "A session is mandatory");
+         return;
+      }
+
+      if (Utils.isEmpty(destinationName)) {
+         MessageDialog.openError(getShell(), "Error", "A destination is mandatory");
+         return;
+      }
+
+      // Populate fields
+
+      step.setSessionName(sessionName);
+      step.setDestinationName(destinationName);
+      step.setSelector(Utils.isEmpty(txtSelector.getText()) ? null : txtSelector.getText().trim());
+      step.setIterations(countSpinner.getSelection());
+      step.setTimeoutSecs(timeoutSpinner.getSelection());
+      step.setCommitEvery(commitEverySpinner.getSelection());
+      step.setPauseSecsAfter(delaySpinner.getSelection());
+
+      super.okPressed();
+   }
+
+   // ----------------
+   // Standard Getters
+   // ----------------
+   public Step getStep() {
+      return step;
+   }
+
+}
@@ -43,6 +43,7 @@ import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.Shell;
 import org.eclipse.swt.widgets.Spinner;
+import org.eclipse.swt.widgets.Text;
 import org.eclipse.wb.swt.SWTResourceManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -56,6 +57,7 @@ import org.titou10.jtb.script.ScriptsManager;
 import org.titou10.jtb.script.gen.DataFile;
 import org.titou10.jtb.script.gen.Script;
 import org.titou10.jtb.script.gen.Step;
+import org.titou10.jtb.script.gen.StepKind;
 import org.titou10.jtb.sessiontype.SessionTypeManager;
 import org.titou10.jtb.template.TemplatesManager;
 import org.titou10.jtb.template.TemplatesManager.TemplateNameStructure;
@@ -92,6 +94,7 @@ public class ScriptNewStepDialog extends Dialog {
    private String                payloadDirectory;
    private Integer               delay;
    private Integer               iterations;
+   private Integer               threads;
 
    private Label                 lblTemplateName;
    private Label                 lblSessionName;
@@ -100,6 +103,14 @@ public class ScriptNewStepDialog extends Dialog {
    private Label                 lblPayloadDirectory;
    private Spinner               delaySpinner;
    private Spinner               iterationsSpinner;
+   private Spinner               threadsSpinner;
+   private Spinner               rateSpinner;
+   private Spinner               rampUpSpinner;
+   private Spinner               durationSpinner;
+   private Button                btnWaitReplies;
+   private Text                  txtReplyTo;
+   private Spinner               maxInFlightSpinner;
+   private Spinner               timeoutSpinner;
 
    private Button                btnChooseDestination;
 
@@ -369,19 +380,125 @@ public class ScriptNewStepDialog extends Dialog {
 
       Composite repeatComposite = new Composite(container, SWT.NONE);
       repeatComposite.setLayoutData(new GridData(SWT.LEFT, SWT.CENTER, false, false, 2, 1));
-      GridLayout glRrepeatComposite = new GridLayout(2, false);
+      GridLayout glRrepeatComposite = new GridLayout(4, false);
       glRrepeatComposite.marginWidth = 0;
       repeatComposite.setLayout(glRrepeatComposite);
 
       iterationsSpinner = new Spinner(repeatComposite, SWT.BORDER);
       iterationsSpinner.setMinimum(1);
-      iterationsSpinner.setMaximum(9999);
+      iterationsSpinner.setMaximum(999999);
       iterationsSpinner.setPageIncrement(10);
-      iterationsSpinner.setTextLimit(4);
+      iterationsSpinner.setTextLimit(6);
       iterationsSpinner.setSelection(1);
 
       Label lbl6 = new Label(repeatComposite, SWT.NONE);
-      lbl6.setText(" time(s)");
+      lbl6.setText(" time(s), using");
+
+      threadsSpinner = new Spinner(repeatComposite, SWT.BORDER);
+      threadsSpinner.setToolTipText("Number of threads posting the messages in parallel, each with its own JMS session (load test)");
+      threadsSpinner.setMinimum(1);
+      threadsSpinner.setMaximum(64);
+      threadsSpinner.setPageIncrement(4);
+      threadsSpinner.setTextLimit(2);
+      threadsSpinner.setSelection(1);
+
+      Label lbl10 = new Label(repeatComposite, SWT.NONE);
+      lbl10.setText(" thread(s)");
+
+      // Rate
+
+      Label lbl11 = new Label(container, SWT.NONE);
+      lbl11.setLayoutData(new GridData(SWT.RIGHT, SWT.CENTER, false, false, 2, 1));
+      lbl11.setText("Post at");
+
+      Composite rateComposite = new Composite(container, SWT.NONE);
+      rateComposite.setLayoutData(new GridData(SWT.LEFT, SWT.CENTER, false, false, 2, 1));
+      GridLayout glRateComposite = new GridLayout(6, false);
+      glRateComposite.marginWidth = 0;
+      rateComposite.setLayout(glRateComposite);
+
+      rateSpinner = new Spinner(rateComposite, SWT.BORDER);
+      rateSpinner.setToolTipText("Target rate of the posts for the whole step, all threads included. 0 = as fast as possible");
+      rateSpinner.setMinimum(0);
+      rateSpinner.setMaximum(999999);
+      rateSpinner.setPageIncrement(10);
+      rateSpinner.setTextLimit(6);
+      rateSpinner.setSelection(0);
+
+      Label lbl12 = new Label(rateComposite, SWT.NONE);
+      lbl12.setText(" msg/s, ramp-up of");
+
+      rampUpSpinner = new Spinner(rateComposite, SWT.BORDER);
+      rampUpSpinner.setToolTipText("Duration of the linear increase of the rate from 0 to the target rate");
+      rampUpSpinner.setMinimum(0);
+      rampUpSpinner.setMaximum(9999);
+      rampUpSpinner.setPageIncrement(10);
+      rampUpSpinner.setTextLimit(4);
+      rampUpSpinner.setSelection(0);
+
+      Label lbl13 = new Label(rateComposite, SWT.NONE);
+      lbl13.setText(" s, stop after");
+
+      durationSpinner = new Spinner(rateComposite, SWT.BORDER);
+      durationSpinner.setToolTipText("Stop the step after this duration, even if all the iterations have not been posted. 0 = no limit");
+      durationSpinner.setMinimum(0);
+      durationSpinner.setMaximum(99999);
+      durationSpinner.setPageIncrement(10);
+      durationSpinner.setTextLimit(5);
+      durationSpinner.setSelection(0);
+
+      Label lbl14 = new Label(rateComposite, SWT.NONE);
+      lbl14.setText(" s");
+
+      // Request/Reply
+
+      Label lbl15 = new Label(container, SWT.NONE);
+      lbl15.setLayoutData(new GridData(SWT.RIGHT, SWT.CENTER, false, false, 2, 1));
+      lbl15.setText("Wait for replies");
+
+      Composite repliesComposite = new Composite(container, SWT.NONE);
+      repliesComposite.setLayoutData(new GridData(SWT.LEFT, SWT.CENTER, false, false, 2, 1));
+      GridLayout glRepliesComposite = new GridLayout(8, false);
+      glRepliesComposite.marginWidth = 0;
+      repliesComposite.setLayout(glRepliesComposite);
+
+      btnWaitReplies = new Button(repliesComposite, SWT.CHECK);
+      btnWaitReplies.setToolTipText("Set JMSReplyTo and a unique JMSCorrelationID on each message and measure the round-trip time of the replies");
+      btnWaitReplies.addSelectionListener(SelectionListener.widgetSelectedAdapter(e -> enableRepliesFields()));
+
+      Label lbl16 = new Label(repliesComposite, SWT.NONE);
+      lbl16.setText("on queue");
+
+      txtReplyTo = new Text(repliesComposite, SWT.BORDER);
+      txtReplyTo.setToolTipText("Queue where the replies are sent. Empty = a temporary queue");
+      GridData gdReplyTo = new GridData(SWT.LEFT, SWT.CENTER, false, false, 1, 1);
+      gdReplyTo.widthHint = 150;
+      txtReplyTo.setLayoutData(gdReplyTo);
+
+      Label lbl19 = new Label(repliesComposite, SWT.NONE);
+      lbl19.setText(", max");
+
+      maxInFlightSpinner = new Spinner(repliesComposite, SWT.BORDER);
+      maxInFlightSpinner.setToolTipText("Maximum number of requests waiting for their reply at the same time");
+      maxInFlightSpinner.setMinimum(1);
+      maxInFlightSpinner.setMaximum(9999);
+      maxInFlightSpinner.setPageIncrement(10);
+      maxInFlightSpinner.setTextLimit(4);
+      maxInFlightSpinner.setSelection(1);
+
+      Label lbl17 = new Label(repliesComposite, SWT.NONE);
+      lbl17.setText(" in flight, timeout");
+
+      timeoutSpinner = new Spinner(repliesComposite, SWT.BORDER);
+      timeoutSpinner.setToolTipText("A request without reply after this delay is counted as timed out");
+      timeoutSpinner.setMinimum(1);
+      timeoutSpinner.setMaximum(9999);
+      timeoutSpinner.setPageIncrement(10);
+      timeoutSpinner.setTextLimit(4);
+      timeoutSpinner.setSelection(30);
+
+      Label lbl18 = new Label(repliesComposite, SWT.NONE);
+      lbl18.setText(" s");
 
       // Pause
 
@@ -413,6 +530,7 @@ public class ScriptNewStepDialog extends Dialog {
       payloadDirectory = step.getPayloadDirectory();
       delay = step.getPauseSecsAfter();
       iterations = step.getIterations();
+      threads = step.getThreads();
 
       lblTemplateName.setText(tns == null ? "" : tns.getSyntheticName());
       lblSessionName.setText(sessionName == null ? "" : sessionName);
@@ -426,6 +544,15 @@ public class ScriptNewStepDialog extends Dialog {
       }
       delaySpinner.setSelection(delay);
       iterationsSpinner.setSelection(iterations);
+      threadsSpinner.setSelection(threads == null ? 1 : threads);
+      rateSpinner.setSelection(step.getRate() == null ? 0 : step.getRate());
+      rampUpSpinner.setSelection(step.getRampUpSecs() == null ? 0 : step.getRampUpSecs());
+      durationSpinner.setSelection(step.getDurationSecs() == null ? 0 : step.getDurationSecs());
+      btnWaitReplies.setSelection(step.getKind() == StepKind.REQUEST_REPLY);
+      txtReplyTo.setText(step.getReplyToDestinationName() == null ? "" : step.getReplyToDestinationName());
+      maxInFlightSpinner.setSelection(step.getMaxInFlight() == null ? 1 : step.getMaxInFlight());
+      timeoutSpinner.setSelection(step.getTimeoutSecs() == null ? 30 : step.getTimeoutSecs());
+      enableRepliesFields();
 
       if (Utils.isNotEmpty(sessionName)) {
          btnChooseDestination.setEnabled(true);
@@ -486,10 +613,40 @@ public class ScriptNewStepDialog extends Dialog {
       step.setPayloadDirectory(payloadDirectory);
       step.setPauseSecsAfter(delaySpinner.getSelection());
       step.setIterations(iterationsSpinner.getSelection());
+      step.setThreads(threadsSpinner.getSelection() > 1 ? threadsSpinner.getSelection() : null);
+      step.setRate(rateSpinner.getSelection() > 0 ? rateSpinner.getSelection() : null);
+      step.setRampUpSecs((rateSpinner.getSelection() > 0) && (rampUpSpinner.getSelection() > 0) ? rampUpSpinner.getSelection()
+               : null);
+      step.setDurationSecs(durationSpinner.getSelection() > 0 ? durationSpinner.getSelection() : null);
+      if (btnWaitReplies.getSelection()) {
+         step.setKind(StepKind.REQUEST_REPLY);
+         step.setThreads(null);
+         step.setReplyToDestinationName(Utils.isEmpty(txtReplyTo.getText()) ? null : txtReplyTo.getText().trim());
+         step.setMaxInFlight(maxInFlightSpinner.getSelection());
+         step.setTimeoutSecs(timeoutSpinner.getSelection());
+      } else {
+         step.setKind(StepKind.REGULAR);
+         step.setReplyToDestinationName(null);
+         step.setMaxInFlight(null);
+         step.setTimeoutSecs(null);
+      }
 
       super.okPressed();
    }
 
+   // -------
+   // Helpers
+   // -------
+
+   // The requests of a "request/reply" step are sent by one thread
+   private void enableRepliesFields() {
+      boolean waitReplies = btnWaitReplies.getSelection();
+      txtReplyTo.setEnabled(waitReplies);
+      maxInFlightSpinner.setEnabled(waitReplies);
+      timeoutSpinner.setEnabled(waitReplies);
+      threadsSpinner.setEnabled(!waitReplies);
+   }
+
    // ----------------
    // Standard Getters
    // ----------------
@@ -30,6 +30,15 @@ import org.titou10.jtb.util.Constants;
  *         &lt;element name="payloadDirectory" type="{http://www.w3.org/2001/XMLSchema}string" minOccurs="0"/&gt;
  *         &lt;element name="pauseSecsAfter" type="{http://www.w3.org/2001/XMLSchema}int" minOccurs="0"/&gt;
  *         &lt;element name="iterations" type="{http://www.w3.org/2001/XMLSchema}int"/&gt;
+ *         &lt;element name="threads" type="{http://www.w3.org/2001/XMLSchema}int" minOccurs="0"/&gt;
+ *         &lt;element name="rate" type="{http://www.w3.org/2001/XMLSchema}int" minOccurs="0"/&gt;
+ *         &lt;element name="rampUpSecs" type="{http://www.w3.org/2001/XMLSchema}int" minOccurs="0"/&gt;
+ *         &lt;element name="durationSecs" type="{http://www.w3.org/2001/XMLSchema}int" minOccurs="0"/&gt;
+ *         &lt;element name="replyToDestinationName" type="{http://www.w3.org/2001/XMLSchema}string" minOccurs="0"/&gt;
+ *         &lt;element name="maxInFlight" type="{http://www.w3.org/2001/XMLSchema}int" minOccurs="0"/&gt;
+ *         &lt;element name="timeoutSecs" type="{http://www.w3.org/2001/XMLSchema}int" minOccurs="0"/&gt;
+ *         &lt;element name="selector" type="{http://www.w3.org/2001/XMLSchema}string" minOccurs="0"/&gt;
+ *         &lt;element name="commitEvery" type="{http://www.w3.org/2001/XMLSchema}int" minOccurs="0"/&gt;
  *       &lt;/sequence&gt;
  *     &lt;/restriction&gt;
  *   &lt;/complexContent&gt;
@@ -41,7 +50,9 @@ import org.titou10.jtb.util.Constants;
 @XmlAccessorType(XmlAccessType.FIELD)
 @XmlType(name = "step",
          propOrder = { "kind", "templateName", "templateDirectory", "sessionName", "destinationName", "variablePrefix",
-                       "payloadDirectory", "pauseSecsAfter", "iterations" })
+                       "payloadDirectory", "pauseSecsAfter", "iterations", "threads", "rate", "rampUpSecs",
+                       "durationSecs", "replyToDestinationName", "maxInFlight", "timeoutSecs", "selector",
+                       "commitEvery" })
 public class Step {
 
    @XmlElement(required = true)
@@ -59,6 +70,15 @@ public class Step {
    protected String   payloadDirectory;
    protected Integer  pauseSecsAfter;
    protected int      iterations;
+   protected Integer  threads;
+   protected Integer  rate;
+   protected Integer  rampUpSecs;
+   protected Integer  durationSecs;
+   protected String   replyToDestinationName;
+   protected Integer  maxInFlight;
+   protected Integer  timeoutSecs;
+   protected String   selector;
+   protected Integer  commitEvery;
 
    // Set templateDirectory for script < v4.1.0
    public String getTemplateDirectory() {
@@ -252,4 +272,193 @@ public class Step {
       this.iterations = value;
    }
 
+   /**
+    * Gets the value of the threads property.
+    * 
+    * @return possible object is {@link Integer }
+    * 
+    */
+   public Integer getThreads() {
+      return threads;
+   }
+
+   /**
+    * Sets the value of the threads property.
+    * 
+    * @param value
+    *           allowed object is {@link Integer }
+    * 
+    */
+   public void setThreads(Integer value) {
+      this.threads = value;
+   }
+
+   /**
+    * Gets the value of the rate property.
+    * 
+    * @return possible object is {@link Integer }
+    * 
+    */
+   public Integer getRate() {
+      return rate;
+   }
+
+   /**
+    * Sets the value of the rate property.
+    * 
+    * @param value
+    *           allowed object is {@link Integer }
+    * 
+    */
+   public void setRate(Integer value) {
+      this.rate = value;
+   }
+
+   /**
+    * Gets the value of the rampUpSecs property.
+    * 
+    * @return possible object is {@link Integer }
+    * 
+    */
+   public Integer getRampUpSecs() {
+      return rampUpSecs;
+   }
+
+   /**
+    * Sets the value of the rampUpSecs property.
+    * 
+    * @param value
+    *           allowed object is {@link Integer }
+    * 
+    */
+   public void setRampUpSecs(Integer value) {
+      this.rampUpSecs = value;
+   }
+
+   /**
+    * Gets the value of the durationSecs property.
+    * 
+    * @return possible object is {@link Integer }
+    * 
+    */
+   public Integer getDurationSecs() {
+      return durationSecs;
+   }
+
+   /**
+    * Sets the value of the durationSecs property.
+    * 
+    * @param value
+    *           allowed object is {@link Integer }
+    * 
+    */
+   public void setDurationSecs(Integer value) {
+      this.durationSecs = value;
+   }
+
+   /**
+    * Gets the value of the replyToDestinationName property.
+    * 
+    * @return possible object is {@link String }
+    * 
+    */
+   public String getReplyToDestinationName() {
+      return replyToDestinationName;
+   }
+
+   /**
+    * Sets the value of the replyToDestinationName property.
+    * 
+    * @param value
+    *           allowed object is {@link String }
+    * 
+    */
+   public void setReplyToDestinationName(String value) {
+      this.replyToDestinationName = value;
+   }
+
+   /**
+    * Gets the value of the maxInFlight property.
+    * 
+    * @return possible object is {@link Integer }
+    * 
+    */
+   public Integer getMaxInFlight() {
+      return maxInFlight;
+   }
+
+   /**
+    * Sets the value of the maxInFlight property.
+    * 
+    * @param value
+    *           allowed object is {@link Integer }
+    * 
+    */
+   public void setMaxInFlight(Integer value) {
+      this.maxInFlight = value;
+   }
+
+   /**
+    * Gets the value of the timeoutSecs property.
+    * 
+    * @return possible object is {@link Integer }
+    * 
+    */
+   public Integer getTimeoutSecs() {
+      return timeoutSecs;
+   }
+
+   /**
+    * Sets the value of the timeoutSecs property.
+    * 
+    * @param value
+    *           allowed object is {@link Integer }
+    * 
+    */
+   public void setTimeoutSecs(Integer value) {
+      this.timeoutSecs = value;
+   }
+
+   /**
+    * Gets the value of the selector property.
+    * 
+    * @return possible object is {@link String }
+    * 
+    */
+   public String getSelector() {
+      return selector;
+   }
+
+   /**
+    * Sets the value of the selector property.
+    * 
+    * @param value
+    *           allowed object is {@link String }
+    * 
+    */
+   public void setSelector(String value) {
+      this.selector = value;
+   }
+
+   /**
+    * Gets the value of the commitEvery property.
+    * 
+    * @return possible object is {@link Integer }
+    * 
+    */
+   public Integer getCommitEvery() {
+      return commitEvery;
+   }
+
+   /**
+    * Sets the value of the commitEvery property.
+    * 
+    * @param value
+    *           allowed object is {@link Integer }
+    * 
+    */
+   public void setCommitEvery(Integer value) {
+      this.commitEvery = value;
+   }
+
 }
@@ -15,6 +15,8 @@ import javax.xml.bind.annotation.XmlType;
  *   &lt;restriction base="{http://www.w3.org/2001/XMLSchema}string"&gt;
  *     &lt;enumeration value="PAUSE"/&gt;
  *     &lt;enumeration value="REGULAR"/&gt;
+ *     &lt;enumeration value="REQUEST_REPLY"/&gt;
+ *     &lt;enumeration value="CONSUME"/&gt;
  *   &lt;/restriction&gt;
  * &lt;/simpleType&gt;
  * </pre>
@@ -25,7 +27,9 @@ import javax.xml.bind.annotation.XmlType;
 public enum StepKind {
 
     PAUSE,
-    REGULAR;
+    REGULAR,
+    REQUEST_REPLY,
+    CONSUME;
 
     public String value() {
         return name();
@@ -32,6 +32,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.titou10.jtb.config.ConfigManager;
 import org.titou10.jtb.script.ScriptsManager;
+import org.titou10.jtb.script.dialog.ScriptNewConsumeDialog;
 import org.titou10.jtb.script.dialog.ScriptNewPauseDialog;
 import org.titou10.jtb.script.dialog.ScriptNewStepDialog;
 import org.titou10.jtb.script.gen.Script;
@@ -94,12 +95,22 @@ public class ScriptStepAddOrEditHandler {
             step = scriptsManager.buildPauseStep(5);
             break;
 
+         case Constants.COMMAND_SCRIPT_NEWSTEP_CONSUME:
+            step = scriptsManager.buildConsumeStep();
+            break;
+
          default:
             throw new IllegalArgumentException(mode + " value is invalid");
 
       }
 
-      if (step.getKind() == StepKind.REGULAR) {
+      if (step.getKind() == StepKind.CONSUME) {
+         ScriptNewConsumeDialog d3 = new ScriptNewConsumeDialog(shell, jtbStatusReporter, cm, sessionTypeManager, step, script);
+         if (d3.open() != Window.OK) {
+            return;
+         }
+         step = d3.getStep();
+      } else if (step.getKind() != StepKind.PAUSE) {
          ScriptNewStepDialog d1 = new ScriptNewStepDialog(shell,
                                                           jtbStatusReporter,
                                                           cm,
@@ -132,6 +143,7 @@ public class ScriptStepAddOrEditHandler {
 
          case Constants.COMMAND_SCRIPT_NEWSTEP_STEP:
          case Constants.COMMAND_SCRIPT_NEWSTEP_PAUSE:
+         case Constants.COMMAND_SCRIPT_NEWSTEP_CONSUME:
             script.getStep().add(step);
             break;
 
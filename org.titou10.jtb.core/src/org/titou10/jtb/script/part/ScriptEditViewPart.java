@@ -392,6 +392,21 @@ public class ScriptEditViewPart {
          @Override
          public String getText(Object element) {
             Step s = (Step) element;
+            if (s.getKind() == StepKind.CONSUME) {
+               StringBuilder sb = new StringBuilder(64);
+               sb.append("Consume");
+               if (s.getSelector() != null) {
+                  sb.append(" '");
+                  sb.append(s.getSelector());
+                  sb.append("'");
+               }
+               sb.append(", commit every ");
+               sb.append(s.getCommitEvery());
+               sb.append(", timeout ");
+               sb.append(s.getTimeoutSecs());
+               sb.append("s");
+               return sb.toString();
+            }
             TemplateNameStructure tns = templatesManager.buildTemplateNameStructure(s.getTemplateDirectory(), s.getTemplateName());
             return tns == null ? "" : tns.getSyntheticName();
          }
@@ -489,7 +504,7 @@ public class ScriptEditViewPart {
          @Override
          public String getText(Object element) {
             Step s = (Step) element;
-            if (s.getKind() == StepKind.REGULAR) {
+            if (s.getKind() != StepKind.PAUSE) {
                return String.valueOf(s.getIterations());
             } else {
                return "";
@@ -506,6 +521,112 @@ public class ScriptEditViewPart {
          }
       });
 
+      TableViewerColumn stepThreadsColumn = new TableViewerColumn(tableViewer, SWT.CENTER);
+      TableColumn stepThreadsHeader = stepThreadsColumn.getColumn();
+      tcl.setColumnData(stepThreadsHeader, new ColumnWeightData(1, ColumnWeightData.MINIMUM_WIDTH, false));
+      stepThreadsHeader.setText("Threads");
+      stepThreadsColumn.setLabelProvider(new ColumnLabelProvider() {
+
+         @Override
+         public String getText(Object element) {
+            Step s = (Step) element;
+            if ((s.getKind() == StepKind.REGULAR) && (s.getThreads() != null)) {
+               return s.getThreads().toString();
+            } else {
+               return "";
+            }
+         }
+
+         @Override
+         public void update(ViewerCell cell) {
+            super.update(cell);
+            Step s = (Step) cell.getElement();
+            if (s.getKind() == StepKind.PAUSE) {
+               cell.setBackground(SWTResourceManager.getColor(222, 222, 222));
+            }
+         }
+      });
+
+      TableViewerColumn stepRateColumn = new TableViewerColumn(tableViewer, SWT.CENTER);
+      TableColumn stepRateHeader = stepRateColumn.getColumn();
+      tcl.setColumnData(stepRateHeader, new ColumnWeightData(2, ColumnWeightData.MINIMUM_WIDTH, false));
+      stepRateHeader.setText("Rate");
+      stepRateColumn.setLabelProvider(new ColumnLabelProvider() {
+
+         @Override
+         public String getText(Object element) {
+            Step s = (Step) element;
+            if (s.getKind() == StepKind.PAUSE) {
+               return "";
+            }
+            StringBuilder sb = new StringBuilder(64);
+            if (s.getRate() != null) {
+               sb.append(s.getRate());
+               sb.append(" msg/s");
+               if (s.getRampUpSecs() != null) {
+                  sb.append(", ramp-up ");
+                  sb.append(s.getRampUpSecs());
+                  sb.append("s");
+               }
+            }
+            if (s.getDurationSecs() != null) {
+               if (sb.length() > 0) {
+                  sb.append(", ");
+               }
+               sb.append("max ");
+               sb.append(s.getDurationSecs());
+               sb.append("s");
+            }
+            return sb.toString();
+         }
+
+         @Override
+         public void update(ViewerCell cell) {
+            super.update(cell);
+            Step s = (Step) cell.getElement();
+            if (s.getKind() == StepKind.PAUSE) {
+               cell.setBackground(SWTResourceManager.getColor(222, 222, 222));
+            }
+         }
+      });
+
+      TableViewerColumn stepRepliesColumn = new TableViewerColumn(tableViewer, SWT.CENTER);
+      TableColumn stepRepliesHeader = stepRepliesColumn.getColumn();
+      tcl.setColumnData(stepRepliesHeader, new ColumnWeightData(2, ColumnWeightData.MINIMUM_WIDTH, false));
+      stepRepliesHeader.setText("Replies");
+      stepRepliesColumn.setLabelProvider(new ColumnLabelProvider() {
+
+         @Override
+         public String getText(Object element) {
+            Step s = (Step) element;
+            if (s.getKind() != StepKind.REQUEST_REPLY) {
+               return "";
+            }
+            StringBuilder sb = new StringBuilder(64);
+            sb.append(s.getReplyToDestinationName() == null ? "temporary queue" : s.getReplyToDestinationName());
+            if (s.getMaxInFlight() != null) {
+               sb.append(", ");
+               sb.append(s.getMaxInFlight());
+               sb.append(" in flight");
+            }
+            if (s.getTimeoutSecs() != null) {
+               sb.append(", timeout ");
+               sb.append(s.getTimeoutSecs());
+               sb.append("s");
+            }
+            return sb.toString();
+         }
+
+         @Override
+         public void update(ViewerCell cell) {
+            super.update(cell);
+            Step s = (Step) cell.getElement();
+            if (s.getKind() == StepKind.PAUSE) {
+               cell.setBackground(SWTResourceManager.getColor(222, 222, 222));
+            }
+         }
+      });
+
       TableViewerColumn stepPauseSecsColumn = new TableViewerColumn(tableViewer, SWT.CENTER);
       TableColumn stepPauseSecsHeader = stepPauseSecsColumn.getColumn();
       tcl.setColumnData(stepPauseSecsHeader, new ColumnWeightData(1, ColumnWeightData.MINIMUM_WIDTH, false));
@@ -57,7 +57,10 @@ import org.eclipse.wb.swt.SWTResourceManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.titou10.jtb.jms.model.JTBMessageTemplate;
+import org.titou10.jtb.script.ScriptExecutionLog;
+import org.titou10.jtb.script.ScriptExecutionLog.Batch;
 import org.titou10.jtb.script.ScriptStepResult;
+import org.titou10.jtb.script.ScriptStepResult.ExectionReturnCode;
 import org.titou10.jtb.ui.dnd.DNDData;
 import org.titou10.jtb.util.Constants;
 
@@ -76,6 +79,9 @@ public class ScriptExecutionLogViewPart {
    private static final int              BUTTON_HEIGHT = 20;                                                       // Hard Coded!!
    private static final int              ROW_HEIGHT    = BUTTON_HEIGHT + 4;                                        // Hard Coded!!
 
+   private static final int              FLUSH_DELAY   = 200;
+   private static final String           TOTALS        = "%d entries (last %d shown). Success: %d, Failed: %d, Cancelled: %d";
+
    @Inject
    private ECommandService               commandService;
 
@@ -85,7 +91,11 @@ public class ScriptExecutionLogViewPart {
    @Inject
    private EMenuService                  menuService;
 
+   @Inject
+   private ScriptExecutionLog            executionLog;
+
    // JFaces components
+   private Label                         lblTotals;
    private Composite                     compositeLog;
    private TableViewer                   tableViewer;
    private Table                         logTable;
@@ -93,17 +103,21 @@ public class ScriptExecutionLogViewPart {
    // Business Data
    private List<ScriptStepResult>        logExecution;
 
-   private Map<Object, Button>           buttons       = new HashMap<>();
+   private Map<Object, TableEditor>      editors       = new HashMap<>();
+
+   private boolean                       flushScheduled;
 
    @Inject
    @Optional
-   public void getNotified(@UIEventTopic(Constants.EVENT_REFRESH_EXECUTION_LOG) ScriptStepResult ssr) {
+   public void getNotified(@UIEventTopic(Constants.EVENT_REFRESH_EXECUTION_LOG) String noUse) {
       log.debug("ScriptExecutionLogViewPart refresh");
 
-      logExecution.add(ssr);
-      tableViewer.refresh();
-      tableViewer.reveal(ssr);
-      // compositeLog.layout();
+      // The new entries are read from the execution log by batches
+      if (flushScheduled) {
+         return;
+      }
+      flushScheduled = true;
+      logTable.getDisplay().timerExec(FLUSH_DELAY, this::flush);
    }
 
    @Inject
@@ -111,6 +125,7 @@ public class ScriptExecutionLogViewPart {
    public void clearLogs(@UIEventTopic(Constants.EVENT_CLEAR_EXECUTION_LOG) String noUse) {
       log.debug("clearLogs");
 
+      executionLog.clear();
       logExecution.clear();
 
       // Dispose buttons
@@ -121,9 +136,10 @@ public class ScriptExecutionLogViewPart {
             }
          }
       }
-      buttons = new HashMap<Object, Button>();
+      editors = new HashMap<>();
 
       tableViewer.refresh();
+      updateTotals();
       compositeLog.layout();
 
    }
@@ -131,6 +147,10 @@ public class ScriptExecutionLogViewPart {
    @PostConstruct
    public void postConstruct(final Composite parent) {
 
+      // Totals
+      lblTotals = new Label(parent, SWT.NONE);
+      lblTotals.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 1, 1));
+
       // Log
       compositeLog = new Composite(parent, SWT.NONE);
       compositeLog.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 1, 1));
@@ -213,14 +233,67 @@ public class ScriptExecutionLogViewPart {
       // Set Row Height
       logTable.addListener(SWT.MeasureItem, (event) -> event.height = ROW_HEIGHT);
 
-      logExecution = new ArrayList<>();
+      logExecution = new ArrayList<>(executionLog.resync());
+      tableViewer.setUseHashlookup(true);
       tableViewer.setContentProvider(ArrayContentProvider.getInstance());
       tableViewer.setInput(logExecution);
+      updateTotals();
+   }
+
+   // -------
+   // Helpers
+   // -------
+
+   private void flush() {
+      flushScheduled = false;
+      if (logTable.isDisposed()) {
+         return;
+      }
+
+      Batch batch = executionLog.drain();
+      List<ScriptStepResult> removed = batch.getRemoved();
+      List<ScriptStepResult> added = batch.getAdded();
+
+      logTable.setRedraw(false);
+      try {
+         // Oldest entries evicted from the execution log
+         if (!removed.isEmpty()) {
+            logExecution.subList(0, removed.size()).clear();
+            tableViewer.remove(removed.toArray());
+            for (ScriptStepResult ssr : removed) {
+               TableEditor editor = editors.remove(ssr);
+               if (editor != null) {
+                  editor.getEditor().dispose();
+                  editor.dispose();
+               }
+            }
+            // The editors of the remaining entries moved up
+            for (TableEditor editor : editors.values()) {
+               editor.layout();
+            }
+         }
+
+         if (!added.isEmpty()) {
+            logExecution.addAll(added);
+            tableViewer.add(added.toArray());
+            tableViewer.reveal(added.get(added.size() - 1));
+         }
+      } finally {
+         logTable.setRedraw(true);
+      }
+
+      updateTotals();
+   }
+
+   private void updateTotals() {
+      lblTotals.setText(String.format(TOTALS,
+                                      executionLog.getNbEntries(),
+                                      logExecution.size(),
+                                      executionLog.getNbEntries(ExectionReturnCode.SUCCESS),
+                                      executionLog.getNbEntries(ExectionReturnCode.FAILED),
+                                      executionLog.getNbEntries(ExectionReturnCode.CANCELLED)));
    }
 
-   // ------
-   // Helper
-   // ------
    private class LogDataColumnProvider extends ColumnLabelProvider {
 
       @Override
@@ -251,7 +324,7 @@ public class ScriptExecutionLogViewPart {
 
          // If the button has already been created, exit
          Object key = cell.getElement();
-         if (buttons.containsKey(key)) {
+         if (editors.containsKey(key)) {
             return;
          }
 
@@ -289,8 +362,6 @@ public class ScriptExecutionLogViewPart {
             handlerService.executeHandler(myCommand);
          }));
 
-         buttons.put(cell.getElement(), btnViewMessage);
-
          Label l = new Label(c, SWT.NONE);
          l.setBackground(parentColor);
          if (r.getTemplateName() != null) {
@@ -310,6 +381,8 @@ public class ScriptExecutionLogViewPart {
 
          editor.setEditor(c, item, cell.getColumnIndex());
 
+         editors.put(key, editor);
+
       }
    }
 }
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2019 Denis Forveille titou10.titou10@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.titou10.jtb.ui.navigator;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.jface.viewers.ViewerFilter;
+
+/**
+ * Filters the destination nodes of the session browser on a part of their name, case insensitive
+ * 
+ * @author Denis Forveille
+ * 
+ */
+public class NodeDestinationFilter extends ViewerFilter {
+
+   private Matcher matcher;
+
+   // ------------------------
+   // ViewerFilter
+   // ------------------------
+
+   @Override
+   public boolean select(Viewer viewer, Object parentElement, Object element) {
+      if (matcher == null) {
+         return true;
+      }
+
+      // Only destinations are filtered, sessions and folders are always shown
+      if ((element instanceof NodeJTBQueue) || (element instanceof NodeJTBTopic)) {
+         return matcher.reset(((NodeAbstract) element).getName()).find();
+      }
+      return true;
+   }
+
+   // ------------------------
+   // Helpers
+   // ------------------------
+
+   // Returns true if the filter changed
+   public boolean setFilterText(String filterText) {
+      String oldFilterText = getFilterText();
+      if ((filterText == null) || (filterText.trim().isEmpty())) {
+         matcher = null;
+      } else {
+         matcher = Pattern.compile(filterText.trim(), Pattern.LITERAL | Pattern.CASE_INSENSITIVE).matcher("");
+      }
+      String newFilterText = getFilterText();
+      return oldFilterText == null ? newFilterText != null : !oldFilterText.equals(newFilterText);
+   }
+
+   public String getFilterText() {
+      return matcher == null ? null : matcher.pattern().pattern();
+   }
+
+}
@@ -170,6 +170,12 @@ public class NodeTreeLabelProvider extends LabelProvider implements IColorProvid
                textStyle.background = sessionTypeColor;
             }
          });
+         // Show the progress of a connection in progress
+         if (jtbConnection.isConnecting()) {
+            long elapsed = (System.currentTimeMillis() - jtbConnection.getConnectingSince()) / 1000;
+            sessionStyleString.append(" (connecting... " + elapsed + "s)", StyledString.DECORATIONS_STYLER);
+         }
+
          // Strikeout filter if not connected or filterd not applied
          if (filterExists) {
             if (jtbConnection.isConnected()) {
@@ -50,6 +50,7 @@ import org.eclipse.swt.events.KeyListener;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.layout.GridLayout;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Text;
 import org.eclipse.swt.widgets.Tree;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -63,6 +64,7 @@ import org.titou10.jtb.template.TemplatesManager;
 import org.titou10.jtb.ui.dnd.TransferJTBMessage;
 import org.titou10.jtb.ui.dnd.TransferTemplate;
 import org.titou10.jtb.ui.navigator.NodeAbstract;
+import org.titou10.jtb.ui.navigator.NodeDestinationFilter;
 import org.titou10.jtb.ui.navigator.NodeFolder;
 import org.titou10.jtb.ui.navigator.NodeJTBQueue;
 import org.titou10.jtb.ui.navigator.NodeJTBSession;
@@ -81,33 +83,39 @@ import org.titou10.jtb.util.Utils;
 @SuppressWarnings("restriction")
 public class JTBSessionsBrowserViewPart {
 
-   private static final Logger log = LoggerFactory.getLogger(JTBSessionsBrowserViewPart.class);
+   private static final Logger   log           = LoggerFactory.getLogger(JTBSessionsBrowserViewPart.class);
+
+   // Delay before applying the destination filter, to avoid refreshing the tree on each keystroke
+   private static final int      FILTER_DELAY  = 150;
 
    @Inject
-   private ECommandService     commandService;
+   private ECommandService       commandService;
 
    @Inject
-   private EHandlerService     handlerService;
+   private EHandlerService       handlerService;
 
    @Inject
-   private ESelectionService   selectionService;
+   private ESelectionService     selectionService;
 
    @Inject
-   private EMenuService        menuService;
+   private EMenuService          menuService;
 
    @Inject
-   private ConfigManager       cm;
+   private ConfigManager         cm;
 
    @Inject
-   private JTBPreferenceStore  ps;
+   private JTBPreferenceStore    ps;
 
    @Inject
-   private TemplatesManager    templatesManager;
+   private TemplatesManager      templatesManager;
 
    @Inject
-   private SessionTypeManager  sessionTypeManager;
+   private SessionTypeManager    sessionTypeManager;
 
-   private TreeViewer          treeViewer;
+   private TreeViewer            treeViewer;
+   private Text                  filterText;
+   private NodeDestinationFilter nodeDestinationFilter;
+   private Runnable              filterApplier = this::applyDestinationFilter;
 
    @PostConstruct
    public void createControls(Composite parent) {
@@ -117,6 +125,13 @@ public class JTBSessionsBrowserViewPart {
 
       SortedSet<NodeAbstract> listNodesSession = buildSessionList();
 
+      // Destinations filter, applied as the user types
+      filterText = new Text(parent, SWT.BORDER | SWT.SEARCH | SWT.ICON_SEARCH | SWT.ICON_CANCEL);
+      filterText.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 1, 1));
+      filterText.setMessage("Filter destinations");
+      filterText.setToolTipText("Show only the destinations with a name containing this text (case insensitive)");
+      filterText.addModifyListener(e -> filterText.getDisplay().timerExec(FILTER_DELAY, filterApplier));
+
       // Build navigator
       treeViewer = new TreeViewer(parent, SWT.BORDER);
       treeViewer.setContentProvider(new NodeJTBSessionProvider());
@@ -124,6 +139,9 @@ public class JTBSessionsBrowserViewPart {
                                                                                                   JTBSessionClientType.GUI)));
       treeViewer.setInput(listNodesSession);
 
+      nodeDestinationFilter = new NodeDestinationFilter();
+      treeViewer.setFilters(nodeDestinationFilter);
+
       // Drag and Drop
       int operations = DND.DROP_MOVE;
       Transfer[] transferTypesDrop = new Transfer[] { TransferJTBMessage.getInstance(), TransferTemplate.getInstance(),
@@ -259,6 +277,16 @@ public class JTBSessionsBrowserViewPart {
       treeViewer.refresh(nodeJTBSession);
    }
 
+   @Inject
+   @Optional
+   // Refresh the label of a session node, ie while it is connecting
+   public void refreshSessionNode(@UIEventTopic(Constants.EVENT_REFRESH_SESSION_NODE) NodeJTBSession nodeJTBSession) {
+      if (treeViewer.getTree().isDisposed()) {
+         return;
+      }
+      treeViewer.update(nodeJTBSession, null);
+   }
+
    @Inject
    @Optional
    @SuppressWarnings("unchecked")
@@ -293,6 +321,25 @@ public class JTBSessionsBrowserViewPart {
    // -------
    // Helpers
    // -------
+   private void applyDestinationFilter() {
+      if (filterText.isDisposed()) {
+         return;
+      }
+      if (!nodeDestinationFilter.setFilterText(filterText.getText())) {
+         return;
+      }
+
+      log.debug("applyDestinationFilter '{}'", nodeDestinationFilter.getFilterText());
+
+      Tree tree = treeViewer.getTree();
+      tree.setRedraw(false);
+      try {
+         treeViewer.refresh();
+      } finally {
+         tree.setRedraw(true);
+      }
+   }
+
    private SortedSet<NodeAbstract> buildSessionList() {
       log.debug("buildSessionList");
 
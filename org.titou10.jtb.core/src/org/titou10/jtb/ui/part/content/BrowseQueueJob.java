@@ -0,0 +1,245 @@
+/*
+ * Copyright (C) 2019 Denis Forveille titou10.titou10@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.titou10.jtb.ui.part.content;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.jms.Session;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.e4.ui.di.UISynchronize;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.swt.custom.CTabItem;
+import org.eclipse.wb.swt.SWTResourceManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.titou10.jtb.jms.model.JTBConnection;
+import org.titou10.jtb.jms.model.JTBMessage;
+import org.titou10.jtb.jms.model.JTBQueue;
+import org.titou10.jtb.ui.JTBStatusReporter;
+import org.titou10.jtb.util.Constants;
+import org.titou10.jtb.util.Utils;
+
+/**
+ * Job that browses a Queue in the background and sends the messages to the table by batches as they are read
+ * 
+ * @author Denis Forveille
+ *
+ */
+final class BrowseQueueJob extends Job {
+
+   private static final Logger     log            = LoggerFactory.getLogger(BrowseQueueJob.class);
+
+   // Messages are sent to the table by batches, at most every BATCH_INTERVAL ms or every BATCH_SIZE messages
+   private static final long       BATCH_INTERVAL = 250;
+   private static final int        BATCH_SIZE     = 500;
+
+   private final UISynchronize     sync;
+   private final JTBStatusReporter jtbStatusReporter;
+
+   private final JTBQueue          jtbQueue;
+   private final int               maxMessages;
+   private final String            payloadSearchText;
+   private final String            selectorsSearchText;
+   private final boolean           autoResizeColumns;
+
+   private final TableViewer       tableViewer;
+   private final CTabItem          tabItem;
+
+   // Messages displayed in the table. Only accessed from the UI thread
+   private final List<JTBMessage>  messages       = new ArrayList<>(256);
+
+   // Messages read but not yet sent to the table. Only accessed from the job thread
+   private List<JTBMessage>        batch          = new ArrayList<>(BATCH_SIZE);
+   private int                     nbMessages;
+   private long                    lastPublish;
+
+   private volatile boolean        stopped;
+   private volatile boolean        discarded;
+
+   // ------------
+   // Constructors
+   // ------------
+
+   BrowseQueueJob(UISynchronize sync,
+                  JTBStatusReporter jtbStatusReporter,
+                  JTBQueue jtbQueue,
+                  int maxMessages,
+                  String payloadSearchText,
+                  String selectorsSearchText,
+                  boolean autoResizeColumns,
+                  TableViewer tableViewer,
+                  CTabItem tabItem) {
+      super("Browse queue " + jtbQueue.getName());
+      this.setSystem(true);
+      this.sync = sync;
+      this.jtbStatusReporter = jtbStatusReporter;
+
+      this.jtbQueue = jtbQueue;
+      this.maxMessages = maxMessages;
+      this.payloadSearchText = payloadSearchText;
+      this.selectorsSearchText = selectorsSearchText;
+      this.autoResizeColumns = autoResizeColumns;
+
+      this.tableViewer = tableViewer;
+      this.tabItem = tabItem;
+   }
+
+   // ------------------
+   // Business Interface
+   // ------------------
+
+   // Stop browsing and forget the result, because another browse of the same queue replaces it
+   void discard() {
+      discarded = true;
+      cancel();
+   }
+
+   @Override
+   protected IStatus run(IProgressMonitor monitor) {
+
+      JTBConnection jtbConnection = jtbQueue.getJtbConnection();
+      Integer depth = jtbConnection.getQm().getQueueDepth(jtbConnection.getJmsConnection(), jtbQueue.getName());
+
+      sync.asyncExec(() -> {
+         if (isStale()) {
+            return;
+         }
+         tableViewer.setInput(messages);
+         tabItem.setText(jtbQueue.getName() + " (0..)");
+      });
+
+      lastPublish = System.currentTimeMillis();
+
+      // The JMS session of the connection is used by the UI thread: use a dedicated one
+      try (Session session = jtbConnection.createWorkerSession()) {
+         jtbConnection.browseQueue(session, jtbQueue, maxMessages, payloadSearchText, selectorsSearchText, this::onMessage);
+      } catch (Throwable e) {
+         log.error("Problem while browsing queue {}", jtbQueue, e);
+         publish(depth, true);
+         sync.asyncExec(() -> jtbStatusReporter.showError("Problem while browsing queue", Utils.getCause(e), ""));
+         return Status.OK_STATUS;
+      }
+
+      log.debug("Q Depth : {} Max : {} Nb msg displayed : {} stopped: {}", depth, maxMessages, nbMessages, stopped);
+
+      publish(depth, true);
+
+      return Status.OK_STATUS;
+   }
+
+   @Override
+   protected void canceling() {
+      log.debug("Canceling '{}'", getName());
+      stopped = true;
+      super.canceling();
+   }
+
+   @Override
+   public boolean belongsTo(Object family) {
+      if (family instanceof String) {
+         return Constants.JTB_JOBS_FAMILY.equals(family);
+      }
+      return false;
+   }
+
+   // -------
+   // Helpers
+   // -------
+
+   private boolean onMessage(JTBMessage jtbMessage) {
+      batch.add(jtbMessage);
+      nbMessages++;
+
+      long now = System.currentTimeMillis();
+      if ((batch.size() >= BATCH_SIZE) || ((now - lastPublish) >= BATCH_INTERVAL)) {
+         publish(null, false);
+         lastPublish = now;
+      }
+
+      // Stop browsing when the job is cancelled
+      return !stopped;
+   }
+
+   private void publish(Integer depth, boolean finished) {
+      List<JTBMessage> toAdd = batch;
+      batch = new ArrayList<>(BATCH_SIZE);
+      int n = nbMessages;
+
+      sync.asyncExec(() -> {
+         if (isStale()) {
+            return;
+         }
+
+         // The table is virtual: the new rows will be built when they become visible
+         messages.addAll(toAdd);
+         tableViewer.setItemCount(messages.size());
+
+         if (!finished) {
+            tabItem.setText(jtbQueue.getName() + " (" + n + "..)");
+            return;
+         }
+
+         // Display # messages in tab title
+         StringBuilder sb = new StringBuilder(64);
+         sb.append(jtbQueue.getName());
+         sb.append(" (");
+         sb.append(n);
+         if ((n >= maxMessages) || (stopped)) {
+            if (depth != null) {
+               sb.append(" / ");
+               sb.append(depth);
+            } else {
+               sb.append("+");
+            }
+         }
+         if (stopped) {
+            sb.append(", stopped");
+         }
+         sb.append(")");
+         tabItem.setText(sb.toString());
+
+         if ((n >= maxMessages) || (stopped)) {
+            tabItem.setImage(SWTResourceManager.getImage(this.getClass(), "icons/error.png"));
+         } else {
+            if (payloadSearchText.isEmpty() && selectorsSearchText.isEmpty()) {
+               tabItem.setImage(null);
+            } else {
+               tabItem.setImage(SWTResourceManager.getImage(this.getClass(), "icons/filter.png"));
+            }
+         }
+
+         if (autoResizeColumns) {
+            Utils.resizeTableViewer(tableViewer);
+         }
+      });
+   }
+
+   // The table has been disposed or another browse replaced this one
+   private boolean isStale() {
+      if (tableViewer.getControl().isDisposed()) {
+         cancel();
+         return true;
+      }
+      return discarded;
+   }
+
+}
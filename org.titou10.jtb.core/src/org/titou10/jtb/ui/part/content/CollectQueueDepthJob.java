@@ -19,9 +19,16 @@ package org.titou10.jtb.ui.part.content;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.SortedSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.jms.JMSException;
+import javax.jms.Session;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
@@ -41,23 +48,39 @@ import org.titou10.jtb.util.Utils;
 /**
  * Job that asynchronously collect Queue Depth data
  * 
+ * The depths are read first in one call and displayed immediately. Then the age of the first message of the non empty queues is
+ * asked to the Q provider, also in one call when it supports it. The queues for which the Q provider can't tell are browsed by a
+ * bounded pool of workers, each with its own JMS session, no more than once every "minBrowseInterval" per queue. The table is
+ * refreshed periodically while they progress
+ * 
  * @author Denis Forveille
  *
  */
 public class CollectQueueDepthJob extends Job {
 
-   private static final Logger log = LoggerFactory.getLogger(CollectQueueDepthJob.class);
+   private static final Logger                 log                 = LoggerFactory.getLogger(CollectQueueDepthJob.class);
+
+   // Delay in ms between two refreshes of the table while the first message timestamps are collected
+   private static final long                   UI_REFRESH_INTERVAL = 500;
+   private static final String                 TOOLTIP_STATS       = "Last refresh: %d queues in %d ms (depths: %d ms, first messages: %d ms, %d queues browsed by %d threads)";
+
+   private final UISynchronize                 sync;
 
-   private final UISynchronize sync;
+   private final JTBConnection                 jtbConnection;
+   private final QManager                      qm;
+   private final int                           parallelism;
+   private final long                          minBrowseInterval;
 
-   private final JTBConnection jtbConnection;
-   private final QManager      qm;
+   private final TableViewer                   tableViewer;
+   private final CTabItem                      tabItem;
+   private final String                        title;
 
-   private final TableViewer   tableViewer;
-   private final CTabItem      tabItem;
-   private final String        title;
+   private SortedSet<JTBQueue>                 jtbQueuesFiltered;
 
-   private SortedSet<JTBQueue> jtbQueuesFiltered;
+   // Result of the last browse of each queue, to limit the frequency at which queues are browsed
+   private final Map<String, BrowsedTimestamp> browsedTimestamps   = new ConcurrentHashMap<>();
+
+   private volatile ExecutorService            executor;
 
    // ------------
    // Constructors
@@ -66,6 +89,8 @@ public class CollectQueueDepthJob extends Job {
    public CollectQueueDepthJob(UISynchronize sync,
                                String name,
                                JTBConnection jtbConnection,
+                               int parallelism,
+                               int minBrowseInterval,
                                TableViewer tableViewer,
                                CTabItem tabItem,
                                String title) {
@@ -75,6 +100,8 @@ public class CollectQueueDepthJob extends Job {
 
       this.jtbConnection = jtbConnection;
       this.qm = jtbConnection.getQm();
+      this.parallelism = Math.max(1, parallelism);
+      this.minBrowseInterval = minBrowseInterval * 1000L;
 
       this.tableViewer = tableViewer;
       this.tabItem = tabItem;
@@ -96,23 +123,128 @@ public class CollectQueueDepthJob extends Job {
    @Override
    protected IStatus run(IProgressMonitor monitor) {
 
-      List<QueueWithDepth> list = new ArrayList<QueueWithDepth>(jtbConnection.getJtbQueues().size());
+      long start = System.currentTimeMillis();
+
+      List<JTBQueue> jtbQueues = new ArrayList<>(jtbQueuesFiltered);
+      int nbQueues = jtbQueues.size();
+
+      // Get the depth of all the queues in one call
+      List<String> queueNames = new ArrayList<>(nbQueues);
+      for (JTBQueue jtbQueue : jtbQueues) {
+         queueNames.add(jtbQueue.getName());
+      }
+      Map<String, Integer> depths = qm.getQueueDepths(jtbConnection.getJmsConnection(), queueNames);
+
+      List<QueueWithDepth> list = new ArrayList<QueueWithDepth>(nbQueues);
+      for (JTBQueue jtbQueue : jtbQueues) {
+         list.add(new QueueWithDepth(jtbQueue, depths.get(jtbQueue.getName()), null));
+      }
+
+      long depthsDuration = System.currentTimeMillis() - start;
+
+      // Display the depths now, the first messages timestamps will follow
+      sync.asyncExec(() -> {
+         if (tableViewer.getControl().isDisposed()) {
+            cancel();
+            return;
+         }
+         tableViewer.setInput(list);
+         tabItem.setText("(Refreshing..)");
+      });
+
+      // Empty queues have no first message
+      List<QueueWithDepth> notEmpty = new ArrayList<>(nbQueues);
+      List<String> notEmptyNames = new ArrayList<>(nbQueues);
+      for (QueueWithDepth qwd : list) {
+         if ((qwd.depth == null) || (qwd.depth != 0)) {
+            notEmpty.add(qwd);
+            notEmptyNames.add(qwd.jtbQueue.getName());
+         }
+      }
+
+      if (monitor.isCanceled()) {
+         return Status.CANCEL_STATUS;
+      }
+
+      // Ask the Q provider for the age of the first message of all the queues at once. Only browse the queues it can't tell about
+      Map<String, Long> ages = qm.getFirstMessageAges(jtbConnection.getJmsConnection(), notEmptyNames);
+
+      List<QueueWithDepth> toBrowse = new ArrayList<>(notEmpty.size());
+      long now = System.currentTimeMillis();
+      for (QueueWithDepth qwd : notEmpty) {
+         String queueName = qwd.jtbQueue.getName();
+         Long age = ages.get(queueName);
+         if (age != null) {
+            qwd.firstMessageTimestamp = new Date(now - age);
+            continue;
+         }
+
+         // Reuse the result of the last browse if it is recent enough
+         BrowsedTimestamp bt = browsedTimestamps.get(queueName);
+         if ((bt != null) && ((now - bt.browsedAt) < minBrowseInterval)) {
+            qwd.firstMessageTimestamp = bt.timestamp;
+            continue;
+         }
+
+         toBrowse.add(qwd);
+      }
+      int nbToBrowse = toBrowse.size();
+
+      // Browse the remaining queues on a bounded pool of workers. No pool and no JMS session when there is nothing to browse
+      int nbWorkers = Math.min(parallelism, nbToBrowse);
+      if (nbWorkers > 0) {
+         AtomicInteger nextIndex = new AtomicInteger();
+         AtomicInteger nbDone = new AtomicInteger();
 
-      Date firstMessageTimestamp;
-      for (JTBQueue jtbQueue : jtbQueuesFiltered) {
+         executor = Executors.newFixedThreadPool(nbWorkers);
+         for (int i = 0; i < nbWorkers; i++) {
+            executor.execute(() -> browseFirstMessageTimestamps(toBrowse, nextIndex, nbDone, monitor));
+         }
+         executor.shutdown();
 
          try {
-            firstMessageTimestamp = jtbConnection.getFirstMessageTimestamp(jtbQueue);
-         } catch (JMSException e) {
-            firstMessageTimestamp = null;
-            log.error("JMSException occurred when calling jtbConnection.getFirstMessageTimestamp", e);
+            int lastNbDone = 0;
+            while (!executor.awaitTermination(UI_REFRESH_INTERVAL, TimeUnit.MILLISECONDS)) {
+               if (monitor.isCanceled()) {
+                  executor.shutdownNow();
+                  return Status.CANCEL_STATUS;
+               }
+
+               // Publish partial results
+               int n = nbDone.get();
+               if (n != lastNbDone) {
+                  lastNbDone = n;
+                  sync.asyncExec(() -> {
+                     if (tableViewer.getControl().isDisposed()) {
+                        cancel();
+                        return;
+                     }
+                     tableViewer.refresh();
+                     tabItem.setText("(Refreshing.. " + n + "/" + nbToBrowse + ")");
+                  });
+               }
+            }
+         } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            return Status.CANCEL_STATUS;
          }
+      }
 
-         list.add(new QueueWithDepth(jtbQueue,
-                                     qm.getQueueDepth(jtbConnection.getJmsConnection(), jtbQueue.getName()),
-                                     firstMessageTimestamp));
+      if (monitor.isCanceled()) {
+         return Status.CANCEL_STATUS;
       }
 
+      long duration = System.currentTimeMillis() - start;
+      String stats = String.format(TOOLTIP_STATS,
+                                   nbQueues,
+                                   duration,
+                                   depthsDuration,
+                                   duration - depthsDuration,
+                                   nbToBrowse,
+                                   nbWorkers);
+      log.debug("{} : {}", getName(), stats);
+
       // Update UI
       sync.asyncExec(new Runnable() {
          @Override
@@ -122,9 +254,10 @@ public class CollectQueueDepthJob extends Job {
                return;
             }
 
-            tableViewer.setInput(list);
+            tableViewer.refresh();
             Utils.resizeTableViewerAll(tableViewer);
             tabItem.setText(title);
+            tabItem.setToolTipText(stats);
          }
       });
 
@@ -134,6 +267,10 @@ public class CollectQueueDepthJob extends Job {
    @Override
    protected void canceling() {
       log.debug("Canceling '{}'", getName());
+      ExecutorService e = executor;
+      if (e != null) {
+         e.shutdownNow();
+      }
       super.canceling();
    }
 
@@ -145,4 +282,41 @@ public class CollectQueueDepthJob extends Job {
       return false;
    }
 
+   // -------
+   // Helpers
+   // -------
+
+   // Worker: take the next queue to browse until there is none left. JMS sessions are not thread safe, use one per worker
+   private void browseFirstMessageTimestamps(List<QueueWithDepth> list,
+                                             AtomicInteger nextIndex,
+                                             AtomicInteger nbDone,
+                                             IProgressMonitor monitor) {
+      try (Session session = jtbConnection.createWorkerSession()) {
+         int i;
+         while (((i = nextIndex.getAndIncrement()) < list.size()) && (!monitor.isCanceled())) {
+            QueueWithDepth qwd = list.get(i);
+            try {
+               long browsedAt = System.currentTimeMillis();
+               qwd.firstMessageTimestamp = jtbConnection.getFirstMessageTimestamp(qwd.jtbQueue, session);
+               browsedTimestamps.put(qwd.jtbQueue.getName(), new BrowsedTimestamp(qwd.firstMessageTimestamp, browsedAt));
+            } catch (JMSException e) {
+               log.error("JMSException occurred when calling jtbConnection.getFirstMessageTimestamp", e);
+            }
+            nbDone.incrementAndGet();
+         }
+      } catch (JMSException e) {
+         log.error("JMSException occurred when creating or closing a session to read first message timestamps", e);
+      }
+   }
+
+   private static final class BrowsedTimestamp {
+      private final Date timestamp;
+      private final long browsedAt;
+
+      private BrowsedTimestamp(Date timestamp, long browsedAt) {
+         this.timestamp = timestamp;
+         this.browsedAt = browsedAt;
+      }
+   }
+
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2019 Denis Forveille titou10.titou10@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.titou10.jtb.ui.part.content;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.jface.viewers.ILazyContentProvider;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.jface.viewers.Viewer;
+import org.titou10.jtb.jms.model.JTBMessage;
+import org.titou10.jtb.util.Constants;
+
+/**
+ * Content provider for the message tables created with the SWT.VIRTUAL style
+ * 
+ * Only the rows that become visible are built, so the label providers are called only for them. The input must be a List
+ * 
+ * @author Denis Forveille
+ *
+ */
+final class JTBMessageLazyContentProvider implements ILazyContentProvider {
+
+   private TableViewer      tableViewer;
+   private List<JTBMessage> messages = Collections.emptyList();
+
+   @Override
+   @SuppressWarnings("unchecked")
+   public void inputChanged(Viewer viewer, Object oldInput, Object newInput) {
+      this.tableViewer = (TableViewer) viewer;
+      this.messages = newInput == null ? Collections.emptyList() : (List<JTBMessage>) newInput;
+
+      if (!viewer.getControl().isDisposed()) {
+         tableViewer.setItemCount(messages.size());
+      }
+   }
+
+   @Override
+   public void updateElement(int index) {
+      if (index < messages.size()) {
+         // Keep the row index with the item for the "#" column, before the label providers are called
+         tableViewer.getTable().getItem(index).setData(Constants.TABLE_ITEM_ROW_INDEX, index);
+         tableViewer.replace(messages.get(index), index);
+      }
+   }
+
+   @Override
+   public void dispose() {
+      // NOP
+   }
+
+}
@@ -17,9 +17,10 @@
 package org.titou10.jtb.ui.part.content;
 
 import java.io.IOException;
-import java.util.ArrayDeque;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Deque;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -31,11 +32,13 @@ import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.jms.JMSException;
+import javax.jms.Message;
 import javax.jms.MessageConsumer;
 import javax.xml.bind.JAXBException;
 
 import org.eclipse.core.commands.ParameterizedCommand;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.e4.core.commands.ECommandService;
 import org.eclipse.e4.core.commands.EHandlerService;
@@ -51,6 +54,8 @@ import org.eclipse.e4.ui.model.application.ui.basic.MWindow;
 import org.eclipse.e4.ui.services.EMenuService;
 import org.eclipse.e4.ui.workbench.IPresentationEngine;
 import org.eclipse.e4.ui.workbench.modeling.ESelectionService;
+import org.eclipse.jface.dialogs.InputDialog;
+import org.eclipse.jface.dialogs.MessageDialog;
 import org.eclipse.jface.viewers.ArrayContentProvider;
 import org.eclipse.jface.viewers.ColumnLabelProvider;
 import org.eclipse.jface.viewers.ComboViewer;
@@ -64,9 +69,9 @@ import org.eclipse.jface.viewers.StructuredSelection;
 import org.eclipse.jface.viewers.TableViewer;
 import org.eclipse.jface.viewers.TableViewerColumn;
 import org.eclipse.jface.viewers.TableViewerFocusCellManager;
+import org.eclipse.jface.viewers.ViewerCell;
 import org.eclipse.jface.window.Window;
 import org.eclipse.swt.SWT;
-import org.eclipse.swt.custom.BusyIndicator;
 import org.eclipse.swt.custom.CTabFolder;
 import org.eclipse.swt.custom.CTabItem;
 import org.eclipse.swt.dnd.DND;
@@ -106,6 +111,7 @@ import org.eclipse.swt.widgets.Table;
 import org.eclipse.swt.widgets.TableColumn;
 import org.eclipse.swt.widgets.Text;
 import org.eclipse.wb.swt.SWTResourceManager;
+import org.osgi.framework.FrameworkUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.titou10.jtb.config.JTBPreferenceStore;
@@ -119,16 +125,19 @@ import org.titou10.jtb.cs.gen.UserProperty;
 import org.titou10.jtb.jms.model.JTBConnection;
 import org.titou10.jtb.jms.model.JTBDestination;
 import org.titou10.jtb.jms.model.JTBMessage;
+import org.titou10.jtb.jms.model.JTBMessageTemplate;
 import org.titou10.jtb.jms.model.JTBQueue;
 import org.titou10.jtb.jms.model.JTBSession;
 import org.titou10.jtb.jms.model.JTBSessionClientType;
 import org.titou10.jtb.jms.model.JTBTopic;
+import org.titou10.jtb.jms.util.MessageJournal;
 import org.titou10.jtb.sessiontype.SessionTypeManager;
 import org.titou10.jtb.template.TemplatesManager;
 import org.titou10.jtb.ui.JTBStatusReporter;
 import org.titou10.jtb.ui.dnd.TransferJTBMessage;
 import org.titou10.jtb.ui.dnd.TransferTemplate;
 import org.titou10.jtb.ui.part.content.TabData.TabDataType;
+import org.titou10.jtb.ui.part.content.TopicListener.RecordedMessage;
 import org.titou10.jtb.util.Constants;
 import org.titou10.jtb.util.Utils;
 
@@ -149,6 +158,7 @@ public class JTBSessionContentViewPart {
    private static final int     CLEAR_BUTTON_SIZE        = 28;
    private static final String  PAYLOAD_SEARCH_TOOLTIP   = "Filter messages with payload containing this text";
    private static final String  SELECTORS_SEARCH_TOOLTIP = "Filter messages with JMS selectors";
+   private static final String  JOURNALS_DIRECTORY       = "journals";
 
    @Inject
    private UISynchronize        sync;
@@ -191,7 +201,6 @@ public class JTBSessionContentViewPart {
 
    private CTabFolder           tabFolder;
 
-   private Integer              nbMessage                = 0;
 
    private IEclipseContext      windowContext;
 
@@ -658,6 +667,18 @@ public class JTBSessionContentViewPart {
          }));
          // new DelayedRefreshTooltip(ps.getInt(Constants.PREF_AUTO_REFRESH_DELAY), btnAutoRefresh);
 
+         // Stop Button
+         final Button btnStop = new Button(leftComposite, SWT.NONE);
+         btnStop.setImage(SWTResourceManager.getImage(this.getClass(), "icons/cancel.png"));
+         btnStop.setToolTipText("Stop browsing the queue");
+         btnStop.setLayoutData(new GridData(SWT.CENTER, SWT.CENTER, false, false, 1, 1));
+         btnStop.addSelectionListener(SelectionListener.widgetSelectedAdapter(e -> {
+            BrowseQueueJob browseQueueJob = td.browseQueueJob;
+            if (browseQueueJob != null) {
+               browseQueueJob.cancel();
+            }
+         }));
+
          // Separator
          Composite separatorComposite = new Composite(composite, SWT.NONE);
          separatorComposite.setLayout(new RowLayout());
@@ -717,7 +738,8 @@ public class JTBSessionContentViewPart {
          // -------------------
          // Table with Messages
          // -------------------
-         final TableViewer tableViewer = new TableViewer(composite, SWT.BORDER | SWT.FULL_SELECTION | SWT.MULTI);
+         final TableViewer tableViewer = new TableViewer(composite, SWT.BORDER | SWT.FULL_SELECTION | SWT.MULTI | SWT.VIRTUAL);
+         tableViewer.setUseHashlookup(true);
 
          // Create Columns
          List<TableViewerColumn> cols = createColumns(tableViewer, true, cs);
@@ -819,13 +841,16 @@ public class JTBSessionContentViewPart {
                log.debug("dispose CTabItem for Queue '{}'", jtbQueueName);
                AutoRefreshJob job = td.autoRefreshJob;
                job.cancel();
+               if (td.browseQueueJob != null) {
+                  td.browseQueueJob.discard();
+               }
 
                mapTabData.remove(computeCTabItemName(jtbQueue));
             }
          });
 
-         // Kind of content
-         tableViewer.setContentProvider(ArrayContentProvider.getInstance());
+         // Kind of content. Only the visible rows are built
+         tableViewer.setContentProvider(new JTBMessageLazyContentProvider());
 
          int maxMessages = ps.getInt(Constants.PREF_MAX_MESSAGES);
          spinnerMaxMessages.setSelection(maxMessages);
@@ -864,10 +889,6 @@ public class JTBSessionContentViewPart {
                        td.payloadSearchItemsHistory,
                        td.selectorsSearchTextCombo,
                        td.selectorsSearchItemsHistory);
-
-      if (ps.getBoolean(Constants.PREF_AUTO_RESIZE_COLS_BROWSER)) {
-         Utils.resizeTableViewer(td.tableViewer);
-      }
    }
 
    private void loadQueueContent(final JTBQueue jtbQueue,
@@ -897,62 +918,27 @@ public class JTBSessionContentViewPart {
          selectorsSearchTextCombo.select(0);
       }
 
-      // G
-      BusyIndicator.showWhile(Display.getCurrent(), new Runnable() {
-         @Override
-         public void run() {
-            TabData td = mapTabData.get(computeCTabItemName(jtbQueue));
-
-            int maxMessages = td.maxMessages == 0 ? Integer.MAX_VALUE : td.maxMessages;
-
-            JTBConnection jtbConnection = jtbQueue.getJtbConnection();
-            Integer depth = jtbConnection.getQm().getQueueDepth(jtbConnection.getJmsConnection(), jtbQueue.getName());
-
-            nbMessage = 0;
-
-            try {
-               List<JTBMessage> messages = new ArrayList<>(256);
-               messages = jtbQueue.getJtbConnection().browseQueue(jtbQueue, maxMessages, payloadSearchText, selectorsSearchText);
-
-               // Display # messages in tab title
-
-               Integer totalMessages = messages.size();
-               log.debug("Q Depth : {} Max : {} Nb msg to display : {}", depth, maxMessages, totalMessages);
-
-               StringBuilder sb = new StringBuilder(64);
-               sb.append(jtbQueue.getName());
-               sb.append(" (");
-               sb.append(totalMessages);
-               if (totalMessages >= maxMessages) {
-                  if (depth != null) {
-                     sb.append(" / ");
-                     sb.append(depth);
-                  } else {
-                     sb.append("+");
-                  }
-               }
-               sb.append(")");
-               CTabItem tabItem = td.tabItem;
-               tabItem.setText(sb.toString());
-
-               if (totalMessages >= maxMessages) {
-                  tabItem.setImage(SWTResourceManager.getImage(this.getClass(), "icons/error.png"));
-               } else {
-                  if (payloadSearchText.isEmpty() && selectorsSearchText.isEmpty()) {
-                     tabItem.setImage(null);
-                  } else {
-                     tabItem.setImage(SWTResourceManager.getImage(this.getClass(), "icons/filter.png"));
-                  }
-               }
+      TabData td = mapTabData.get(computeCTabItemName(jtbQueue));
 
-               tableViewer.setInput(messages);
+      // A previous browse of this queue may still be running: its result is replaced by the new one
+      if (td.browseQueueJob != null) {
+         td.browseQueueJob.discard();
+      }
 
-            } catch (Throwable e) {
-               jtbStatusReporter.showError("Problem while browsing queue", Utils.getCause(e), "");
-               return;
-            }
-         }
-      });
+      int maxMessages = td.maxMessages == 0 ? Integer.MAX_VALUE : td.maxMessages;
+
+      // Browse the queue in the background, messages are added to the table as they are read
+      BrowseQueueJob job = new BrowseQueueJob(sync,
+                                              jtbStatusReporter,
+                                              jtbQueue,
+                                              maxMessages,
+                                              payloadSearchText,
+                                              selectorsSearchText,
+                                              ps.getBoolean(Constants.PREF_AUTO_RESIZE_COLS_BROWSER),
+                                              tableViewer,
+                                              td.tabItem);
+      td.browseQueueJob = job;
+      job.schedule();
    }
 
    @SuppressWarnings("unchecked")
@@ -974,8 +960,9 @@ public class JTBSessionContentViewPart {
       log.debug("clear captured messages. topic={}", jtbTopic);
 
       TabData td = mapTabData.get(computeCTabItemName(jtbTopic));
-      td.topicMessages.clear();
+      getShownTopicMessages(td).clear();
       td.tableViewer.refresh();
+      updateTopicTabText(td);
    }
 
    // Called when the "Remove Topic Message" command is called
@@ -991,10 +978,36 @@ public class JTBSessionContentViewPart {
 
       for (JTBMessage jtbMessage : messages) {
          log.debug("remove captured message {}", jtbMessage);
-         td.topicMessages.remove(jtbMessage);
+         getShownTopicMessages(td).remove(jtbMessage);
       }
 
       td.tableViewer.refresh();
+      updateTopicTabText(td);
+   }
+
+   // Update the number of messages displayed/received shown in the tab of a topic
+   private void updateTopicTabText(TabData td) {
+      TopicListener tl = getTopicListener(td);
+      if (tl != null) {
+         tl.updateTabText();
+      }
+   }
+
+   // Messages shown in the table: the messages kept in memory or a page of the journal
+   private TopicMessageBuffer getShownTopicMessages(TabData td) {
+      return td.topicJournalPage == null ? td.topicMessages : td.topicJournalPage;
+   }
+
+   private TopicListener getTopicListener(TabData td) {
+      if (td.topicMessageConsumer == null) {
+         return null;
+      }
+      try {
+         return (TopicListener) td.topicMessageConsumer.getMessageListener();
+      } catch (JMSException e) {
+         log.error("Exception when getting back the TopicListener", e);
+         return null;
+      }
    }
 
    // Called whenever a Topic is browsed
@@ -1025,7 +1038,7 @@ public class JTBSessionContentViewPart {
          // -----------
          // Search Line
          // -----------
-         GridLayout glSearch = new GridLayout(5, false);
+         GridLayout glSearch = new GridLayout(10, false);
          glSearch.marginWidth = 0;
          glSearch.marginHeight = 0;
 
@@ -1057,6 +1070,30 @@ public class JTBSessionContentViewPart {
          btnStopStartSub.setLayoutData(new GridData(SWT.CENTER, SWT.CENTER, false, false, 1, 1));
          btnStopStartSub.setSelection(true);
 
+         // Journal: Record/Page/Replay
+         final Button btnRecord = new Button(leftComposite, SWT.TOGGLE);
+         btnRecord.setImage(SWTResourceManager.getImage(this.getClass(), "icons/messages/email_save.png"));
+         btnRecord.setToolTipText("Record the messages in a journal on disk instead of keeping them in memory");
+         btnRecord.setLayoutData(new GridData(SWT.CENTER, SWT.CENTER, false, false, 1, 1));
+
+         final Button btnPagePrevious = new Button(leftComposite, SWT.NONE);
+         btnPagePrevious.setText("<");
+         btnPagePrevious.setToolTipText("Show older messages of the journal");
+         btnPagePrevious.setEnabled(false);
+
+         final Label labelJournalPage = new Label(leftComposite, SWT.NONE);
+         labelJournalPage.setLayoutData(new GridData(SWT.CENTER, SWT.CENTER, false, false, 1, 1));
+
+         final Button btnPageNext = new Button(leftComposite, SWT.NONE);
+         btnPageNext.setText(">");
+         btnPageNext.setToolTipText("Show newer messages of the journal");
+         btnPageNext.setEnabled(false);
+
+         final Button btnReplay = new Button(leftComposite, SWT.NONE);
+         btnReplay.setImage(SWTResourceManager.getImage(this.getClass(), "icons/messages/email_go.png"));
+         btnReplay.setToolTipText("Replay the messages of the journal to a destination");
+         btnReplay.setEnabled(false);
+
          // Separator
          Composite separatorComposite = new Composite(composite, SWT.NONE);
          separatorComposite.setLayout(new RowLayout());
@@ -1086,24 +1123,12 @@ public class JTBSessionContentViewPart {
                int max = spinnerMaxMessages.getSelection();
                td.maxMessages = max == 0 ? Integer.MAX_VALUE : max;
 
-               // Set TopicListener max messages
-               if (td.topicMessageConsumer != null) {
-                  try {
-                     TopicListener tl = (TopicListener) td.topicMessageConsumer.getMessageListener();
-                     tl.setMaxSize(td.maxMessages);
-                  } catch (JMSException e1) {
-                     // DF what to do here? alert user??
-                     log.error("Exception when getting back the TopicListener", e);
-                  }
-               }
-
                // On tab creation, td.xx objects do not exist yet...
                if (td.topicMessages != null) {
                   // Clean messages table
-                  while (td.topicMessages.size() > td.maxMessages) {
-                     td.topicMessages.pollLast();
-                  }
+                  td.topicMessages.setMaxMessages(td.maxMessages);
                   td.tableViewer.refresh();
+                  updateTopicTabText(td);
                }
             }
          });
@@ -1133,7 +1158,8 @@ public class JTBSessionContentViewPart {
          // -------------------
          // Table with Messages
          // -------------------
-         final TableViewer tableViewer = new TableViewer(composite, SWT.BORDER | SWT.FULL_SELECTION | SWT.MULTI);
+         final TableViewer tableViewer = new TableViewer(composite, SWT.BORDER | SWT.FULL_SELECTION | SWT.MULTI | SWT.VIRTUAL);
+         tableViewer.setUseHashlookup(true);
 
          // Create Columns
          td.tableViewerColumns = createColumns(tableViewer, false, cs);
@@ -1146,9 +1172,12 @@ public class JTBSessionContentViewPart {
 
          // Manage Content
          tableViewer.setContentProvider(ArrayContentProvider.getInstance());
-         final Deque<JTBMessage> messages = new ArrayDeque<>();
+         int maxMessagesTopic = ps.getInt(Constants.PREF_MAX_MESSAGES_TOPIC);
+         int maxMBTopic = ps.getInt(Constants.PREF_MAX_MB_TOPIC);
+         final TopicMessageBuffer messages = new TopicMessageBuffer(maxMessagesTopic == 0 ? Integer.MAX_VALUE : maxMessagesTopic,
+                                                                    maxMBTopic == 0 ? Long.MAX_VALUE : maxMBTopic * 1024L * 1024L);
          tableViewer.setInput(messages);
-         spinnerMaxMessages.setSelection(ps.getInt(Constants.PREF_MAX_MESSAGES_TOPIC));
+         spinnerMaxMessages.setSelection(maxMessagesTopic);
 
          // Drag and Drop
          int operations = DND.DROP_MOVE;
@@ -1197,7 +1226,7 @@ public class JTBSessionContentViewPart {
          table.addKeyListener(KeyListener.keyReleasedAdapter(e -> {
             if (e.keyCode == 'a' && (e.stateMask & SWT.MODIFIER_MASK) == SWT.CTRL) {
                // Selection MUST be a List<>
-               IStructuredSelection selection = new StructuredSelection(new ArrayList<JTBMessage>(td.topicMessages));
+               IStructuredSelection selection = new StructuredSelection(new ArrayList<JTBMessage>(getShownTopicMessages(td)));
                tableViewer.setSelection(selection);
                return;
             }
@@ -1232,10 +1261,75 @@ public class JTBSessionContentViewPart {
                } catch (JMSException e) {
                   log.error("Exception when closing subscription", e);
                }
+               // The journal can't be reopened once the tab is closed
+               if (td.topicJournalPageJob != null) {
+                  td.topicJournalPageJob.discard();
+               }
+               if (td.topicJournal != null) {
+                  td.topicJournal.delete();
+               }
                mapTabData.remove(computeCTabItemName(jtbTopic));
             }
          });
 
+         // Manage the behavior of the journal buttons
+         btnRecord.addSelectionListener(SelectionListener.widgetSelectedAdapter(e -> {
+            TabData td2 = (TabData) tabFolder.getSelection().getData();
+
+            if (btnRecord.getSelection()) {
+               if (!startTopicJournal(td2)) {
+                  btnRecord.setSelection(false);
+               }
+            } else {
+               stopTopicJournal(td2);
+            }
+
+            // The journal can still be browsed and replayed once the recording is stopped
+            boolean journal = td2.topicJournal != null;
+            btnPagePrevious.setEnabled(journal);
+            btnPageNext.setEnabled(journal);
+            btnReplay.setEnabled(journal);
+         }));
+
+         btnPagePrevious.addSelectionListener(SelectionListener.widgetSelectedAdapter(e -> {
+            TabData td2 = (TabData) tabFolder.getSelection().getData();
+            if (td2.topicJournalPageJob != null) {
+               return;
+            }
+            // From the messages kept in memory, go to the last page of the journal
+            long first = td2.topicJournal.size();
+            if (td2.topicJournalPage != null) {
+               first = td2.topicJournalNext - td2.topicJournalPage.size();
+            }
+            td2.topicJournalFirst = Math.max(0, first - getJournalPageSize(td2));
+            loadJournalPage(td2);
+         }));
+
+         btnPageNext.addSelectionListener(SelectionListener.widgetSelectedAdapter(e -> {
+            TabData td2 = (TabData) tabFolder.getSelection().getData();
+            if ((td2.topicJournalPage == null) || (td2.topicJournalPageJob != null)) {
+               return;
+            }
+            MessageJournal journal = td2.topicJournal;
+            if (td2.topicJournalNext >= journal.size()) {
+               // Last page. Once the recording is stopped, go back to the messages kept in memory
+               if (!journal.isRecording()) {
+                  showTopicMessages(td2);
+               }
+               return;
+            }
+            int pageSize = getJournalPageSize(td2);
+            long first = td2.topicJournalNext;
+            // Follow the new messages when reaching the last page
+            td2.topicJournalFirst = first + pageSize >= journal.size() ? -1 : first;
+            loadJournalPage(td2);
+         }));
+
+         btnReplay.addSelectionListener(SelectionListener.widgetSelectedAdapter(e -> {
+            TabData td2 = (TabData) tabFolder.getSelection().getData();
+            replayTopicJournal(td2);
+         }));
+
          // Manage the behavior of the Stop/Start button
          btnStopStartSub.addSelectionListener(SelectionListener.widgetSelectedAdapter(e -> {
             TabData td2 = (TabData) tabFolder.getSelection().getData();
@@ -1250,8 +1344,8 @@ public class JTBSessionContentViewPart {
                                                                  tableViewer,
                                                                  tabItemTopic,
                                                                  selector,
-                                                                 messages,
-                                                                 td.maxMessages);
+                                                                 messages);
+                  attachTopicJournal(td2);
                   btnStopStartSub.setImage(SWTResourceManager.getImage(this.getClass(), "icons/topics/pause-16.png"));
                   btnStopStartSub.setToolTipText("Stop Subscription");
                   if (!selector.isEmpty()) {
@@ -1302,6 +1396,8 @@ public class JTBSessionContentViewPart {
          td.topicMessages = messages;
          td.columnsSet = cs;
          td.selectorsSearchTextTopic = selectorsSearchText;
+         td.topicJournalFirst = -1;
+         td.topicJournalPageLabel = labelJournalPage;
 
          tabItemTopic.setData(td);
          mapTabData.put(currentCTabItemName, td);
@@ -1312,8 +1408,7 @@ public class JTBSessionContentViewPart {
                                                           tableViewer,
                                                           tabItemTopic,
                                                           selectorsSearchText.getText().trim(),
-                                                          messages,
-                                                          maxMessages);
+                                                          messages);
 
          } catch (JMSException e1) {
             String msg = "An Exception occured when initially starting the subscription";
@@ -1335,20 +1430,234 @@ public class JTBSessionContentViewPart {
                                                TableViewer tableViewer,
                                                CTabItem tabItemTopic,
                                                String selector,
-                                               Deque<JTBMessage> messages,
-                                               int maxMessages) throws JMSException {
+                                               TopicMessageBuffer messages) throws JMSException {
 
       TopicListener tl = new TopicListener(sync,
                                            jtbTopic,
                                            messages,
                                            tableViewer,
                                            tabItemTopic,
-                                           maxMessages,
                                            !Utils.isEmpty(selector));
       JTBConnection jtbConnection = jtbTopic.getJtbConnection();
       return jtbConnection.createTopicConsumer(jtbTopic, tl, selector);
    }
 
+   // ---------------
+   // Topic Journals
+   // ---------------
+
+   // Start recording the messages received in a new journal. The table then shows pages of the journal
+   private boolean startTopicJournal(TabData td) {
+      JTBTopic jtbTopic = td.jtbDestination.getAsJTBTopic();
+
+      String journalName = String.format("%s_%s_%tY%<tm%<td-%<tH%<tM%<tS%<tL",
+                                         jtbTopic.getJtbConnection().getSessionName(),
+                                         jtbTopic.getName(),
+                                         new Date());
+      String workDirectory = Platform.getStateLocation(FrameworkUtil.getBundle(this.getClass())).toString();
+      Path directory = Paths.get(workDirectory, JOURNALS_DIRECTORY, journalName.replaceAll("[^A-Za-z0-9._-]", "_"));
+
+      try {
+         MessageJournal journal = MessageJournal.create(directory);
+         // The previous journal can't be reopened once replaced
+         if (td.topicJournal != null) {
+            td.topicJournal.delete();
+         }
+         td.topicJournal = journal;
+      } catch (IOException e) {
+         jtbStatusReporter.showError("An exception occurred when creating the journal", e, directory);
+         return false;
+      }
+      log.info("Recording messages from topic '{}' in journal {}", jtbTopic.getName(), directory);
+
+      td.topicJournalFirst = -1;
+      attachTopicJournal(td);
+      loadJournalPage(td);
+      return true;
+   }
+
+   private void stopTopicJournal(TabData td) {
+      TopicListener tl = getTopicListener(td);
+      if (tl != null) {
+         tl.setJournal(null, null);
+      }
+
+      try {
+         td.topicJournal.stopRecording();
+      } catch (IOException e) {
+         jtbStatusReporter.showError("An exception occurred when closing the journal", e, td.topicJournal.getDirectory());
+      }
+      log.info("Journal {} closed. {} messages recorded", td.topicJournal.getDirectory(), td.topicJournal.size());
+
+      // Back to messages kept in memory. The journal can still be browsed with the page buttons
+      showTopicMessages(td);
+   }
+
+   // Show the messages kept in memory instead of a page of the journal
+   private void showTopicMessages(TabData td) {
+      if (td.topicJournalPageJob != null) {
+         td.topicJournalPageJob.discard();
+         td.topicJournalPageJob = null;
+      }
+      td.topicJournalPage = null;
+      td.topicJournalRecorded = null;
+      td.topicJournalPageLabel.setText("");
+      td.topicJournalPageLabel.getParent().layout();
+
+      td.tableViewer.setInput(td.topicMessages);
+      updateTopicTabText(td);
+   }
+
+   // Make the TopicListener record the messages in the journal, if any
+   private void attachTopicJournal(TabData td) {
+      TopicListener tl = getTopicListener(td);
+      if ((tl != null) && (td.topicJournal != null) && (td.topicJournal.isRecording())) {
+         tl.setJournal(td.topicJournal, recordedMessages -> addRecordedMessages(td, recordedMessages));
+      }
+   }
+
+   // Read the page of the journal to show in the background. The page is shown when it has been read
+   private void loadJournalPage(TabData td) {
+      if (td.topicJournalPageJob != null) {
+         td.topicJournalPageJob.discard();
+      }
+      td.topicJournalRecorded = new ArrayList<>();
+
+      ReadJournalPageJob job = new ReadJournalPageJob(sync,
+                                                      td.topicJournal,
+                                                      td.topicJournalFirst,
+                                                      getJournalPageSize(td),
+                                                      (first, size, templates) -> showJournalPage(td, first, templates));
+      td.topicJournalPageJob = job;
+      job.schedule();
+   }
+
+   // Show a page read from the journal, newest messages first
+   private void showJournalPage(TabData td, long first, List<JTBMessageTemplate> templates) {
+      td.topicJournalPageJob = null;
+      if (td.tableViewer.getTable().isDisposed()) {
+         return;
+      }
+
+      JTBTopic jtbTopic = td.jtbDestination.getAsJTBTopic();
+      JTBConnection jtbConnection = jtbTopic.getJtbConnection();
+
+      TopicMessageBuffer page = new TopicMessageBuffer(getJournalPageSize(td), Long.MAX_VALUE);
+      try {
+         for (JTBMessageTemplate jtbMessageTemplate : templates) {
+            page.addFirst(journalToJTBMessage(jtbConnection, jtbTopic, jtbMessageTemplate));
+         }
+      } catch (JMSException e) {
+         log.error("Exception occurred when building the messages read from the journal {}", td.topicJournal.getDirectory(), e);
+      }
+      td.topicJournalPage = page;
+      td.topicJournalNext = first + templates.size();
+
+      // Add the messages recorded while the page was read
+      List<RecordedMessage> recordedMessages = td.topicJournalRecorded;
+      td.topicJournalRecorded = null;
+      addRecordedMessages(td, recordedMessages);
+
+      td.tableViewer.setInput(page);
+      updateJournalPageLabel(td);
+   }
+
+   // Called in the UI thread with the messages just recorded in the journal. Only the last page follows the new messages
+   private void addRecordedMessages(TabData td, List<RecordedMessage> recordedMessages) {
+      if (td.topicJournalFirst >= 0) {
+         return;
+      }
+
+      // The page is being read: the messages will be added when it is shown
+      if (td.topicJournalPageJob != null) {
+         td.topicJournalRecorded.addAll(recordedMessages);
+         return;
+      }
+
+      if (td.topicJournalPage == null) {
+         return;
+      }
+      for (RecordedMessage recordedMessage : recordedMessages) {
+         // The page read from the journal may already contain it
+         if (recordedMessage.position >= td.topicJournalNext) {
+            td.topicJournalPage.addFirst(recordedMessage.jtbMessage);
+            td.topicJournalNext = recordedMessage.position + 1;
+         }
+      }
+      updateJournalPageLabel(td);
+   }
+
+   private void updateJournalPageLabel(TabData td) {
+      long size = td.topicJournal.size();
+      long first = td.topicJournalNext - td.topicJournalPage.size();
+      td.topicJournalPageLabel.setText(String.format("%d-%d / %d",
+                                                     td.topicJournalPage.isEmpty() ? 0 : first + 1,
+                                                     td.topicJournalNext,
+                                                     size));
+      td.topicJournalPageLabel.getParent().layout();
+   }
+
+   private int getJournalPageSize(TabData td) {
+      return td.maxMessages == Integer.MAX_VALUE ? Constants.PREF_MAX_MESSAGES_TOPIC_DEFAULT : td.maxMessages;
+   }
+
+   private JTBMessage journalToJTBMessage(JTBConnection jtbConnection,
+                                          JTBTopic jtbTopic,
+                                          JTBMessageTemplate jtbMessageTemplate) throws JMSException {
+      Message m = jtbConnection.createJMSMessage(jtbMessageTemplate.getJtbMessageType());
+      JTBMessage jtbMessage = jtbMessageTemplate.toJTBMessage(jtbTopic, m);
+
+      // Restore the headers set by the provider when the message was received
+      try {
+         m.setJMSMessageID(jtbMessageTemplate.getJmsMessageID());
+         if (jtbMessageTemplate.getJmsTimestamp() != null) {
+            m.setJMSTimestamp(jtbMessageTemplate.getJmsTimestamp());
+         }
+         if (jtbMessageTemplate.getJmsExpiration() != null) {
+            m.setJMSExpiration(jtbMessageTemplate.getJmsExpiration());
+         }
+         if (jtbMessageTemplate.getDeliveryMode() != null) {
+            m.setJMSDeliveryMode(jtbMessageTemplate.getDeliveryMode().intValue());
+         }
+         if (jtbMessageTemplate.getPriority() != null) {
+            m.setJMSPriority(jtbMessageTemplate.getPriority());
+         }
+         if (jtbMessageTemplate.getJmsDeliveryTime() != null) {
+            m.setJMSDeliveryTime(jtbMessageTemplate.getJmsDeliveryTime());
+         }
+      } catch (Throwable t) {
+         // JMS 2.0+ only or not allowed by the provider..
+         log.debug("Exception when restoring the headers of a message read from the journal: {}", t.getMessage());
+      }
+      return jtbMessage;
+   }
+
+   // Send the messages recorded in the journal to a destination chosen by the user
+   private void replayTopicJournal(TabData td) {
+      MessageJournal journal = td.topicJournal;
+      JTBTopic jtbTopic = td.jtbDestination.getAsJTBTopic();
+      Shell shell = tabFolder.getShell();
+
+      InputDialog inputDialog = new InputDialog(shell,
+                                                "Replay Journal",
+                                                "Name of the destination where to send the " + journal.size()
+                                                                  + " messages of the journal:",
+                                                jtbTopic.getName(),
+                                                null);
+      if (inputDialog.open() != Window.OK) {
+         return;
+      }
+
+      String destinationName = inputDialog.getValue().trim();
+      JTBDestination jtbDestination = jtbTopic.getJtbConnection().getJTBDestinationByName(destinationName);
+      if (jtbDestination == null) {
+         MessageDialog.openError(shell, "Replay Journal", "Destination '" + destinationName + "' does not exist");
+         return;
+      }
+
+      new ReplayJournalJob(jtbStatusReporter, journal, jtbDestination).schedule();
+   }
+
    // -----------------------
    // Synthetic View Handling
    // -----------------------
@@ -1594,6 +1903,8 @@ public class JTBSessionContentViewPart {
          CollectQueueDepthJob cqdj = new CollectQueueDepthJob(sync,
                                                               "Collect Queue Depth job for " + jtbSessionName,
                                                               jtbSession.getJTBConnection(JTBSessionClientType.GUI),
+                                                              ps.getInt(Constants.PREF_Q_DEPTH_PARALLELISM),
+                                                              ps.getInt(Constants.PREF_Q_DEPTH_BROWSE_INTERVAL),
                                                               tableViewer,
                                                               tabItemSynthetic,
                                                               tabItemSynthetic.getText());
@@ -1606,6 +1917,7 @@ public class JTBSessionContentViewPart {
                log.debug("dispose CTabItem for Synthetic View for Session '{}'", jtbSessionName);
                AutoRefreshJob job = td.autoRefreshJob;
                job.cancel();
+               td.collectQueueDepthJob.cancel();
 
                mapTabData.remove(computeCTabItemName(jtbSession));
             }
@@ -1727,9 +2039,10 @@ public class JTBSessionContentViewPart {
          col.setLabelProvider(new ColumnLabelProvider() {
 
             @Override
-            public String getText(Object element) {
-               nbMessage++;
-               return nbMessage.toString();
+            public void update(ViewerCell cell) {
+               // Row number. The rows of virtual tables are built in any order, the index is set by the lazy content provider
+               Integer index = (Integer) cell.getItem().getData(Constants.TABLE_ITEM_ROW_INDEX);
+               cell.setText(index == null ? "" : String.valueOf(index + 1));
             }
          });
       }
@@ -1809,9 +2122,10 @@ public class JTBSessionContentViewPart {
       for (TableViewerColumn c : td.tableViewerColumns) {
          c.getColumn().dispose();
       }
-      nbMessage = 0;
       td.columnsSet = cs;
-      td.tableViewerColumns = createColumns(td.tableViewer, true, td.columnsSet);
+      // Only the Queue tables have the "#" column, its value is set by their lazy content provider
+      boolean showNb = (td.type == TabDataType.JTBDESTINATION) && (td.jtbDestination.isJTBQueue());
+      td.tableViewerColumns = createColumns(td.tableViewer, showNb, td.columnsSet);
       td.tableViewer.refresh();
 
       windowContext.set(Constants.CURRENT_COLUMNSSET, cs);
@@ -28,9 +28,11 @@ import org.titou10.jtb.jms.model.JTBQueue;
  */
 final class QueueWithDepth {
 
-   JTBQueue jtbQueue;
-   Integer  depth;
-   Date     firstMessageTimestamp;
+   JTBQueue      jtbQueue;
+   Integer       depth;
+
+   // Set by the background workers of CollectQueueDepthJob while the row is already displayed
+   volatile Date firstMessageTimestamp;
 
    QueueWithDepth(JTBQueue jtbQueue, Integer depth, Date firstMessageTimestamp) {
       this.jtbQueue = jtbQueue;
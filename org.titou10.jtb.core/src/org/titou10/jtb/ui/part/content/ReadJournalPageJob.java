@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2019 Denis Forveille titou10.titou10@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.titou10.jtb.ui.part.content;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.e4.ui.di.UISynchronize;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.titou10.jtb.jms.model.JTBMessageTemplate;
+import org.titou10.jtb.jms.util.MessageJournal;
+import org.titou10.jtb.util.Constants;
+
+/**
+ * Job that reads a page of a topic journal from disk in the background, then hands it over to the UI thread
+ * 
+ * @author Denis Forveille
+ *
+ */
+final class ReadJournalPageJob extends Job {
+
+   private static final Logger   log = LoggerFactory.getLogger(ReadJournalPageJob.class);
+
+   private final UISynchronize   sync;
+   private final MessageJournal  journal;
+   private final long            first;
+   private final int             pageSize;
+   private final JournalPageView view;
+
+   private volatile boolean      discarded;
+
+   @FunctionalInterface
+   interface JournalPageView {
+      // Called in the UI thread with the messages read, oldest first, and the size of the journal when the page was read
+      void show(long first, long size, List<JTBMessageTemplate> templates);
+   }
+
+   // ------------
+   // Constructors
+   // ------------
+
+   // first: position of the first message of the page, -1 = last page
+   ReadJournalPageJob(UISynchronize sync, MessageJournal journal, long first, int pageSize, JournalPageView view) {
+      super("Read journal page");
+      this.setSystem(true);
+      this.sync = sync;
+      this.journal = journal;
+      this.first = first;
+      this.pageSize = pageSize;
+      this.view = view;
+   }
+
+   // ------------------
+   // Business Interface
+   // ------------------
+
+   // Forget the result, because another page replaces it
+   void discard() {
+      discarded = true;
+      cancel();
+   }
+
+   @Override
+   protected IStatus run(IProgressMonitor monitor) {
+
+      if (!journal.retain()) {
+         return Status.CANCEL_STATUS;
+      }
+
+      long size = journal.size();
+      long pageFirst = first < 0 ? Math.max(0, size - pageSize) : first;
+      List<JTBMessageTemplate> templates;
+      try {
+         templates = journal.read(pageFirst, pageSize);
+      } catch (IOException e) {
+         log.error("Exception occurred when reading the journal {}", journal.getDirectory(), e);
+         templates = Collections.emptyList();
+      } finally {
+         journal.release();
+      }
+
+      List<JTBMessageTemplate> page = templates;
+      sync.asyncExec(() -> {
+         if (!discarded) {
+            view.show(pageFirst, size, page);
+         }
+      });
+
+      return Status.OK_STATUS;
+   }
+
+   @Override
+   public boolean belongsTo(Object family) {
+      if (family instanceof String) {
+         return Constants.JTB_JOBS_FAMILY.equals(family);
+      }
+      return false;
+   }
+}
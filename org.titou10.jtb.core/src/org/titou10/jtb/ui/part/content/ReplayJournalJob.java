@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2019 Denis Forveille titou10.titou10@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.titou10.jtb.ui.part.content;
+
+import java.util.List;
+
+import javax.jms.Message;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.titou10.jtb.jms.model.JTBConnection;
+import org.titou10.jtb.jms.model.JTBDestination;
+import org.titou10.jtb.jms.model.JTBMessageTemplate;
+import org.titou10.jtb.jms.model.JTBSendResult;
+import org.titou10.jtb.jms.model.JTBWorkerProducer;
+import org.titou10.jtb.jms.util.MessageJournal;
+import org.titou10.jtb.ui.JTBStatusReporter;
+import org.titou10.jtb.util.Constants;
+import org.titou10.jtb.util.Utils;
+
+/**
+ * Job that sends the messages recorded in a topic journal to a destination, oldest first
+ * 
+ * @author Denis Forveille
+ *
+ */
+final class ReplayJournalJob extends Job {
+
+   private static final Logger     log        = LoggerFactory.getLogger(ReplayJournalJob.class);
+
+   // Messages are read from the journal and sent by batches of BATCH_SIZE messages
+   private static final int        BATCH_SIZE = 100;
+
+   private final JTBStatusReporter jtbStatusReporter;
+   private final MessageJournal    journal;
+   private final JTBDestination    jtbDestination;
+
+   // ------------
+   // Constructors
+   // ------------
+
+   ReplayJournalJob(JTBStatusReporter jtbStatusReporter, MessageJournal journal, JTBDestination jtbDestination) {
+      super("Replay journal to " + jtbDestination.getName());
+      this.jtbStatusReporter = jtbStatusReporter;
+      this.journal = journal;
+      this.jtbDestination = jtbDestination;
+   }
+
+   // ------------------
+   // Business Interface
+   // ------------------
+
+   @Override
+   protected IStatus run(IProgressMonitor monitor) {
+
+      // The journal is deleted when its tab is closed, but not while it is replayed
+      if (!journal.retain()) {
+         return Status.CANCEL_STATUS;
+      }
+
+      // Messages recorded after the start of the replay are not sent
+      long nb = journal.size();
+      log.debug("Replaying {} messages from journal {} to {}", nb, journal.getDirectory(), jtbDestination);
+
+      JTBConnection jtbConnection = jtbDestination.getJtbConnection();
+      monitor.beginTask(getName(), (int) Math.min(nb, Integer.MAX_VALUE));
+
+      int nbSent = 0;
+      long start = System.nanoTime();
+
+      // JMS sessions are not thread safe: the messages are sent with a producer that has its own session, not the connection's
+      try (JTBWorkerProducer producer = jtbConnection.createWorkerProducer(jtbDestination)) {
+         for (long first = 0; first < nb; first += BATCH_SIZE) {
+            if (monitor.isCanceled()) {
+               break;
+            }
+
+            List<JTBMessageTemplate> templates = journal.read(first, (int) Math.min(BATCH_SIZE, nb - first));
+            for (JTBMessageTemplate jtbMessageTemplate : templates) {
+               Message m = producer.createJMSMessage(jtbMessageTemplate.getJtbMessageType());
+               producer.send(jtbMessageTemplate.toJTBMessage(jtbDestination, m));
+               nbSent++;
+            }
+            monitor.worked(templates.size());
+         }
+      } catch (Throwable e) {
+         jtbStatusReporter.showError("Problem while replaying the journal after " + nbSent + " messages", Utils.getCause(e), "");
+         return Status.OK_STATUS;
+      } finally {
+         journal.release();
+         monitor.done();
+      }
+
+      JTBSendResult total = new JTBSendResult(nbSent, System.nanoTime() - start);
+      log.info("Journal {} replayed to {}: {}", journal.getDirectory(), jtbDestination, total);
+      jtbStatusReporter.showInfo(String.format("%d messages of the journal have been sent to '%s' (%.0f msgs/s)",
+                                               nbSent,
+                                               jtbDestination.getName(),
+                                               total.getThroughput()),
+                                 null);
+      return Status.OK_STATUS;
+   }
+
+   @Override
+   public boolean belongsTo(Object family) {
+      if (family instanceof String) {
+         return Constants.JTB_JOBS_FAMILY.equals(family);
+      }
+      return false;
+   }
+}
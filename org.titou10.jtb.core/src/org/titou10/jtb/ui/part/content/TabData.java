@@ -16,7 +16,6 @@
  */
 package org.titou10.jtb.ui.part.content;
 
-import java.util.Deque;
 import java.util.List;
 
 import javax.jms.MessageConsumer;
@@ -25,11 +24,14 @@ import org.eclipse.jface.viewers.TableViewer;
 import org.eclipse.jface.viewers.TableViewerColumn;
 import org.eclipse.swt.custom.CTabItem;
 import org.eclipse.swt.widgets.Combo;
+import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.Text;
 import org.titou10.jtb.cs.gen.ColumnsSet;
 import org.titou10.jtb.jms.model.JTBDestination;
 import org.titou10.jtb.jms.model.JTBMessage;
 import org.titou10.jtb.jms.model.JTBSession;
+import org.titou10.jtb.jms.util.MessageJournal;
+import org.titou10.jtb.ui.part.content.TopicListener.RecordedMessage;
 
 /**
  * Hold all information to the destination shown in a tab in the JTBSEssionContentViewPart
@@ -61,13 +63,25 @@ final class TabData {
    // Queues specifics
    AutoRefreshJob          autoRefreshJob;
    boolean                 autoRefreshActive;
+   BrowseQueueJob          browseQueueJob;
 
    CollectQueueDepthJob    collectQueueDepthJob;
 
    // Topic specifics
-   Deque<JTBMessage>       topicMessages;
+   TopicMessageBuffer      topicMessages;
    int                     maxMessages;
    MessageConsumer         topicMessageConsumer;
+   MessageJournal          topicJournal;
+   // Page of the journal shown in the table instead of topicMessages, null = the table shows topicMessages
+   TopicMessageBuffer      topicJournalPage;
+   // Position in the journal of the first message of the page, -1 = last page, following the new messages
+   long                    topicJournalFirst;
+   // Position in the journal of the message following the last one of the page
+   long                    topicJournalNext;
+   ReadJournalPageJob      topicJournalPageJob;
+   // Messages recorded while the page is read
+   List<RecordedMessage>   topicJournalRecorded;
+   Label                   topicJournalPageLabel;
 
    // Synthetic View Specific
    Text                    filterText;
@@ -111,6 +125,8 @@ final class TabData {
       builder.append(maxMessages);
       builder.append(", topicMessageConsumer=");
       builder.append(topicMessageConsumer);
+      builder.append(", topicJournal=");
+      builder.append(topicJournal == null ? null : topicJournal.getDirectory());
       builder.append("]");
       return builder.toString();
    }
@@ -16,7 +16,14 @@
  */
 package org.titou10.jtb.ui.part.content;
 
-import java.util.Deque;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.jms.JMSException;
 import javax.jms.Message;
@@ -30,33 +37,60 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.titou10.jtb.jms.model.JTBMessage;
 import org.titou10.jtb.jms.model.JTBTopic;
+import org.titou10.jtb.jms.util.MessageJournal;
+import org.titou10.jtb.jms.util.SubscriptionMetrics;
+import org.titou10.jtb.util.Utils;
 
 /**
  * MessageListener to capture messages published to a topic
  * 
+ * Messages received are queued and added to the table by batches, at most every FLUSH_INTERVAL ms, to not flood the UI thread when
+ * the rate of messages is high
+ * 
  * @author Denis Forveille
  *
  */
 public final class TopicListener implements MessageListener {
 
-   private static final Logger     log = LoggerFactory.getLogger(TopicListener.class);
+   private static final Logger           log                      = LoggerFactory.getLogger(TopicListener.class);
+
+   // Minimum delay in ms between two updates of the table
+   private static final int              FLUSH_INTERVAL           = 100;
+
+   // Delay in ms between two refreshes of the metrics while messages are received
+   private static final int              METRICS_REFRESH_INTERVAL = 1000;
+   private static final String           METRICS_TOOLTIP          = "Received: %d messages, %s%nRate: %.1f msg/s, %s/s%n"
+                                                                    + "Latency (ms): p50=%d p90=%d p99=%d max=%d";
 
-   private UISynchronize           sync;
+   private UISynchronize                 sync;
 
-   private final JTBTopic          jtbTopic;
-   private final TableViewer       tableViewer;
-   private final CTabItem          tabItemTopic;
-   private final Deque<JTBMessage> messages;
-   private int                     maxSize;
-   private boolean                 selectorInUse;
+   private final JTBTopic                jtbTopic;
+   private final TableViewer             tableViewer;
+   private final CTabItem                tabItemTopic;
+   private final TopicMessageBuffer      messages;
+   private boolean                       selectorInUse;
    // private Session jmsAsynchronousSession;
 
+   // Messages received but not yet added to the table. Bounded by the limits of the table, the oldest ones are dropped first
+   private final Queue<PendingMessage>   pendingMessages          = new ConcurrentLinkedQueue<>();
+   private final AtomicInteger           nbPendingMessages        = new AtomicInteger();
+   private final AtomicLong              nbPendingBytes           = new AtomicLong();
+   private final AtomicBoolean           pendingDropped           = new AtomicBoolean();
+   private final AtomicBoolean           flushScheduled           = new AtomicBoolean();
+   private final AtomicLong              nbReceived               = new AtomicLong();
+   private final SubscriptionMetrics     metrics                  = new SubscriptionMetrics();
+   private boolean                       metricsRefreshScheduled;
+
+   // When set, messages are recorded in the journal instead of being kept in memory
+   private volatile MessageJournal       journal;
+   private volatile RecordedMessagesView recordedMessagesView;
+   private final Queue<RecordedMessage>  pendingRecordedMessages  = new ConcurrentLinkedQueue<>();
+
    public TopicListener(UISynchronize sync,
                         JTBTopic jtbTopic,
-                        Deque<JTBMessage> messages,
+                        TopicMessageBuffer messages,
                         TableViewer tableViewer,
                         CTabItem tabItemTopic,
-                        int maxSize,
                         boolean selectorInUse) {
       this.sync = sync;
 
@@ -64,54 +98,204 @@ public final class TopicListener implements MessageListener {
       this.jtbTopic = jtbTopic;
       this.tableViewer = tableViewer;
       this.tabItemTopic = tabItemTopic;
-      this.maxSize = maxSize;
       this.selectorInUse = selectorInUse;
    };
 
+   // Record messages in a journal. The messages recorded are handed over by batches to recordedMessagesView, in the UI thread
+   void setJournal(MessageJournal journal, RecordedMessagesView recordedMessagesView) {
+      this.recordedMessagesView = recordedMessagesView;
+      this.journal = journal;
+   }
+
    // public void setJmsAsynchronousSession(Session jmsAsynchronousSession) {
    // this.jmsAsynchronousSession = jmsAsynchronousSession;
    // }
 
-   public void setMaxSize(int maxSize) {
-      this.maxSize = maxSize;
-   }
-
    @Override
    public void onMessage(final Message jmsMessage) {
-      sync.asyncExec(new Runnable() {
-         @Override
-         public void run() {
-            try {
-               log.debug("{} : Received message with id '{}'", jtbTopic, jmsMessage.getJMSMessageID());
-               messages.addFirst(new JTBMessage(jtbTopic, jmsMessage));
-               // jmsAsynchronousSession.commit();
-               if (messages.size() > maxSize) {
-                  messages.pollLast();
-                  if (!tabItemTopic.isDisposed()) {
-                     tabItemTopic.setImage(SWTResourceManager.getImage(this.getClass(), "icons/topics/warning-16.png"));
-                  }
-               } else {
-                  if (selectorInUse) {
-                     if (!tabItemTopic.isDisposed()) {
-                        tabItemTopic.setImage(SWTResourceManager.getImage(this.getClass(), "icons/filter.png"));
-                     }
-                  } else {
-                     if (!tabItemTopic.isDisposed()) {
-                        tabItemTopic.setImage(SWTResourceManager.getImage(this.getClass(), "icons/topics/play-2-16.png"));
-                     }
-                  }
-
-               }
-            } catch (JMSException e) {
-               // TODO : Notify end user?
-               log.error("Exception occurred when receiving a message", e);
-            }
+      try {
+         log.debug("{} : Received message with id '{}'", jtbTopic, jmsMessage.getJMSMessageID());
+         long payloadSize = Utils.getPayloadSize(jmsMessage);
+         metrics.record(payloadSize, jmsMessage.getJMSTimestamp());
+         MessageJournal j = journal;
+         if (j == null) {
+            addPending(new PendingMessage(new JTBMessage(jtbTopic, jmsMessage), TopicMessageBuffer.estimateSize(payloadSize)));
+         } else {
+            JTBMessage jtbMessage = new JTBMessage(jtbTopic, jmsMessage);
+            long position = j.append(jtbMessage);
+            pendingRecordedMessages.add(new RecordedMessage(position, jtbMessage));
+         }
+         nbReceived.incrementAndGet();
+      } catch (JMSException | IOException e) {
+         // TODO : Notify end user?
+         log.error("Exception occurred when receiving a message", e);
+         return;
+      }
 
-            // Send event to refresh list of messages
-            if (!(tableViewer.getTable().isDisposed())) {
-               tableViewer.refresh();
+      // Only one update of the table is scheduled at a time
+      if (flushScheduled.compareAndSet(false, true)) {
+         sync.asyncExec(() -> {
+            if (tableViewer.getTable().isDisposed()) {
+               return;
             }
+            tableViewer.getTable().getDisplay().timerExec(FLUSH_INTERVAL, this::flush);
+         });
+      }
+   }
+
+   public SubscriptionMetrics getMetrics() {
+      return metrics;
+   }
+
+   // Show the number of messages displayed vs received, the memory used and the rate in the tab title, the metrics in its tooltip
+   public void updateTabText() {
+      if (tabItemTopic.isDisposed()) {
+         return;
+      }
+      MessageJournal j = journal;
+      if (j == null) {
+         tabItemTopic.setText(String.format("%s (%d / %d, %s, %.0f msg/s)",
+                                            jtbTopic.getName(),
+                                            messages.size(),
+                                            nbReceived.get(),
+                                            Utils.formatSize(messages.getTotalBytes()),
+                                            metrics.getMessagesPerSecond()));
+      } else {
+         tabItemTopic.setText(String.format("%s (%d / %d, journal %s, %.0f msg/s)",
+                                            jtbTopic.getName(),
+                                            j.size(),
+                                            nbReceived.get(),
+                                            Utils.formatSize(j.getSizeOnDisk()),
+                                            metrics.getMessagesPerSecond()));
+      }
+      tabItemTopic.setToolTipText(String.format(METRICS_TOOLTIP,
+                                                metrics.getNbMessages(),
+                                                Utils.formatSize(metrics.getNbBytes()),
+                                                metrics.getMessagesPerSecond(),
+                                                Utils.formatSize((long) metrics.getBytesPerSecond()),
+                                                metrics.getLatencyPercentile(50),
+                                                metrics.getLatencyPercentile(90),
+                                                metrics.getLatencyPercentile(99),
+                                                metrics.getMaxLatency()));
+   }
+
+   // -------
+   // Helpers
+   // -------
+
+   // Called in the UI thread: add the pending messages to the table
+   private void flush() {
+      flushScheduled.set(false);
+
+      if (tableViewer.getTable().isDisposed()) {
+         pendingMessages.clear();
+         pendingRecordedMessages.clear();
+         return;
+      }
+
+      boolean evicted = pendingDropped.getAndSet(false);
+      PendingMessage pendingMessage;
+      while ((pendingMessage = pollPending()) != null) {
+         evicted |= messages.addFirst(pendingMessage.jtbMessage, pendingMessage.size);
+      }
+      // jmsAsynchronousSession.commit();
+
+      // The messages recorded in the journal are not read back from disk
+      List<RecordedMessage> recorded = new ArrayList<>();
+      RecordedMessage recordedMessage;
+      while ((recordedMessage = pendingRecordedMessages.poll()) != null) {
+         recorded.add(recordedMessage);
+      }
+      RecordedMessagesView view = recordedMessagesView;
+      if ((!recorded.isEmpty()) && (view != null)) {
+         view.show(recorded);
+      }
+
+      if (evicted) {
+         tabItemTopic.setImage(SWTResourceManager.getImage(this.getClass(), "icons/topics/warning-16.png"));
+      } else {
+         if (selectorInUse) {
+            tabItemTopic.setImage(SWTResourceManager.getImage(this.getClass(), "icons/filter.png"));
+         } else {
+            tabItemTopic.setImage(SWTResourceManager.getImage(this.getClass(), "icons/topics/play-2-16.png"));
+         }
+      }
+
+      updateTabText();
+      scheduleMetricsRefresh();
+
+      // Send event to refresh list of messages
+      tableViewer.refresh();
+   }
+
+   // Called in the JMS listener thread: queue a message and drop the oldest pending ones when over the limits of the table, as they
+   // would be evicted from the table by the next flush anyway. The newest message is always kept
+   private void addPending(PendingMessage pendingMessage) {
+      pendingMessages.add(pendingMessage);
+      int nbMessages = nbPendingMessages.incrementAndGet();
+      long nbBytes = nbPendingBytes.addAndGet(pendingMessage.size);
+      while ((nbMessages > messages.getMaxMessages()) || ((nbBytes > messages.getMaxBytes()) && (nbMessages > 1))) {
+         if (pollPending() == null) {
+            break;
+         }
+         pendingDropped.set(true);
+         nbMessages = nbPendingMessages.get();
+         nbBytes = nbPendingBytes.get();
+      }
+   }
+
+   private PendingMessage pollPending() {
+      PendingMessage pendingMessage = pendingMessages.poll();
+      if (pendingMessage != null) {
+         nbPendingMessages.decrementAndGet();
+         nbPendingBytes.addAndGet(-pendingMessage.size);
+      }
+      return pendingMessage;
+   }
+
+   // Called in the UI thread: keep the rates shown up to date until no more messages are received
+   private void scheduleMetricsRefresh() {
+      if (metricsRefreshScheduled) {
+         return;
+      }
+      metricsRefreshScheduled = true;
+      tableViewer.getTable().getDisplay().timerExec(METRICS_REFRESH_INTERVAL, () -> {
+         metricsRefreshScheduled = false;
+         if (tabItemTopic.isDisposed()) {
+            return;
+         }
+         updateTabText();
+         if (metrics.getMessagesPerSecond() > 0) {
+            scheduleMetricsRefresh();
          }
       });
    }
+
+   @FunctionalInterface
+   interface RecordedMessagesView {
+      // Called in the UI thread with the messages recorded in the journal since the last call, oldest first
+      void show(List<RecordedMessage> recordedMessages);
+   }
+
+   // A message received, with its estimated size
+   private static final class PendingMessage {
+      private final JTBMessage jtbMessage;
+      private final long       size;
+
+      private PendingMessage(JTBMessage jtbMessage, long size) {
+         this.jtbMessage = jtbMessage;
+         this.size = size;
+      }
+   }
+
+   // A message recorded in the journal, with its position in the journal
+   static final class RecordedMessage {
+      final long       position;
+      final JTBMessage jtbMessage;
+
+      private RecordedMessage(long position, JTBMessage jtbMessage) {
+         this.position = position;
+         this.jtbMessage = jtbMessage;
+      }
+   }
 };
@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2019 Denis Forveille titou10.titou10@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.titou10.jtb.ui.part.content;
+
+import java.util.AbstractCollection;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.titou10.jtb.jms.model.JTBMessage;
+import org.titou10.jtb.util.Utils;
+
+/**
+ * Ring buffer holding the messages captured by a topic subscription, newest first
+ * 
+ * The buffer is bounded both by a number of messages and by an estimated total payload size. The oldest messages are evicted first.
+ * The newest message is always kept, even if its payload alone exceeds the budget
+ * 
+ * Not thread safe, only used from the UI thread. The limits are also read by the JMS listener thread to bound the messages pending
+ * 
+ * @author Denis Forveille
+ *
+ */
+final class TopicMessageBuffer extends AbstractCollection<JTBMessage> {
+
+   private static final Logger log              = LoggerFactory.getLogger(TopicMessageBuffer.class);
+
+   // Rough size of the JTBMessage/Message instances, headers and properties
+   private static final int    MESSAGE_OVERHEAD = 512;
+
+   private final Deque<Entry>  entries          = new ArrayDeque<>();
+   private final long          maxBytes;
+
+   private volatile int        maxMessages;
+   private long                totalBytes;
+
+   TopicMessageBuffer(int maxMessages, long maxBytes) {
+      this.maxMessages = maxMessages;
+      this.maxBytes = maxBytes;
+   }
+
+   // Add a message as the newest one. Return true if older messages have been evicted
+   boolean addFirst(JTBMessage jtbMessage) {
+      return addFirst(jtbMessage, estimateSize(jtbMessage.getJmsMessage()));
+   }
+
+   // Same, with the size of the message already computed by estimateSize()
+   boolean addFirst(JTBMessage jtbMessage, long size) {
+      Entry entry = new Entry(jtbMessage, size);
+      entries.addFirst(entry);
+      totalBytes += entry.size;
+      return evict();
+   }
+
+   // Change the maximum number of messages. Return true if messages have been evicted
+   boolean setMaxMessages(int maxMessages) {
+      this.maxMessages = maxMessages;
+      return evict();
+   }
+
+   long getTotalBytes() {
+      return totalBytes;
+   }
+
+   int getMaxMessages() {
+      return maxMessages;
+   }
+
+   long getMaxBytes() {
+      return maxBytes;
+   }
+
+   // Estimate the memory used by a message from the size of its payload
+   static long estimateSize(long payloadSize) {
+      return MESSAGE_OVERHEAD + payloadSize;
+   }
+
+   // ----------
+   // Collection
+   // ----------
+
+   @Override
+   public int size() {
+      return entries.size();
+   }
+
+   @Override
+   public void clear() {
+      entries.clear();
+      totalBytes = 0;
+   }
+
+   @Override
+   public Iterator<JTBMessage> iterator() {
+      final Iterator<Entry> it = entries.iterator();
+      return new Iterator<JTBMessage>() {
+         private Entry current;
+
+         @Override
+         public boolean hasNext() {
+            return it.hasNext();
+         }
+
+         @Override
+         public JTBMessage next() {
+            current = it.next();
+            return current.jtbMessage;
+         }
+
+         @Override
+         public void remove() {
+            it.remove();
+            totalBytes -= current.size;
+         }
+      };
+   }
+
+   // -------
+   // Helpers
+   // -------
+
+   private boolean evict() {
+      boolean evicted = false;
+      while ((entries.size() > maxMessages) || ((totalBytes > maxBytes) && (entries.size() > 1))) {
+         Entry entry = entries.pollLast();
+         totalBytes -= entry.size;
+         evicted = true;
+      }
+      return evicted;
+   }
+
+   // Estimate the memory used by a message
+   private static long estimateSize(Message jmsMessage) {
+      try {
+         return estimateSize(Utils.getPayloadSize(jmsMessage));
+      } catch (JMSException e) {
+         log.warn("JMSException occurred when computing the size of a message: {}", e.getMessage());
+         return MESSAGE_OVERHEAD;
+      }
+   }
+
+   private static final class Entry {
+      private final JTBMessage jtbMessage;
+      private final long       size;
+
+      private Entry(JTBMessage jtbMessage, long size) {
+         this.jtbMessage = jtbMessage;
+         this.size = size;
+      }
+   }
+}
@@ -84,14 +84,24 @@ public final class Constants {
    public static final boolean  PREF_SHOW_SYSTEM_OBJECTS_DEFAULT           = false;
    public static final String   PREF_SHOW_NON_BROWSABLE_Q                  = "hide.non.browsable.queues";
    public static final boolean  PREF_SHOW_NON_BROWSABLE_Q_DEFAULT          = true;
+   public static final String   PREF_Q_DEPTH_PARALLELISM                   = "queue.depth.parallelism";
+   public static final int      PREF_Q_DEPTH_PARALLELISM_DEFAULT           = 4;
+   public static final String   PREF_Q_DEPTH_BROWSE_INTERVAL               = "queue.depth.browse.interval";
+   public static final int      PREF_Q_DEPTH_BROWSE_INTERVAL_DEFAULT       = 60;
    public static final String   PREF_TRUST_ALL_CERTIFICATES                = "trust.all.certificates";
    public static final boolean  PREF_TRUST_ALL_CERTIFICATES_DEFAULT        = false;
    public static final String   PREF_CLEAR_LOGS_EXECUTION                  = "clear.logs.execution";
    public static final boolean  PREF_CLEAR_LOGS_EXECUTION_DEFAULT          = false;
+   public static final String   PREF_SCRIPT_DATAFILE_MMAP                  = "script.datafile.mmap";
+   public static final boolean  PREF_SCRIPT_DATAFILE_MMAP_DEFAULT          = false;
    public static final String   PREF_MAX_MESSAGES_TOPIC                    = "max.messages.topic";
    public static final int      PREF_MAX_MESSAGES_TOPIC_DEFAULT            = 100;
+   public static final String   PREF_MAX_MB_TOPIC                          = "max.mb.topic";
+   public static final int      PREF_MAX_MB_TOPIC_DEFAULT                  = 64;
    public static final String   PREF_CONN_CLIENT_ID_PREFIX                 = "connection.client.id.prefix";
    public static final String   PREF_CONN_CLIENT_ID_PREFIX_DEFAULT         = "JMSToolBox";
+   public static final String   PREF_CONN_TIMEOUT                          = "connection.timeout";
+   public static final int      PREF_CONN_TIMEOUT_DEFAULT                  = 30;
    public static final String   PREF_XML_INDENT                            = "xml.indent";
    public static final int      PREF_XML_INDENT_DEFAULT                    = 3;
    public static final String   PREF_SYNCHRONIZE_SESSIONS_MESSAGES         = "synchronize.sessions.messages";
@@ -120,6 +130,9 @@ public final class Constants {
    // Various
    public static final String   TS_FORMAT                                  = "yyyy-MM-dd HH:mm:ss.SSS";
 
+   // Number of messages sent between two commits when sending messages in batch
+   public static final int      SEND_COMMIT_BATCH_SIZE                     = 100;
+
    // Handle Message tab selection
    public static final String   CURRENT_TAB_JTBDESTINATION                 = "CURRENT_TAB_JTBDESTINATION";
    public static final String   CURRENT_TAB_JTBSESSION                     = "CURRENT_TAB_JTBSESSION";
@@ -131,6 +144,7 @@ public final class Constants {
    // Selectors
    public static final String   COLUMN_TYPE_COLUMN_SYSTEM_HEADER           = "COLUMN_TYPE_COLUMN_SYSTEM_HEADER";
    public static final String   COLUMN_TYPE_USER_PROPERTY                  = "COLUMN_TYPE_USER_PROPERTY";
+   public static final String   TABLE_ITEM_ROW_INDEX                       = "TABLE_ITEM_ROW_INDEX";
    public static final String   FILTER_MENU_ICON                           = BASE_CORE_PLUGIN + "/icons/filter.png";
    public static final String   FILTER_MENU_URI                            = BASE_CORE_BUNDLE + "/"
                                                                              + FilterHandler.class.getCanonicalName();
@@ -150,6 +164,7 @@ public final class Constants {
    // E4 Events
    public static final String   EVENT_BASE                                 = "org/titou10/jtb/event/";
    public static final String   EVENT_REFRESH_SESSION_BROWSER              = EVENT_BASE + "refresh_session_browser";
+   public static final String   EVENT_REFRESH_SESSION_NODE                 = EVENT_BASE + "refresh_session_node";
    public static final String   EVENT_REFRESH_TEMPLATES_BROWSER            = EVENT_BASE + "refresh_templates_browser";
    public static final String   EVENT_REFRESH_SCRIPTS_BROWSER              = EVENT_BASE + "scripts_browser";
    public static final String   EVENT_JTBMESSAGE_PART_REFRESH              = EVENT_BASE + "jtbmessage_refresh";
@@ -232,6 +247,7 @@ public final class Constants {
    public static final String   COMMAND_SCRIPT_NEWSTEP_PARAM               = BASE + "script.newstep.parameter.mode";
    public static final String   COMMAND_SCRIPT_NEWSTEP_STEP                = "step";
    public static final String   COMMAND_SCRIPT_NEWSTEP_PAUSE               = "pause";
+   public static final String   COMMAND_SCRIPT_NEWSTEP_CONSUME             = "consume";
    public static final String   COMMAND_SCRIPT_NEWSTEP_EDIT                = "edit";
 
    public static final String   COMMAND_SCRIPT_NEWDF                       = BASE_COMMAND + "script.newdatafile";
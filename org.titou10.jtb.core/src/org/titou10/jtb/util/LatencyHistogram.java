@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2019 Denis Forveille titou10.titou10@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.titou10.jtb.util;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Histogram of latencies, in nanoseconds, with a precision of about 3%
+ * 
+ * The values are counted in log-linear buckets: 64 linear buckets, then 32 buckets per power of 2. Recording a value does not
+ * allocate anything. The histogram is not thread safe: each thread records in its own histogram and the histograms are
+ * merged with {@link #add(LatencyHistogram)}
+ * 
+ * @author Denis Forveille
+ *
+ */
+public final class LatencyHistogram {
+
+   private static final int SUB_BUCKET_BITS  = 5;
+   private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;                     // 32
+   private static final int LINEAR_COUNT     = SUB_BUCKET_COUNT * 2;                     // 64
+   private static final int NB_BUCKETS       = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT; // Up to Long.MAX_VALUE
+
+   private final long[]     counts           = new long[NB_BUCKETS];
+
+   private long             count;
+   private long             sum;
+   private long             min              = Long.MAX_VALUE;
+   private long             max;
+
+   // -------
+   // Methods
+   // -------
+
+   public void record(long nanos) {
+      long value = nanos < 0 ? 0 : nanos;
+      counts[bucketIndex(value)]++;
+      count++;
+      sum += value;
+      if (value < min) {
+         min = value;
+      }
+      if (value > max) {
+         max = value;
+      }
+   }
+
+   public void add(LatencyHistogram other) {
+      if (other.count == 0) {
+         return;
+      }
+      for (int i = 0; i < NB_BUCKETS; i++) {
+         counts[i] += other.counts[i];
+      }
+      count += other.count;
+      sum += other.sum;
+      min = Math.min(min, other.min);
+      max = Math.max(max, other.max);
+   }
+
+   public void reset() {
+      Arrays.fill(counts, 0);
+      count = 0;
+      sum = 0;
+      min = Long.MAX_VALUE;
+      max = 0;
+   }
+
+   /**
+    * Returns the value, in nanoseconds, below which fall the given percentage of the values recorded
+    * 
+    * @param percentile
+    *           percentile, between 0 and 100
+    */
+   public long getValueAtPercentile(double percentile) {
+      if (count == 0) {
+         return 0;
+      }
+      long rank = (long) Math.ceil(Math.min(100d, Math.max(0d, percentile)) / 100d * count);
+      if (rank == 0) {
+         return min;
+      }
+      long n = 0;
+      for (int i = 0; i < NB_BUCKETS; i++) {
+         n += counts[i];
+         if (n >= rank) {
+            // Highest value of the bucket, within the values really recorded
+            return Math.max(min, Math.min(max, bucketHighestValue(i)));
+         }
+      }
+      return max;
+   }
+
+   public long getMean() {
+      return count == 0 ? 0 : sum / count;
+   }
+
+   public long getCount() {
+      return count;
+   }
+
+   public long getMin() {
+      return count == 0 ? 0 : min;
+   }
+
+   public long getMax() {
+      return max;
+   }
+
+   @Override
+   public String toString() {
+      return String.format("p50 %s, p90 %s, p99 %s, max %s",
+                           formatNanos(getValueAtPercentile(50)),
+                           formatNanos(getValueAtPercentile(90)),
+                           formatNanos(getValueAtPercentile(99)),
+                           formatNanos(max));
+   }
+
+   public static String formatNanos(long nanos) {
+      if (nanos < TimeUnit.MILLISECONDS.toNanos(1)) {
+         return String.format("%.1f us", nanos / 1_000d);
+      }
+      if (nanos < TimeUnit.SECONDS.toNanos(1)) {
+         return String.format("%.2f ms", nanos / 1_000_000d);
+      }
+      return String.format("%.2f s", nanos / 1_000_000_000d);
+   }
+
+   // -------
+   // Helpers
+   // -------
+
+   static int bucketIndex(long value) {
+      if (value < LINEAR_COUNT) {
+         return (int) value;
+      }
+      int exponent = 63 - Long.numberOfLeadingZeros(value); // >= 6
+      int shift = exponent - SUB_BUCKET_BITS;
+      return (shift * SUB_BUCKET_COUNT) + (int) (value >>> shift);
+   }
+
+   static long bucketHighestValue(int index) {
+      if (index < LINEAR_COUNT) {
+         return index;
+      }
+      int shift = (index / SUB_BUCKET_COUNT) - 1;
+      long subBucket = (index % SUB_BUCKET_COUNT) + SUB_BUCKET_COUNT;
+      if (shift + SUB_BUCKET_BITS >= 62) {
+         return Long.MAX_VALUE;
+      }
+      return ((subBucket + 1) << shift) - 1;
+   }
+}
@@ -38,6 +38,7 @@ import javax.jms.BytesMessage;
 import javax.jms.Destination;
 import javax.jms.JMSException;
 import javax.jms.MapMessage;
+import javax.jms.Message;
 import javax.jms.Queue;
 import javax.jms.TextMessage;
 import javax.jms.Topic;
@@ -46,7 +47,6 @@ import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.filesystem.IFileStore;
 import org.eclipse.core.filesystem.URIUtil;
 import org.eclipse.core.runtime.CoreException;
-import org.eclipse.core.runtime.Platform;
 import org.eclipse.e4.ui.model.application.ui.menu.MMenuItem;
 import org.eclipse.jface.viewers.TableViewer;
 import org.eclipse.swt.SWT;
@@ -73,7 +73,8 @@ public final class Utils {
    private static final int     EXT_LENGTH                = Constants.JTB_TEMPLATE_FILE_EXTENSION.length();
 
    private static final String  TMP_DIR                   = System.getProperty("java.io.tmpdir");
-   private static final boolean IS_WINDOWS                = Platform.getOS().startsWith("win");
+   // Not Platform.getOS(): Utils is also loaded outside of the OSGi runtime by the benchmarks
+   private static final boolean IS_WINDOWS                = System.getProperty("os.name", "").toLowerCase().startsWith("win");
 
    private static final Long    LONG_ZERO                 = Long.valueOf(0L);
 
@@ -181,6 +182,56 @@ public final class Utils {
       return LONG_ZERO;
    }
 
+   // Estimate the memory used by the payload of a message, without consuming the body of Stream/Object messages
+   public static long getPayloadSize(Message jmsMessage) throws JMSException {
+      if (jmsMessage instanceof TextMessage) {
+         String text = ((TextMessage) jmsMessage).getText();
+         return text == null ? 0 : text.length() * 2L;
+      }
+      if (jmsMessage instanceof BytesMessage) {
+         return ((BytesMessage) jmsMessage).getBodyLength();
+      }
+      if (jmsMessage instanceof MapMessage) {
+         MapMessage mapMessage = (MapMessage) jmsMessage;
+         long size = 0;
+         @SuppressWarnings("unchecked")
+         Enumeration<String> names = mapMessage.getMapNames();
+         while (names.hasMoreElements()) {
+            String name = names.nextElement();
+            size += getMapEntrySize(name, mapMessage.getObject(name));
+         }
+         return size;
+      }
+      return 0;
+   }
+
+   // Estimate the memory used by an entry of the payload of a MapMessage
+   public static long getMapEntrySize(String name, Object value) {
+      long size = name.length() * 2L;
+      if (value instanceof String) {
+         return size + ((String) value).length() * 2L;
+      }
+      if (value instanceof byte[]) {
+         return size + ((byte[]) value).length;
+      }
+      return size + 16;
+   }
+
+   private static final String[] SIZE_UNITS = { "B", "KB", "MB", "GB" };
+
+   public static String formatSize(long bytes) {
+      if (bytes < 1024) {
+         return bytes + " B";
+      }
+      double size = bytes;
+      int unit = 0;
+      while ((size >= 1024) && (unit < SIZE_UNITS.length - 1)) {
+         size = size / 1024;
+         unit++;
+      }
+      return String.format("%.1f %s", size, SIZE_UNITS[unit]);
+   }
+
    private static final String  JMS_DELIVERY_MODE               = "%s (%d)";
    private static final Pattern JMS_DELIVERY_MODE_SPACER_REGEXP = Pattern.compile("\\(([0-9]+)\\)");
 
@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2019 Denis Forveille titou10.titou10@gmail.com
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.titou10.jtb.variable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.titou10.jtb.variable.gen.Variable;
+
+/**
+ * A text with variables references ("${name}"), parsed once into literal and variable segments so that the values of the
+ * variables can be substituted in one pass, as many times as needed
+ * 
+ * @author Denis Forveille
+ *
+ */
+public final class CompiledText {
+
+   private static final String   VAR_START     = "${";
+   private static final char     VAR_END       = '}';
+
+   private static final String[] NO_LITERALS   = new String[0];
+   private static final int[]    NO_REFERENCES = new int[0];
+   private static final String[] NO_NAMES      = new String[0];
+
+   private final String          text;
+   private final String[]        literals;                     // Literal i is before reference i. The last one is after the last reference
+   private final int[]           references;                   // Index in names of each variable reference
+   private final String[]        names;                        // Distinct variable names
+   private final int             literalsLength;
+
+   // Variables bound to the names, if any
+   private Variable[]            variables;
+
+   // -----------
+   // Constructor
+   // -----------
+   private CompiledText(String text, String[] literals, int[] references, String[] names) {
+      this.text = text;
+      this.literals = literals;
+      this.references = references;
+      this.names = names;
+
+      int l = 0;
+      for (String literal : literals) {
+         l += literal.length();
+      }
+      this.literalsLength = l;
+   }
+
+   /**
+    * Parse a text into literal and variable segments
+    */
+   public static CompiledText compile(String text) {
+      if ((text == null) || (text.indexOf(VAR_START) < 0)) {
+         return new CompiledText(text, text == null ? NO_LITERALS : new String[] { text }, NO_REFERENCES, NO_NAMES);
+      }
+
+      List<String> literals = new ArrayList<>();
+      List<Integer> references = new ArrayList<>();
+      Map<String, Integer> names = new HashMap<>();
+
+      int literalStart = 0;
+      int pos = 0;
+      while ((pos = text.indexOf(VAR_START, pos)) >= 0) {
+         int nameStart = pos + VAR_START.length();
+         int end = text.indexOf(VAR_END, nameStart);
+         if (end < 0) {
+            break;
+         }
+         // "${a${b}": the reference is "${b}"
+         int nested = text.lastIndexOf(VAR_START, end);
+         if (nested > pos) {
+            pos = nested;
+            continue;
+         }
+         if (end == nameStart) {
+            pos = end + 1;
+            continue;
+         }
+
+         literals.add(text.substring(literalStart, pos));
+         String name = text.substring(nameStart, end);
+         Integer index = names.get(name);
+         if (index == null) {
+            index = names.size();
+            names.put(name, index);
+         }
+         references.add(index);
+
+         pos = end + 1;
+         literalStart = pos;
+      }
+      literals.add(text.substring(literalStart));
+
+      String[] n = new String[names.size()];
+      for (Map.Entry<String, Integer> e : names.entrySet()) {
+         n[e.getValue()] = e.getKey();
+      }
+      int[] r = new int[references.size()];
+      for (int i = 0; i < r.length; i++) {
+         r[i] = references.get(i);
+      }
+      return new CompiledText(text, literals.toArray(new String[literals.size()]), r, n);
+   }
+
+   // -------
+   // Methods
+   // -------
+
+   /**
+    * Substitutes the variables references in one pass
+    * 
+    * @param values
+    *           value of each name returned by {@link #getNames()}, in the same order. The reference is kept as is if null
+    * @param buffer
+    *           buffer reused between calls. May be null
+    */
+   public String render(String[] values, StringBuilder buffer) {
+      if (references.length == 0) {
+         return text;
+      }
+
+      int length = literalsLength;
+      for (int ref : references) {
+         String v = values[ref];
+         length += v == null ? names[ref].length() + 3 : v.length();
+      }
+
+      StringBuilder sb = buffer == null ? new StringBuilder(length) : buffer;
+      sb.setLength(0);
+      sb.ensureCapacity(length);
+      for (int i = 0; i < references.length; i++) {
+         sb.append(literals[i]);
+         String v = values[references[i]];
+         if (v == null) {
+            sb.append(VAR_START).append(names[references[i]]).append(VAR_END);
+         } else {
+            sb.append(v);
+         }
+      }
+      sb.append(literals[references.length]);
+      return sb.toString();
+   }
+
+   public boolean hasVariables() {
+      return references.length > 0;
+   }
+
+   // ------------------------
+   // Standard Getters/Setters
+   // ------------------------
+
+   public String getText() {
+      return text;
+   }
+
+   public String[] getNames() {
+      return names;
+   }
+
+   Variable[] getVariables() {
+      return variables;
+   }
+
+   void setVariables(Variable[] variables) {
+      this.variables = variables;
+   }
+
+}
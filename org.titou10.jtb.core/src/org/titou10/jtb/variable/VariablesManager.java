@@ -31,7 +31,6 @@ import java.util.Date;
 import java.util.GregorianCalendar;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Random;
 
 import javax.annotation.PostConstruct;
@@ -187,19 +186,18 @@ public class VariablesManager {
    // Variables Helper
    // ---------------------------
 
-   public String replaceDataFileVariables(Map<String, String> dataFileVariables, String originalText) {
+   public String replaceVariables(Map<String, String> variablesValues, String originalText) {
       if (Utils.isEmpty(originalText)) {
          return originalText;
       }
 
-      String res = originalText;
-
-      for (Entry<String, String> e : dataFileVariables.entrySet()) {
-         String v = buildVariableReplaceName(e.getKey());
-         res = res.replaceAll(v, e.getValue());
+      CompiledText compiledText = CompiledText.compile(originalText);
+      String[] names = compiledText.getNames();
+      String[] values = new String[names.length];
+      for (int i = 0; i < names.length; i++) {
+         values[i] = variablesValues.get(names[i]);
       }
-
-      return res;
+      return compiledText.render(values, null);
    }
 
    public String replaceTemplateVariables(String originalText) {
@@ -207,25 +205,53 @@ public class VariablesManager {
          return originalText;
       }
 
-      StringBuilder tag1 = new StringBuilder(64);
-      StringBuilder tag2 = new StringBuilder(64);
-      Random r = new Random(System.nanoTime());
+      return replaceTemplateVariables(compileText(originalText), null, new Random(System.nanoTime()), null);
+   }
 
-      String res = originalText;
+   /**
+    * Parse a text once for repeated variables substitutions, and bind the variables referenced in the text
+    */
+   public CompiledText compileText(String text) {
+      CompiledText compiledText = CompiledText.compile(text);
+
+      String[] names = compiledText.getNames();
+      Variable[] boundVariables = new Variable[names.length];
+      for (int i = 0; i < names.length; i++) {
+         for (Variable v : variables) {
+            if (v.getName().equals(names[i])) {
+               boundVariables[i] = v;
+               break;
+            }
+         }
+      }
+      compiledText.setVariables(boundVariables);
 
-      // For each possible variable
-      for (Variable v : variables) {
-         tag2.setLength(0);
-         tag2.append(buildVariableDisplayName(v));
-
-         if (res.contains(tag2)) {
-            tag1.setLength(0);
-            tag1.append(buildVariableReplaceName(v.getName()));
-            String val = resolveVariable(r, v);
-            res = res.replaceAll(tag1.toString(), val);
+      return compiledText;
+   }
+
+   /**
+    * Substitutes in one pass the variables of a compiled text: the data file variables first, then the template variables.
+    * Template variables are resolved once, even if they are referenced several times
+    */
+   public String replaceTemplateVariables(CompiledText compiledText,
+                                          Map<String, String> dataFileVariables,
+                                          Random r,
+                                          StringBuilder buffer) {
+      if (!compiledText.hasVariables()) {
+         return compiledText.getText();
+      }
+
+      String[] names = compiledText.getNames();
+      Variable[] boundVariables = compiledText.getVariables();
+      String[] values = new String[names.length];
+      for (int i = 0; i < names.length; i++) {
+         String value = dataFileVariables == null ? null : dataFileVariables.get(names[i]);
+         if ((value == null) && (boundVariables != null) && (boundVariables[i] != null)) {
+            value = resolveVariable(r, boundVariables[i]);
          }
+         values[i] = value;
       }
-      return res;
+      return compiledText.render(values, buffer);
    }
 
    public String resolveVariable(Random r, Variable variable) {
@@ -325,14 +351,6 @@ public class VariablesManager {
       return sb.toString();
    }
 
-   public String buildVariableReplaceName(String name) {
-      StringBuilder sb = new StringBuilder(64);
-      sb.append("\\$\\{");
-      sb.append(name);
-      sb.append("\\}");
-      return sb.toString();
-   }
-
    public String buildDescription(Variable variable) {
       StringBuilder sb = new StringBuilder(128);
 
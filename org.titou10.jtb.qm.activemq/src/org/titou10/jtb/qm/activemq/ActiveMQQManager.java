@@ -18,8 +18,10 @@ package org.titou10.jtb.qm.activemq;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -89,6 +91,9 @@ public class ActiveMQQManager extends QManager {
    private static final QueryExp           JMX_BROKER_QUERY       = Query
             .isInstanceOf(Query.value("org.apache.activemq.broker.jmx.BrokerViewMBean"));
 
+   // Queues without messages. Evaluated by the MBean server
+   private static final QueryExp           JMX_EMPTY_QUEUE_QUERY  = Query.eq(Query.attr("QueueSize"), Query.value(0L));
+
    private static final String             SYSTEM_PREFIX          = "ActiveMQ.";
 
    private static final String             CR                     = "\n";
@@ -476,6 +481,85 @@ public class ActiveMQQManager extends QManager {
       return depth;
    }
 
+   @Override
+   public Map<String, Integer> getQueueDepths(Connection jmsConnection, Collection<String> queueNames) {
+
+      SessionInfo sessionInfo = sessionsInfo.get(jmsConnection.hashCode());
+
+      if (!sessionInfo.isUseJMX()) {
+         // No JMX. Count the nb of message by hand...
+         return super.getQueueDepths(jmsConnection, queueNames);
+      }
+
+      MBeanServerConnection mbsc = sessionInfo.getMbsc();
+      boolean legacy = sessionInfo.isUseLegacys();
+
+      Set<String> names = new HashSet<>(queueNames);
+      Map<String, Integer> depths = new HashMap<>(names.size());
+      try {
+         // One query for all the queues instead of one per queue
+         ObjectName queuesPattern = new ObjectName(legacy ? JMX_QUEUES_LEGACY : JMX_QUEUES);
+         Set<ObjectName> queuesON = mbsc.queryNames(queuesPattern, null);
+
+         // JMX can't read an attribute of several MBeans in one call, but the MBean server can tell which queues are empty.
+         // "QueueSize" is then only read for the other queues
+         Set<ObjectName> emptyQueuesON = mbsc.queryNames(queuesPattern, JMX_EMPTY_QUEUE_QUERY);
+
+         for (ObjectName on : queuesON) {
+            // Skip the consumers/producers MBeans attached to the queue
+            if (on.getKeyProperty("endpoint") != null) {
+               continue;
+            }
+            String dName = on.getKeyProperty(legacy ? "Destination" : "destinationName");
+            if (names.contains(dName)) {
+               if (emptyQueuesON.contains(on)) {
+                  depths.put(dName, 0);
+               } else {
+                  depths.put(dName, ((Long) mbsc.getAttribute(on, "QueueSize")).intValue());
+               }
+            }
+         }
+      } catch (Exception e) {
+         log.error("Exception when reading queue depths. Reading the remaining ones queue by queue", e);
+
+         List<String> remainingNames = new ArrayList<>(names.size() - depths.size());
+         for (String queueName : names) {
+            if (!depths.containsKey(queueName)) {
+               remainingNames.add(queueName);
+            }
+         }
+         depths.putAll(super.getQueueDepths(jmsConnection, remainingNames));
+      }
+      return depths;
+   }
+
+   @Override
+   public Integer purgeQueue(Connection jmsConnection, String queueName) throws Exception {
+
+      SessionInfo sessionInfo = sessionsInfo.get(jmsConnection.hashCode());
+
+      if (!sessionInfo.isUseJMX()) {
+         // No JMX. Messages will be consumed by hand...
+         return null;
+      }
+
+      MBeanServerConnection mbsc = sessionInfo.getMbsc();
+      boolean legacy = sessionInfo.isUseLegacys();
+
+      ObjectName on = new ObjectName(String.format(legacy ? JMX_QUEUE_LEGACY : JMX_QUEUE, queueName));
+      Set<ObjectName> attributesSet = mbsc.queryNames(on, null);
+      if ((attributesSet == null) || (attributesSet.isEmpty())) {
+         return null;
+      }
+
+      ObjectName queueON = attributesSet.iterator().next();
+      Long depth = (Long) mbsc.getAttribute(queueON, "QueueSize");
+      mbsc.invoke(queueON, "purge", null, null);
+      log.debug("Queue {} purged. {} messages removed", queueName, depth);
+
+      return depth.intValue();
+   }
+
    @Override
    public Map<String, Object> getQueueInformation(Connection jmsConnection, String queueName) {
 
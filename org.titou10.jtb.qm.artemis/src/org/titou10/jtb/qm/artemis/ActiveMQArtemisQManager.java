@@ -269,6 +269,28 @@ public class ActiveMQArtemisQManager extends QManager {
       return n == null ? null : n.intValue();
    }
 
+   @Override
+   public Long getFirstMessageAge(Connection jmsConnection, String queueName) {
+      Integer hash = jmsConnection.hashCode();
+      QueueRequestor requestorJMS = requestorJMSs.get(hash);
+      Session sessionJMS = sessionJMSs.get(hash);
+
+      Number n = samNull(Number.class, sessionJMS, requestorJMS, ResourceNames.JMS_QUEUE + queueName, "firstMessageAge");
+      return n == null ? null : n.longValue();
+   }
+
+   @Override
+   public Integer purgeQueue(Connection jmsConnection, String queueName) throws Exception {
+      Integer hash = jmsConnection.hashCode();
+      QueueRequestor requestorJMS = requestorJMSs.get(hash);
+      Session sessionJMS = sessionJMSs.get(hash);
+
+      // An empty filter removes all the messages
+      Number n = (Number) invokeAdminOperation(sessionJMS, requestorJMS, ResourceNames.JMS_QUEUE + queueName, "removeMessages", "");
+      log.debug("Queue {} purged. {} messages removed", queueName, n);
+      return n == null ? null : n.intValue();
+   }
+
    @Override
    public Map<String, Object> getQueueInformation(Connection jmsConnection, String queueName) {
 
@@ -385,10 +407,24 @@ public class ActiveMQArtemisQManager extends QManager {
                                   String methodName) throws Exception {
       Message m = sessionJMS.createMessage();
       JMSManagementHelper.putAttribute(m, resourceName, methodName);
+      return (T) sendAdminRequest(requestorJMS, m);
+   }
+
+   private Object invokeAdminOperation(Session sessionJMS,
+                                       QueueRequestor requestorJMS,
+                                       String resourceName,
+                                       String operationName,
+                                       Object... parameters) throws Exception {
+      Message m = sessionJMS.createMessage();
+      JMSManagementHelper.putOperationInvocation(m, resourceName, operationName, parameters);
+      return sendAdminRequest(requestorJMS, m);
+   }
+
+   private Object sendAdminRequest(QueueRequestor requestorJMS, Message m) throws Exception {
       Message r = requestorJMS.request(m);
 
       if (JMSManagementHelper.hasOperationSucceeded(r)) {
-         return (T) JMSManagementHelper.getResult(r);
+         return JMSManagementHelper.getResult(r);
       } else {
          Object resp = JMSManagementHelper.getResult(r);
          throw new Exception(resp.toString());
@@ -296,6 +296,25 @@ public class HornetQQManager extends QManager {
       }
    }
 
+   @Override
+   public Integer purgeQueue(Connection jmsConnection, String queueName) throws Exception {
+
+      Integer hash = jmsConnection.hashCode();
+      QueueRequestor requestorJMS = requestorJMSs.get(hash);
+      Session sessionJMS = sessionJMSs.get(hash);
+
+      // An empty filter removes all the messages
+      Message m = sessionJMS.createMessage();
+      JMSManagementHelper.putOperationInvocation(m, Q_PREFIX + queueName, "removeMessages", "");
+      Message r = requestorJMS.request(m);
+      if (!JMSManagementHelper.hasOperationSucceeded(r)) {
+         throw new Exception("Operation 'removeMessages' failed on '" + queueName + "': " + JMSManagementHelper.getResult(r));
+      }
+      Number n = (Number) JMSManagementHelper.getResult(r);
+      log.debug("Queue {} purged. {} messages removed", queueName, n);
+      return n == null ? null : n.intValue();
+   }
+
    @Override
    public Map<String, Object> getQueueInformation(Connection jmsConnection, String queueName) {
 
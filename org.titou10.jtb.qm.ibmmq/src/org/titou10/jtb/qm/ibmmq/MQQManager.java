@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.LinkedHashMap;
@@ -468,6 +469,114 @@ public class MQQManager extends QManager {
       return depth;
    }
 
+   @Override
+   public Map<String, Integer> getQueueDepths(Connection jmsConnection, Collection<String> queueNames) {
+
+      Integer hash = jmsConnection.hashCode();
+      PCFMessageAgent agent = mqAgents.get(hash);
+
+      Map<String, Integer> depths = new HashMap<>(queueNames.size());
+      try {
+         // One PCF command for all the local queues
+         PCFMessage request = new PCFMessage(CMQCFC.MQCMD_INQUIRE_Q);
+         request.addParameter(CMQC.MQCA_Q_NAME, "*");
+         request.addParameter(CMQC.MQIA_Q_TYPE, CMQC.MQQT_LOCAL);
+         request.addParameter(CMQCFC.MQIACF_Q_ATTRS, new int[] { CMQC.MQCA_Q_NAME, CMQC.MQIA_CURRENT_Q_DEPTH });
+
+         PCFMessage[] responses = agent.send(request);
+         for (PCFMessage response : responses) {
+            depths.put(response.getStringParameterValue(CMQC.MQCA_Q_NAME).trim(),
+                       response.getIntParameterValue(CMQC.MQIA_CURRENT_Q_DEPTH));
+         }
+      } catch (MQDataException | IOException e) {
+         log.error("Exception when reading queue depths. Ignoring", e);
+      }
+
+      // Alias, remote.. queues are not returned by the command above
+      Map<String, Integer> res = new HashMap<>(queueNames.size());
+      for (String queueName : queueNames) {
+         Integer depth = depths.get(queueName);
+         res.put(queueName, depth == null ? getQueueDepth(jmsConnection, queueName) : depth);
+      }
+      return res;
+   }
+
+   @Override
+   public Long getFirstMessageAge(Connection jmsConnection, String queueName) {
+
+      Integer hash = jmsConnection.hashCode();
+      PCFMessageAgent agent = mqAgents.get(hash);
+
+      try {
+         PCFMessage request = new PCFMessage(CMQCFC.MQCMD_INQUIRE_Q_STATUS);
+         request.addParameter(CMQC.MQCA_Q_NAME, queueName);
+         request.addParameter(CMQCFC.MQIACF_Q_STATUS_ATTRS, new int[] { CMQCFC.MQIACF_OLDEST_MSG_AGE });
+
+         PCFMessage[] responses = agent.send(request);
+         int age = responses[0].getIntParameterValue(CMQCFC.MQIACF_OLDEST_MSG_AGE);
+
+         // -1 : Queue monitoring is not enabled (MONQ), the age is not available
+         if (age < 0) {
+            return null;
+         }
+         return age * 1000L;
+      } catch (MQDataException | IOException e) {
+         log.warn("Exception when reading oldest message age for {}. Ignoring. Msg={}", queueName, e.getMessage());
+         return null;
+      }
+   }
+
+   @Override
+   public Map<String, Long> getFirstMessageAges(Connection jmsConnection, Collection<String> queueNames) {
+
+      Integer hash = jmsConnection.hashCode();
+      PCFMessageAgent agent = mqAgents.get(hash);
+
+      Map<String, Long> ages = new HashMap<>(queueNames.size());
+      try {
+         // One PCF command for all the local queues
+         PCFMessage request = new PCFMessage(CMQCFC.MQCMD_INQUIRE_Q_STATUS);
+         request.addParameter(CMQC.MQCA_Q_NAME, "*");
+         request.addParameter(CMQCFC.MQIACF_Q_STATUS_ATTRS, new int[] { CMQC.MQCA_Q_NAME, CMQCFC.MQIACF_OLDEST_MSG_AGE });
+
+         PCFMessage[] responses = agent.send(request);
+         for (PCFMessage response : responses) {
+            int age = response.getIntParameterValue(CMQCFC.MQIACF_OLDEST_MSG_AGE);
+            // -1 : Queue monitoring is not enabled (MONQ), the age is not available
+            if (age >= 0) {
+               ages.put(response.getStringParameterValue(CMQC.MQCA_Q_NAME).trim(), age * 1000L);
+            }
+         }
+      } catch (MQDataException | IOException e) {
+         log.warn("Exception when reading oldest message ages. Ignoring. Msg={}", e.getMessage());
+      }
+
+      // Alias, remote.. queues are not returned by the command above, the Q provider can't tell
+      Map<String, Long> res = new HashMap<>(queueNames.size());
+      for (String queueName : queueNames) {
+         res.put(queueName, ages.get(queueName));
+      }
+      return res;
+   }
+
+   @Override
+   public Integer purgeQueue(Connection jmsConnection, String queueName) throws Exception {
+
+      Integer hash = jmsConnection.hashCode();
+      PCFMessageAgent agent = mqAgents.get(hash);
+
+      // The CLEAR QLOCAL command does not return the number of messages removed
+      Integer depth = getQueueDepth(jmsConnection, queueName);
+
+      // Fails if the queue has uncommitted messages or is opened by another application
+      PCFMessage request = new PCFMessage(CMQCFC.MQCMD_CLEAR_Q);
+      request.addParameter(CMQC.MQCA_Q_NAME, queueName);
+      agent.send(request);
+      log.debug("Queue {} cleared. {} messages removed", queueName, depth);
+
+      return depth == null ? Integer.valueOf(0) : depth;
+   }
+
    @Override
    public Map<String, Object> getQueueInformation(Connection jmsConnection, String queueName) {
 
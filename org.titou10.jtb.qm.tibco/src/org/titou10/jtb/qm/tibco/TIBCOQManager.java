@@ -17,9 +17,12 @@
 package org.titou10.jtb.qm.tibco;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.TreeMap;
@@ -341,6 +344,43 @@ public class TIBCOQManager extends QManager {
       }
    }
 
+   @Override
+   public Map<String, Integer> getQueueDepths(Connection jmsConnection, Collection<String> queueNames) {
+      Integer hash = jmsConnection.hashCode();
+      TibjmsAdmin tibcoAdmin = queueManagers.get(hash);
+
+      Set<String> names = new HashSet<>(queueNames);
+      Map<String, Integer> depths = new HashMap<>(names.size());
+      try {
+         // One admin call for all the queues
+         for (QueueInfo queueInfo : tibcoAdmin.getQueues()) {
+            if (names.contains(queueInfo.getName())) {
+               depths.put(queueInfo.getName(), (int) queueInfo.getOutboundStatistics().getTotalMessages());
+            }
+         }
+      } catch (TibjmsAdminException e) {
+         log.warn("Exception occured while reading Q depths. Msg={}", e.getMessage());
+      }
+      return depths;
+   }
+
+   @Override
+   public Integer purgeQueue(Connection jmsConnection, String queueName) throws Exception {
+      Integer hash = jmsConnection.hashCode();
+      TibjmsAdmin tibcoAdmin = queueManagers.get(hash);
+
+      QueueInfo queueInfo = tibcoAdmin.getQueue(queueName);
+      if (queueInfo == null) {
+         return null;
+      }
+
+      long depth = queueInfo.getPendingMessageCount();
+      tibcoAdmin.purgeQueue(queueName);
+      log.debug("Queue {} purged. {} messages removed", queueName, depth);
+
+      return (int) depth;
+   }
+
    @Override
    public Map<String, Object> getQueueInformation(Connection jmsConnection, String queueName) {
       SortedMap<String, Object> properties = new TreeMap<>();
@@ -347,6 +347,23 @@ public class WebLogicQManager extends QManager {
       return depth;
    }
 
+   @Override
+   public Integer purgeQueue(Connection jmsConnection, String queueName) throws Exception {
+      Integer hash = jmsConnection.hashCode();
+      MBeanServerConnection mbsc = mbscs.get(hash);
+      Map<Integer, ObjectName> destinationObjectNames = destinationONPerConnection.get(hash);
+
+      ObjectName on = destinationObjectNames.get(queueName.hashCode());
+      if (on == null) {
+         return null;
+      }
+
+      // An empty selector deletes all the messages
+      Integer nb = (Integer) mbsc.invoke(on, "deleteMessages", new Object[] { "" }, new String[] { String.class.getName() });
+      log.debug("Queue {} purged. {} messages removed", queueName, nb);
+      return nb;
+   }
+
    @Override
    public Map<String, Object> getQueueInformation(Connection jmsConnection, String queueName) {
       return getDestinationInformation(jmsConnection, queueName);
@@ -67,9 +67,7 @@ public class ScriptServices {
       }
 
       try {
-         int nbMessaqges = eConfigManager.executeScript(scriptName, simulation, nbMessagesMax);
-         ScriptOutput scriptOutput = new ScriptOutput();
-         scriptOutput.setNbMessages(nbMessaqges);
+         ScriptOutput scriptOutput = eConfigManager.executeScript(scriptName, simulation, nbMessagesMax);
          return Response.ok(scriptOutput).build();
       } catch (Exception e) {
          log.error("An error occurred while executing the script", e);
@@ -32,6 +32,7 @@ import org.titou10.jtb.connector.ExternalConnectorManager;
 import org.titou10.jtb.connector.ex.ExecutionException;
 import org.titou10.jtb.connector.ex.UnknownSessionException;
 import org.titou10.jtb.connector.transport.Destination;
+import org.titou10.jtb.connector.transport.TopicMetrics;
 import org.titou10.jtb.rest.util.Constants;
 
 /**
@@ -80,4 +81,30 @@ public class SessionServices {
          return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
       }
    }
+
+   // -------------------------------------------------------
+   // Retrieve metrics of the active topic subscriptions
+   // /rest/session/<sessionName>/subscriptions
+   // -------------------------------------------------------
+
+   @GET
+   @Path("/{" + Constants.P_SESSION_NAME + "}/subscriptions")
+   @Produces(MediaType.APPLICATION_JSON)
+   public Response getTopicSubscriptionMetrics(@PathParam(Constants.P_SESSION_NAME) String sessionName) {
+      log.debug("getTopicSubscriptionMetrics. sessionName={}", sessionName);
+
+      try {
+
+         List<TopicMetrics> topicMetrics = eConfigManager.getTopicSubscriptionMetrics(sessionName);
+         log.debug("nb topic subscriptions : {}", topicMetrics.size());
+         if (topicMetrics.isEmpty()) {
+            return Response.noContent().build();
+         } else {
+            return Response.ok(topicMetrics).build();
+         }
+
+      } catch (UnknownSessionException e) {
+         return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
+      }
+   }
 }